@@ -0,0 +1,577 @@
+package com.ikuuy.locale.format;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.TimeZone;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
+
+/**
+ * A formatter of many dates and numbers at once, which writes the localized
+ * texts of primitive arrays or streams into an {@link Appendable}, each
+ * followed by a separator such as a line feed.
+ * <p>
+ * The values are formatted by {@link LocalizedDateFormatter} and
+ * {@link LocalizedNumberFormatter}, so that no formatter and no temporary
+ * string is created for each value. A large input is split into chunks, which
+ * are formatted in parallel by a {@link ForkJoinPool} and written in the
+ * original order. Only a limited number of chunks are held in memory at a time,
+ * so that a stream of any length can be written.
+ * <p>
+ * Instances are immutable and safe for use by multiple threads.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class BulkFormatter {
+
+	/**
+	 * The default number of the values in a chunk.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+	/**
+	 * The number of the chunks in flight per thread of the pool.
+	 */
+	private static final int CHUNKS_PER_THREAD = 2;
+
+	/**
+	 * The estimated number of the characters per value, including the separator.
+	 */
+	private static final int CHARS_PER_VALUE = 16;
+
+	/**
+	 * The maximum initial capacity of the buffer of a chunk, which grows beyond
+	 * it if needed.
+	 */
+	private static final int MAX_INITIAL_CAPACITY = 1 << 20;
+
+	/**
+	 * The pool which formats the chunks.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * The number of the values in a chunk.
+	 */
+	private final int chunkSize;
+
+	/**
+	 * Constructs a bulk formatter.
+	 *
+	 * @param pool the pool which formats the chunks.
+	 * @param chunkSize the number of the values in a chunk. An input up to this
+	 *     size is formatted by the calling thread.
+	 * @throws IllegalArgumentException if <code>chunkSize</code> is not positive.
+	 * @throws NullPointerException if <code>pool</code> is <code>null</code>.
+	 */
+	public BulkFormatter(final ForkJoinPool pool, final int chunkSize) throws IllegalArgumentException,
+			NullPointerException {
+		if (pool == null) {
+			throw new NullPointerException("pool:null");
+		} else if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize:" + chunkSize);
+		}
+
+		this.pool = pool;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Constructs a bulk formatter which uses the common pool and the default
+	 * chunk size.
+	 */
+	public BulkFormatter() {
+		this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Formats the instants in milliseconds since the epoch.
+	 *
+	 * @param formatter the date formatter.
+	 * @param zone the time zone.
+	 * @param epochMillis the instants.
+	 * @param separator the text which follows each value.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if any argument is <code>null</code>.
+	 */
+	public void formatEpochMillis(final LocalizedDateFormatter formatter, final TimeZone zone,
+			final long[] epochMillis, final CharSequence separator, final Appendable out) throws IOException,
+			NullPointerException {
+		if (formatter == null) {
+			throw new NullPointerException("formatter:null");
+		} else if (zone == null) {
+			throw new NullPointerException("zone:null");
+		} else if (epochMillis == null) {
+			throw new NullPointerException("epochMillis:null");
+		}
+
+		format(new DateSource(formatter, zone, epochMillis), epochMillis.length, separator, out);
+	}
+
+	/**
+	 * Formats a stream of the instants in milliseconds since the epoch. The
+	 * stream is consumed in the calling thread.
+	 *
+	 * @param formatter the date formatter.
+	 * @param zone the time zone.
+	 * @param epochMillis the instants.
+	 * @param separator the text which follows each value.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if any argument is <code>null</code>.
+	 */
+	public void formatEpochMillis(final LocalizedDateFormatter formatter, final TimeZone zone,
+			final LongStream epochMillis, final CharSequence separator, final Appendable out) throws IOException,
+			NullPointerException {
+		if (formatter == null) {
+			throw new NullPointerException("formatter:null");
+		} else if (zone == null) {
+			throw new NullPointerException("zone:null");
+		} else if (epochMillis == null) {
+			throw new NullPointerException("epochMillis:null");
+		}
+
+		PrimitiveIterator.OfLong iterator = epochMillis.iterator();
+		long[] buffer = new long[getWindowSize()];
+		int length = fill(iterator, buffer);
+		while (length > 0) {
+			format(new DateSource(formatter, zone, buffer), length, separator, out);
+			length = fill(iterator, buffer);
+		}
+	}
+
+	/**
+	 * Formats the <code>long</code> values.
+	 *
+	 * @param formatter the number formatter.
+	 * @param values the values.
+	 * @param separator the text which follows each value.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if any argument is <code>null</code>.
+	 */
+	public void formatLongs(final LocalizedNumberFormatter formatter, final long[] values,
+			final CharSequence separator, final Appendable out) throws IOException, NullPointerException {
+		formatDecimals(formatter, values, 0, separator, out);
+	}
+
+	/**
+	 * Formats a stream of the <code>long</code> values. The stream is consumed in
+	 * the calling thread.
+	 *
+	 * @param formatter the number formatter.
+	 * @param values the values.
+	 * @param separator the text which follows each value.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if any argument is <code>null</code>.
+	 */
+	public void formatLongs(final LocalizedNumberFormatter formatter, final LongStream values,
+			final CharSequence separator, final Appendable out) throws IOException, NullPointerException {
+		formatDecimals(formatter, values, 0, separator, out);
+	}
+
+	/**
+	 * Formats the fixed-point values which share a scale.
+	 *
+	 * @param formatter the number formatter.
+	 * @param unscaledValues the unscaled values.
+	 * @param scale the scale, which is the number of the digits after the decimal
+	 *     point.
+	 * @param separator the text which follows each value.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if any argument is <code>null</code>.
+	 */
+	public void formatDecimals(final LocalizedNumberFormatter formatter, final long[] unscaledValues,
+			final int scale, final CharSequence separator, final Appendable out) throws IOException,
+			NullPointerException {
+		if (formatter == null) {
+			throw new NullPointerException("formatter:null");
+		} else if (unscaledValues == null) {
+			throw new NullPointerException("unscaledValues:null");
+		}
+
+		format(new DecimalSource(formatter, unscaledValues, scale), unscaledValues.length, separator, out);
+	}
+
+	/**
+	 * Formats a stream of the fixed-point values which share a scale. The stream
+	 * is consumed in the calling thread.
+	 *
+	 * @param formatter the number formatter.
+	 * @param unscaledValues the unscaled values.
+	 * @param scale the scale, which is the number of the digits after the decimal
+	 *     point.
+	 * @param separator the text which follows each value.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if any argument is <code>null</code>.
+	 */
+	public void formatDecimals(final LocalizedNumberFormatter formatter, final LongStream unscaledValues,
+			final int scale, final CharSequence separator, final Appendable out) throws IOException,
+			NullPointerException {
+		if (formatter == null) {
+			throw new NullPointerException("formatter:null");
+		} else if (unscaledValues == null) {
+			throw new NullPointerException("unscaledValues:null");
+		}
+
+		PrimitiveIterator.OfLong iterator = unscaledValues.iterator();
+		long[] buffer = new long[getWindowSize()];
+		int length = fill(iterator, buffer);
+		while (length > 0) {
+			format(new DecimalSource(formatter, buffer, scale), length, separator, out);
+			length = fill(iterator, buffer);
+		}
+	}
+
+	/**
+	 * Formats the <code>double</code> values.
+	 *
+	 * @param formatter the number formatter.
+	 * @param values the values.
+	 * @param separator the text which follows each value.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if any argument is <code>null</code>.
+	 */
+	public void formatDoubles(final LocalizedNumberFormatter formatter, final double[] values,
+			final CharSequence separator, final Appendable out) throws IOException, NullPointerException {
+		if (formatter == null) {
+			throw new NullPointerException("formatter:null");
+		} else if (values == null) {
+			throw new NullPointerException("values:null");
+		}
+
+		format(new DoubleSource(formatter, values), values.length, separator, out);
+	}
+
+	/**
+	 * Formats a stream of the <code>double</code> values. The stream is consumed
+	 * in the calling thread.
+	 *
+	 * @param formatter the number formatter.
+	 * @param values the values.
+	 * @param separator the text which follows each value.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if any argument is <code>null</code>.
+	 */
+	public void formatDoubles(final LocalizedNumberFormatter formatter, final DoubleStream values,
+			final CharSequence separator, final Appendable out) throws IOException, NullPointerException {
+		if (formatter == null) {
+			throw new NullPointerException("formatter:null");
+		} else if (values == null) {
+			throw new NullPointerException("values:null");
+		}
+
+		PrimitiveIterator.OfDouble iterator = values.iterator();
+		double[] buffer = new double[getWindowSize()];
+		int length = fill(iterator, buffer);
+		while (length > 0) {
+			format(new DoubleSource(formatter, buffer), length, separator, out);
+			length = fill(iterator, buffer);
+		}
+	}
+
+	/**
+	 * Returns the number of the values which are held in memory at a time.
+	 *
+	 * @return the number of the values in the chunks in flight.
+	 */
+	private int getWindowSize() {
+		return (int) Math.min((long) chunkSize * pool.getParallelism() * CHUNKS_PER_THREAD, Integer.MAX_VALUE - 8);
+	}
+
+	/**
+	 * Fills a buffer from an iterator.
+	 *
+	 * @param iterator the iterator.
+	 * @param buffer the buffer.
+	 * @return the number of the values filled.
+	 */
+	private static int fill(final PrimitiveIterator.OfLong iterator, final long[] buffer) {
+		int length = 0;
+		while (length < buffer.length && iterator.hasNext()) {
+			buffer[length++] = iterator.nextLong();
+		}
+
+		return length;
+	}
+
+	/**
+	 * Fills a buffer from an iterator.
+	 *
+	 * @param iterator the iterator.
+	 * @param buffer the buffer.
+	 * @return the number of the values filled.
+	 */
+	private static int fill(final PrimitiveIterator.OfDouble iterator, final double[] buffer) {
+		int length = 0;
+		while (length < buffer.length && iterator.hasNext()) {
+			buffer[length++] = iterator.nextDouble();
+		}
+
+		return length;
+	}
+
+	/**
+	 * Formats the first values of a source. A small input is formatted by the
+	 * calling thread. Otherwise, the chunks are formatted by the pool a window at a
+	 * time and appended in order.
+	 *
+	 * @param source the source of the values.
+	 * @param length the number of the values.
+	 * @param separator the text which follows each value.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if <code>separator</code> or <code>out</code>
+	 *     is <code>null</code>.
+	 */
+	private void format(final Source source, final int length, final CharSequence separator, final Appendable out)
+			throws IOException, NullPointerException {
+		if (separator == null) {
+			throw new NullPointerException("separator:null");
+		} else if (out == null) {
+			throw new NullPointerException("out:null");
+		}
+
+		if (length <= chunkSize) {
+			source.formatTo(0, length, separator, out);
+		} else {
+			int window = pool.getParallelism() * CHUNKS_PER_THREAD;
+			List<ForkJoinTask<StringBuilder>> tasks = new ArrayList<ForkJoinTask<StringBuilder>>(window);
+			int from = 0;
+			while (from < length) {
+				tasks.clear();
+				while (from < length && tasks.size() < window) {
+					int to = (int) Math.min((long) from + chunkSize, length);
+					tasks.add(pool.submit(new ChunkTask(source, from, to, separator)));
+					from = to;
+				}
+				for (ForkJoinTask<StringBuilder> task : tasks) {
+					out.append(task.join());
+				}
+			}
+		}
+	}
+
+	/**
+	 * A task which formats a chunk of the values into a string builder.
+	 */
+	private static final class ChunkTask extends RecursiveTask<StringBuilder> {
+
+		/**
+		 * The serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The source of the values.
+		 */
+		private final Source source;
+
+		/**
+		 * The index of the first value.
+		 */
+		private final int from;
+
+		/**
+		 * The index after the last value.
+		 */
+		private final int to;
+
+		/**
+		 * The text which follows each value.
+		 */
+		private final CharSequence separator;
+
+		/**
+		 * Constructs a task.
+		 *
+		 * @param source the source of the values.
+		 * @param from the index of the first value.
+		 * @param to the index after the last value.
+		 * @param separator the text which follows each value.
+		 */
+		ChunkTask(final Source source, final int from, final int to, final CharSequence separator) {
+			this.source = source;
+			this.from = from;
+			this.to = to;
+			this.separator = separator;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected StringBuilder compute() {
+			StringBuilder out = new StringBuilder((int) Math.min((long) (to - from) * CHARS_PER_VALUE,
+					MAX_INITIAL_CAPACITY));
+			try {
+				source.formatTo(from, to, separator, out);
+			} catch (IOException e) {
+				// A StringBuilder never throws IOException.
+				throw new IllegalStateException(e);
+			}
+
+			return out;
+		}
+	}
+
+	/**
+	 * A source of the values to be formatted.
+	 */
+	private abstract static class Source {
+
+		/**
+		 * Formats a range of the values, each followed by the separator.
+		 *
+		 * @param from the index of the first value.
+		 * @param to the index after the last value.
+		 * @param separator the text which follows each value.
+		 * @param out the appendable to be appended to.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		abstract void formatTo(int from, int to, CharSequence separator, Appendable out) throws IOException;
+	}
+
+	/**
+	 * A source of the instants.
+	 */
+	private static final class DateSource extends Source {
+
+		/**
+		 * The date formatter.
+		 */
+		private final LocalizedDateFormatter formatter;
+
+		/**
+		 * The time zone.
+		 */
+		private final TimeZone zone;
+
+		/**
+		 * The instants in milliseconds since the epoch.
+		 */
+		private final long[] epochMillis;
+
+		/**
+		 * Constructs a source.
+		 *
+		 * @param formatter the date formatter.
+		 * @param zone the time zone.
+		 * @param epochMillis the instants.
+		 */
+		DateSource(final LocalizedDateFormatter formatter, final TimeZone zone, final long[] epochMillis) {
+			this.formatter = formatter;
+			this.zone = zone;
+			this.epochMillis = epochMillis;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void formatTo(final int from, final int to, final CharSequence separator, final Appendable out)
+				throws IOException {
+			for (int i = from; i < to; i++) {
+				formatter.formatTo(epochMillis[i], zone, out);
+				out.append(separator);
+			}
+		}
+	}
+
+	/**
+	 * A source of the fixed-point values.
+	 */
+	private static final class DecimalSource extends Source {
+
+		/**
+		 * The number formatter.
+		 */
+		private final LocalizedNumberFormatter formatter;
+
+		/**
+		 * The unscaled values.
+		 */
+		private final long[] unscaledValues;
+
+		/**
+		 * The scale.
+		 */
+		private final int scale;
+
+		/**
+		 * Constructs a source.
+		 *
+		 * @param formatter the number formatter.
+		 * @param unscaledValues the unscaled values.
+		 * @param scale the scale.
+		 */
+		DecimalSource(final LocalizedNumberFormatter formatter, final long[] unscaledValues, final int scale) {
+			this.formatter = formatter;
+			this.unscaledValues = unscaledValues;
+			this.scale = scale;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void formatTo(final int from, final int to, final CharSequence separator, final Appendable out)
+				throws IOException {
+			for (int i = from; i < to; i++) {
+				formatter.formatTo(unscaledValues[i], scale, out);
+				out.append(separator);
+			}
+		}
+	}
+
+	/**
+	 * A source of the <code>double</code> values.
+	 */
+	private static final class DoubleSource extends Source {
+
+		/**
+		 * The number formatter.
+		 */
+		private final LocalizedNumberFormatter formatter;
+
+		/**
+		 * The values.
+		 */
+		private final double[] values;
+
+		/**
+		 * Constructs a source.
+		 *
+		 * @param formatter the number formatter.
+		 * @param values the values.
+		 */
+		DoubleSource(final LocalizedNumberFormatter formatter, final double[] values) {
+			this.formatter = formatter;
+			this.values = values;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void formatTo(final int from, final int to, final CharSequence separator, final Appendable out)
+				throws IOException {
+			for (int i = from; i < to; i++) {
+				formatter.formatTo(values[i], out);
+				out.append(separator);
+			}
+		}
+	}
+}
@@ -0,0 +1,408 @@
+package com.ikuuy.locale.format;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DecimalStyle;
+import java.time.format.FormatStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalField;
+import java.time.temporal.WeekFields;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.ikuuy.locale.provider.CalendarNameProviderImpl;
+import com.ikuuy.locale.provider.DateFormatProviderImpl;
+import com.ikuuy.locale.provider.DateFormatSymbolsProviderImpl;
+import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.LocaleDataSection;
+
+/**
+ * A factory of the localized {@link DateTimeFormatter} for the supported
+ * locales. The formatters are built from the same date/time patterns as
+ * {@link DateFormatProviderImpl}, the names of the months, the weekdays, the
+ * eras and AM/PM from {@link CalendarNameProviderImpl}, the time zone names
+ * from {@link DateFormatSymbolsProviderImpl}, and the digits from
+ * <code>ZeroDigit</code>. The formatters are cached and shared, since they are
+ * immutable and safe for use by multiple threads.
+ * <p>
+ * The time zone names are the same as those of {@link java.text.SimpleDateFormat}
+ * with the symbols of the supported locales, including the names of the root
+ * locale for the time zones which aren't in the locale data. The time zones
+ * without a name, such as <code>ZoneOffset</code>, are formatted as their GMT
+ * offsets, such as <code>GMT+03:30</code>. A time zone name is resolved only
+ * together with a date, since the offset for the name depends on the date.
+ * <p>
+ * A two-digit year is parsed into the century which starts 80 years before the
+ * formatter is built, in the same way as {@link java.text.SimpleDateFormat}.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class DateTimeFormatters {
+
+	/**
+	 * The number of the formatting styles including none.
+	 */
+	private static final int STYLE_COUNT = FormatStyle.values().length + 1;
+
+	/**
+	 * The calendar type of the names.
+	 */
+	private static final String CALENDAR_TYPE = "gregory";
+
+	/**
+	 * A provider of the date/time patterns.
+	 */
+	private static final DateFormatProviderImpl DATE_FORMAT_PROVIDER = new DateFormatProviderImpl();
+
+	/**
+	 * A provider of the names of the calendar fields.
+	 */
+	private static final CalendarNameProviderImpl CALENDAR_NAME_PROVIDER = new CalendarNameProviderImpl();
+
+	/**
+	 * A provider of the time zone names.
+	 */
+	private static final DateFormatSymbolsProviderImpl DATE_FORMAT_SYMBOLS_PROVIDER =
+			new DateFormatSymbolsProviderImpl();
+
+	/**
+	 * A cache of the formatters for each locale, indexed by the combination of the
+	 * date and time formatting styles.
+	 */
+	private static final ConcurrentMap<Locale, AtomicReferenceArray<DateTimeFormatter>> FORMATTERS =
+			new ConcurrentHashMap<Locale, AtomicReferenceArray<DateTimeFormatter>>();
+
+	private DateTimeFormatters() {
+	}
+
+	/**
+	 * Returns a localized date formatter for the specified locale.
+	 *
+	 * @param dateStyle the date formatting style.
+	 * @param locale the desired locale.
+	 * @return a date formatter.
+	 * @throws IllegalArgumentException if <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>dateStyle</code> or
+	 *     <code>locale</code> is <code>null</code>.
+	 */
+	public static DateTimeFormatter ofLocalizedDate(final FormatStyle dateStyle, final Locale locale)
+			throws IllegalArgumentException, NullPointerException {
+		if (dateStyle == null) {
+			throw new NullPointerException("dateStyle:null");
+		}
+
+		return ofLocalizedDateTime(dateStyle, null, locale);
+	}
+
+	/**
+	 * Returns a localized time formatter for the specified locale.
+	 *
+	 * @param timeStyle the time formatting style.
+	 * @param locale the desired locale.
+	 * @return a time formatter.
+	 * @throws IllegalArgumentException if <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>timeStyle</code> or
+	 *     <code>locale</code> is <code>null</code>.
+	 */
+	public static DateTimeFormatter ofLocalizedTime(final FormatStyle timeStyle, final Locale locale)
+			throws IllegalArgumentException, NullPointerException {
+		if (timeStyle == null) {
+			throw new NullPointerException("timeStyle:null");
+		}
+
+		return ofLocalizedDateTime(null, timeStyle, locale);
+	}
+
+	/**
+	 * Returns a localized date/time formatter for the specified locale.
+	 *
+	 * @param dateStyle the date formatting style, or <code>null</code> for a time
+	 *     formatter.
+	 * @param timeStyle the time formatting style, or <code>null</code> for a date
+	 *     formatter.
+	 * @param locale the desired locale.
+	 * @return a date/time formatter, or <code>null</code> if no pattern is
+	 *     available.
+	 * @throws IllegalArgumentException if both <code>dateStyle</code> and
+	 *     <code>timeStyle</code> are <code>null</code>, or if <code>locale</code>
+	 *     isn't available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	public static DateTimeFormatter ofLocalizedDateTime(final FormatStyle dateStyle, final FormatStyle timeStyle,
+			final Locale locale) throws IllegalArgumentException, NullPointerException {
+		int dateFormatStyle = toDateFormatStyle(dateStyle);
+		int timeFormatStyle = toDateFormatStyle(timeStyle);
+		String pattern = DATE_FORMAT_PROVIDER.getPattern(dateFormatStyle, timeFormatStyle, locale);
+
+		DateTimeFormatter formatter = null;
+		Locale targetLocale = ExtLocalesUtil.resolveLocale(locale);
+		if (pattern == null) {
+			formatter = null;
+		} else if (!locale.equals(targetLocale)) {
+			// The country and the extensions affect the week definition and the time
+			// zone names, so only the supported locales themselves share the formatters.
+			formatter = createFormatter(pattern, locale);
+		} else {
+			AtomicReferenceArray<DateTimeFormatter> formatters = FORMATTERS.get(targetLocale);
+			if (formatters == null) {
+				formatters = new AtomicReferenceArray<DateTimeFormatter>(STYLE_COUNT * STYLE_COUNT);
+				AtomicReferenceArray<DateTimeFormatter> current = FORMATTERS.putIfAbsent(targetLocale, formatters);
+				if (current != null) {
+					formatters = current;
+				}
+			}
+
+			int index = (dateFormatStyle + 1) * STYLE_COUNT + (timeFormatStyle + 1);
+			formatter = formatters.get(index);
+			if (formatter == null) {
+				formatter = createFormatter(pattern, targetLocale);
+				if (!formatters.compareAndSet(index, null, formatter)) {
+					formatter = formatters.get(index);
+				}
+			}
+		}
+
+		return formatter;
+	}
+
+	/**
+	 * Converts a <code>FormatStyle</code> to the style of <code>DateFormat</code>.
+	 *
+	 * @param style the formatting style, or <code>null</code>.
+	 * @return the style of <code>DateFormat</code>, or
+	 *     {@link DateFormatProviderImpl#NONE} for <code>null</code>.
+	 */
+	private static int toDateFormatStyle(final FormatStyle style) {
+		int dateFormatStyle = DateFormatProviderImpl.NONE;
+		if (style != null) {
+			// FULL, LONG, MEDIUM and SHORT are declared in the same order as DateFormat.
+			dateFormatStyle = style.ordinal();
+		}
+
+		return dateFormatStyle;
+	}
+
+	/**
+	 * Builds a formatter from a date/time pattern of <code>SimpleDateFormat</code>.
+	 *
+	 * @param pattern the date/time pattern.
+	 * @param locale the locale of the formatter.
+	 * @return a formatter.
+	 * @throws IllegalArgumentException if <code>pattern</code> is invalid.
+	 */
+	private static DateTimeFormatter createFormatter(final String pattern, final Locale locale)
+			throws IllegalArgumentException {
+		DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+		WeekFields weekFields = WeekFields.of(locale);
+
+		for (PatternToken token : PatternToken.tokenize(pattern)) {
+			int count = token.getCount();
+			switch (token.getLetter()) {
+			case 0:
+				builder.appendLiteral(token.getLiteral());
+				break;
+			case 'G':
+				appendText(builder, ChronoField.ERA, Calendar.ERA, count >= 4 ? Calendar.LONG_FORMAT
+						: Calendar.SHORT_FORMAT, locale);
+				break;
+			case 'y':
+				appendYear(builder, ChronoField.YEAR_OF_ERA, count);
+				break;
+			case 'Y':
+				appendYear(builder, weekFields.weekBasedYear(), count);
+				break;
+			case 'M':
+				appendMonth(builder, count, Calendar.LONG_FORMAT, Calendar.SHORT_FORMAT, locale);
+				break;
+			case 'L':
+				appendMonth(builder, count, Calendar.LONG_STANDALONE, Calendar.SHORT_STANDALONE, locale);
+				break;
+			case 'w':
+				appendNumber(builder, weekFields.weekOfWeekBasedYear(), count);
+				break;
+			case 'W':
+				appendNumber(builder, weekFields.weekOfMonth(), count);
+				break;
+			case 'D':
+				appendNumber(builder, ChronoField.DAY_OF_YEAR, count);
+				break;
+			case 'd':
+				appendNumber(builder, ChronoField.DAY_OF_MONTH, count);
+				break;
+			case 'F':
+				appendNumber(builder, ChronoField.ALIGNED_WEEK_OF_MONTH, count);
+				break;
+			case 'E':
+				appendText(builder, ChronoField.DAY_OF_WEEK, Calendar.DAY_OF_WEEK, count >= 4 ? Calendar.LONG_FORMAT
+						: Calendar.SHORT_FORMAT, locale);
+				break;
+			case 'u':
+				appendNumber(builder, ChronoField.DAY_OF_WEEK, count);
+				break;
+			case 'a':
+				appendText(builder, ChronoField.AMPM_OF_DAY, Calendar.AM_PM, count >= 4 ? Calendar.LONG_FORMAT
+						: Calendar.SHORT_FORMAT, locale);
+				break;
+			case 'H':
+				appendNumber(builder, ChronoField.HOUR_OF_DAY, count);
+				break;
+			case 'k':
+				appendNumber(builder, ChronoField.CLOCK_HOUR_OF_DAY, count);
+				break;
+			case 'K':
+				appendNumber(builder, ChronoField.HOUR_OF_AMPM, count);
+				break;
+			case 'h':
+				appendNumber(builder, ChronoField.CLOCK_HOUR_OF_AMPM, count);
+				break;
+			case 'm':
+				appendNumber(builder, ChronoField.MINUTE_OF_HOUR, count);
+				break;
+			case 's':
+				appendNumber(builder, ChronoField.SECOND_OF_MINUTE, count);
+				break;
+			case 'S':
+				appendNumber(builder, ChronoField.MILLI_OF_SECOND, count);
+				break;
+			case 'z':
+				appendZoneText(builder, count >= 4, locale);
+				break;
+			case 'Z':
+				builder.appendOffset("+HHMM", "+0000");
+				break;
+			case 'X':
+				if (count == 1) {
+					builder.appendOffset("+HH", "Z");
+				} else if (count == 2) {
+					builder.appendOffset("+HHMM", "Z");
+				} else if (count == 3) {
+					builder.appendOffset("+HH:MM", "Z");
+				} else {
+					throw new IllegalArgumentException("pattern:" + pattern);
+				}
+				break;
+			default:
+				throw new IllegalArgumentException("pattern:" + pattern);
+			}
+		}
+
+		DecimalStyle decimalStyle = DecimalStyle.STANDARD.withZeroDigit(ExtLocalesUtil.getLocaleData(locale,
+				LocaleDataSection.SYMBOLS).getChar("ZeroDigit"));
+		return builder.toFormatter(locale).withDecimalStyle(decimalStyle);
+	}
+
+	/**
+	 * Appends a numeric field which is padded to the number of the pattern
+	 * letters.
+	 *
+	 * @param builder the builder.
+	 * @param field the field.
+	 * @param count the number of the pattern letters.
+	 */
+	private static void appendNumber(final DateTimeFormatterBuilder builder, final TemporalField field,
+			final int count) {
+		if (count == 1) {
+			builder.appendValue(field);
+		} else {
+			builder.appendValue(field, count);
+		}
+	}
+
+	/**
+	 * Appends a year field, which is reduced to two digits for two pattern letters.
+	 *
+	 * @param builder the builder.
+	 * @param field the field.
+	 * @param count the number of the pattern letters.
+	 */
+	private static void appendYear(final DateTimeFormatterBuilder builder, final TemporalField field,
+			final int count) {
+		if (count == 2) {
+			builder.appendValueReduced(field, 2, 2, LocalDate.now().minusYears(80));
+		} else {
+			builder.appendValue(field, count, 19, SignStyle.NORMAL);
+		}
+	}
+
+	/**
+	 * Appends a month field, which is a text for three or more pattern letters.
+	 *
+	 * @param builder the builder.
+	 * @param count the number of the pattern letters.
+	 * @param longStyle the style of the long names.
+	 * @param shortStyle the style of the short names.
+	 * @param locale the locale of the names.
+	 */
+	private static void appendMonth(final DateTimeFormatterBuilder builder, final int count, final int longStyle,
+			final int shortStyle, final Locale locale) {
+		if (count >= 4) {
+			appendText(builder, ChronoField.MONTH_OF_YEAR, Calendar.MONTH, longStyle, locale);
+		} else if (count == 3) {
+			appendText(builder, ChronoField.MONTH_OF_YEAR, Calendar.MONTH, shortStyle, locale);
+		} else {
+			appendNumber(builder, ChronoField.MONTH_OF_YEAR, count);
+		}
+	}
+
+	/**
+	 * Appends a text field with the localized names of the calendar field.
+	 *
+	 * @param builder the builder.
+	 * @param field the field.
+	 * @param calendarField the corresponding <code>Calendar</code> field.
+	 * @param style the style of the names.
+	 * @param locale the locale of the names.
+	 */
+	private static void appendText(final DateTimeFormatterBuilder builder, final ChronoField field,
+			final int calendarField, final int style, final Locale locale) {
+		Calendar calendar = Calendar.getInstance(Locale.ROOT);
+		Map<Long, String> names = new HashMap<Long, String>();
+		for (int value = calendar.getMinimum(calendarField); value <= calendar.getMaximum(calendarField); value++) {
+			String name = CALENDAR_NAME_PROVIDER.getDisplayName(CALENDAR_TYPE, calendarField, value, style, locale);
+			if (name != null) {
+				long fieldValue;
+				if (calendarField == Calendar.MONTH) {
+					fieldValue = value + 1;
+				} else if (calendarField == Calendar.DAY_OF_WEEK) {
+					fieldValue = value == Calendar.SUNDAY ? 7 : value - 1;
+				} else {
+					fieldValue = value;
+				}
+				names.put(fieldValue, name);
+			}
+		}
+		builder.appendText(field, names);
+	}
+
+	/**
+	 * Appends the localized time zone name, preceded by an optional section of the
+	 * GMT offset for the time zones without a name. The GMT offset is parsed first
+	 * in the same way as <code>SimpleDateFormat</code>.
+	 *
+	 * @param builder the builder.
+	 * @param longName <code>true</code> for the long names; <code>false</code> for
+	 *     the short names.
+	 * @param locale the locale of the names.
+	 */
+	private static void appendZoneText(final DateTimeFormatterBuilder builder, final boolean longName,
+			final Locale locale) {
+		ZoneNameField field = new ZoneNameField(DATE_FORMAT_SYMBOLS_PROVIDER, longName ? TimeZone.LONG
+				: TimeZone.SHORT, locale);
+		ZoneNameField fallbackField = field.getFallbackField();
+		builder.optionalStart();
+		builder.appendText(fallbackField, fallbackField.getTextLookup());
+		builder.appendLiteral("GMT");
+		builder.appendOffset("+HH:MM", "+00:00");
+		builder.optionalEnd();
+		builder.appendText(field, field.getTextLookup());
+	}
+}
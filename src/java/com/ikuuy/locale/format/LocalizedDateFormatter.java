@@ -0,0 +1,1272 @@
+package com.ikuuy.locale.format;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.FormatStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalField;
+import java.time.temporal.TemporalQueries;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.ikuuy.locale.provider.CalendarNameProviderImpl;
+import com.ikuuy.locale.provider.DateFormatProviderImpl;
+import com.ikuuy.locale.provider.DateFormatSymbolsProviderImpl;
+import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.LocaleDataSection;
+
+/**
+ * A date/time formatter which compiles a pattern of
+ * {@link java.text.SimpleDateFormat} once into a list of printers, and formats
+ * an instant or a {@link TemporalAccessor} straight into an {@link Appendable}
+ * without a <code>Calendar</code>. The names of the months, the weekdays, the
+ * eras and AM/PM come from {@link CalendarNameProviderImpl}, the time zone
+ * names from the same table as the symbols of {@link DateFormatSymbolsProviderImpl},
+ * and the digits from <code>ZeroDigit</code>. Apart from the output, formatting
+ * an instant allocates no object.
+ * <p>
+ * The dates are in the proleptic Gregorian calendar as <code>java.time</code>
+ * does, so the dates before the Gregorian cutover in 1582 differ from
+ * <code>SimpleDateFormat</code>. The pattern letters <code>Y</code>,
+ * <code>w</code> and <code>W</code> follow the week definition of the locale.
+ * <p>
+ * Instances are immutable and safe for use by multiple threads.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class LocalizedDateFormatter {
+
+	/**
+	 * The number of milliseconds in a day.
+	 */
+	private static final long MILLIS_PER_DAY = 86400000L;
+
+	/**
+	 * The number of the formatting styles including none.
+	 */
+	private static final int STYLE_COUNT = FormatStyle.values().length + 1;
+
+	/**
+	 * The field ID of the era.
+	 */
+	private static final int ERA = 0;
+
+	/**
+	 * The field ID of the year of the era.
+	 */
+	private static final int YEAR_OF_ERA = 1;
+
+	/**
+	 * The field ID of the week-based year.
+	 */
+	private static final int WEEK_BASED_YEAR = 2;
+
+	/**
+	 * The field ID of the month of the year, from 1 to 12.
+	 */
+	private static final int MONTH_OF_YEAR = 3;
+
+	/**
+	 * The field ID of the week of the week-based year.
+	 */
+	private static final int WEEK_OF_WEEK_BASED_YEAR = 4;
+
+	/**
+	 * The field ID of the week of the month.
+	 */
+	private static final int WEEK_OF_MONTH = 5;
+
+	/**
+	 * The field ID of the day of the year.
+	 */
+	private static final int DAY_OF_YEAR = 6;
+
+	/**
+	 * The field ID of the day of the month.
+	 */
+	private static final int DAY_OF_MONTH = 7;
+
+	/**
+	 * The field ID of the aligned week of the month.
+	 */
+	private static final int ALIGNED_WEEK_OF_MONTH = 8;
+
+	/**
+	 * The field ID of the day of the week, from 1 (Monday) to 7 (Sunday).
+	 */
+	private static final int DAY_OF_WEEK = 9;
+
+	/**
+	 * The field ID of AM/PM.
+	 */
+	private static final int AMPM_OF_DAY = 10;
+
+	/**
+	 * The field ID of the hour of the day, from 0 to 23.
+	 */
+	private static final int HOUR_OF_DAY = 11;
+
+	/**
+	 * The field ID of the hour of the day, from 1 to 24.
+	 */
+	private static final int CLOCK_HOUR_OF_DAY = 12;
+
+	/**
+	 * The field ID of the hour of AM/PM, from 0 to 11.
+	 */
+	private static final int HOUR_OF_AMPM = 13;
+
+	/**
+	 * The field ID of the hour of AM/PM, from 1 to 12.
+	 */
+	private static final int CLOCK_HOUR_OF_AMPM = 14;
+
+	/**
+	 * The field ID of the minute of the hour.
+	 */
+	private static final int MINUTE_OF_HOUR = 15;
+
+	/**
+	 * The field ID of the second of the minute.
+	 */
+	private static final int SECOND_OF_MINUTE = 16;
+
+	/**
+	 * The field ID of the millisecond of the second.
+	 */
+	private static final int MILLI_OF_SECOND = 17;
+
+	/**
+	 * The number of the field IDs.
+	 */
+	private static final int FIELD_COUNT = 18;
+
+	/**
+	 * The cumulative numbers of days before each month in a common year.
+	 */
+	private static final int[] DAYS_BEFORE_MONTH = { 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334 };
+
+	/**
+	 * A provider of the date/time patterns.
+	 */
+	private static final DateFormatProviderImpl DATE_FORMAT_PROVIDER = new DateFormatProviderImpl();
+
+	/**
+	 * A provider of the names of the calendar fields.
+	 */
+	private static final CalendarNameProviderImpl CALENDAR_NAME_PROVIDER = new CalendarNameProviderImpl();
+
+	/**
+	 * A provider of the time zone names.
+	 */
+	private static final DateFormatSymbolsProviderImpl DATE_FORMAT_SYMBOLS_PROVIDER =
+			new DateFormatSymbolsProviderImpl();
+
+	/**
+	 * A cache of the formatters for each locale, indexed by the combination of the
+	 * date and time formatting styles.
+	 */
+	private static final ConcurrentMap<Locale, AtomicReferenceArray<LocalizedDateFormatter>> FORMATTERS =
+			new ConcurrentHashMap<Locale, AtomicReferenceArray<LocalizedDateFormatter>>();
+
+	/**
+	 * The date/time pattern.
+	 */
+	private final String pattern;
+
+	/**
+	 * The locale of the formatter.
+	 */
+	private final Locale locale;
+
+	/**
+	 * The localized zero digit.
+	 */
+	private final char zeroDigit;
+
+	/**
+	 * The first day of the week, from 1 (Monday) to 7 (Sunday).
+	 */
+	private final int firstDayOfWeek;
+
+	/**
+	 * The minimal number of days in the first week.
+	 */
+	private final int minimalDays;
+
+	/**
+	 * The fields of <code>TemporalAccessor</code> indexed by the field IDs.
+	 */
+	private final TemporalField[] temporalFields;
+
+	/**
+	 * The printers.
+	 */
+	private final Printer[] printers;
+
+	/**
+	 * Constructs a formatter for the given pattern.
+	 *
+	 * @param pattern the date/time pattern.
+	 * @param locale the locale of the formatter.
+	 * @throws IllegalArgumentException if <code>pattern</code> is invalid.
+	 */
+	private LocalizedDateFormatter(final String pattern, final Locale locale) throws IllegalArgumentException {
+		this.pattern = pattern;
+		this.locale = locale;
+		this.zeroDigit = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.SYMBOLS).getChar("ZeroDigit");
+
+		WeekFields weekFields = WeekFields.of(locale);
+		this.firstDayOfWeek = weekFields.getFirstDayOfWeek().getValue();
+		this.minimalDays = weekFields.getMinimalDaysInFirstWeek();
+		this.temporalFields = new TemporalField[FIELD_COUNT];
+		temporalFields[ERA] = ChronoField.ERA;
+		temporalFields[YEAR_OF_ERA] = ChronoField.YEAR_OF_ERA;
+		temporalFields[WEEK_BASED_YEAR] = weekFields.weekBasedYear();
+		temporalFields[MONTH_OF_YEAR] = ChronoField.MONTH_OF_YEAR;
+		temporalFields[WEEK_OF_WEEK_BASED_YEAR] = weekFields.weekOfWeekBasedYear();
+		temporalFields[WEEK_OF_MONTH] = weekFields.weekOfMonth();
+		temporalFields[DAY_OF_YEAR] = ChronoField.DAY_OF_YEAR;
+		temporalFields[DAY_OF_MONTH] = ChronoField.DAY_OF_MONTH;
+		temporalFields[ALIGNED_WEEK_OF_MONTH] = ChronoField.ALIGNED_WEEK_OF_MONTH;
+		temporalFields[DAY_OF_WEEK] = ChronoField.DAY_OF_WEEK;
+		temporalFields[AMPM_OF_DAY] = ChronoField.AMPM_OF_DAY;
+		temporalFields[HOUR_OF_DAY] = ChronoField.HOUR_OF_DAY;
+		temporalFields[CLOCK_HOUR_OF_DAY] = ChronoField.CLOCK_HOUR_OF_DAY;
+		temporalFields[HOUR_OF_AMPM] = ChronoField.HOUR_OF_AMPM;
+		temporalFields[CLOCK_HOUR_OF_AMPM] = ChronoField.CLOCK_HOUR_OF_AMPM;
+		temporalFields[MINUTE_OF_HOUR] = ChronoField.MINUTE_OF_HOUR;
+		temporalFields[SECOND_OF_MINUTE] = ChronoField.SECOND_OF_MINUTE;
+		temporalFields[MILLI_OF_SECOND] = ChronoField.MILLI_OF_SECOND;
+
+		List<Printer> list = new ArrayList<Printer>();
+		for (PatternToken token : PatternToken.tokenize(pattern)) {
+			list.add(createPrinter(token));
+		}
+		this.printers = list.toArray(new Printer[list.size()]);
+	}
+
+	/**
+	 * Returns a formatter for the given pattern.
+	 *
+	 * @param pattern the date/time pattern of <code>SimpleDateFormat</code>.
+	 * @param locale the desired locale.
+	 * @return a formatter.
+	 * @throws IllegalArgumentException if <code>pattern</code> is invalid, or if
+	 *     <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>pattern</code> or <code>locale</code>
+	 *     is <code>null</code>.
+	 */
+	public static LocalizedDateFormatter ofPattern(final String pattern, final Locale locale)
+			throws IllegalArgumentException, NullPointerException {
+		if (pattern == null) {
+			throw new NullPointerException("pattern:null");
+		} else if (locale == null) {
+			throw new NullPointerException("locale:null");
+		} else if (!ExtLocalesUtil.isSupportedLocale(locale)) {
+			throw new IllegalArgumentException("locale:" + locale.toString());
+		}
+
+		return new LocalizedDateFormatter(pattern, locale);
+	}
+
+	/**
+	 * Returns a localized date/time formatter for the specified locale, built from
+	 * the same pattern as {@link DateFormatProviderImpl}.
+	 *
+	 * @param dateStyle the date formatting style, or <code>null</code> for a time
+	 *     formatter.
+	 * @param timeStyle the time formatting style, or <code>null</code> for a date
+	 *     formatter.
+	 * @param locale the desired locale.
+	 * @return a formatter, or <code>null</code> if no pattern is available.
+	 * @throws IllegalArgumentException if both <code>dateStyle</code> and
+	 *     <code>timeStyle</code> are <code>null</code>, or if <code>locale</code>
+	 *     isn't available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	public static LocalizedDateFormatter ofLocalizedDateTime(final FormatStyle dateStyle,
+			final FormatStyle timeStyle, final Locale locale) throws IllegalArgumentException, NullPointerException {
+		// FULL, LONG, MEDIUM and SHORT are declared in the same order as DateFormat.
+		int dateFormatStyle = dateStyle != null ? dateStyle.ordinal() : DateFormatProviderImpl.NONE;
+		int timeFormatStyle = timeStyle != null ? timeStyle.ordinal() : DateFormatProviderImpl.NONE;
+		String localizedPattern = DATE_FORMAT_PROVIDER.getPattern(dateFormatStyle, timeFormatStyle, locale);
+
+		LocalizedDateFormatter formatter = null;
+		Locale targetLocale = ExtLocalesUtil.resolveLocale(locale);
+		if (localizedPattern == null) {
+			formatter = null;
+		} else if (!locale.equals(targetLocale)) {
+			// The country and the extensions affect the week definition, so only the
+			// supported locales themselves share the formatters.
+			formatter = new LocalizedDateFormatter(localizedPattern, locale);
+		} else {
+			AtomicReferenceArray<LocalizedDateFormatter> formatters = FORMATTERS.get(targetLocale);
+			if (formatters == null) {
+				formatters = new AtomicReferenceArray<LocalizedDateFormatter>(STYLE_COUNT * STYLE_COUNT);
+				AtomicReferenceArray<LocalizedDateFormatter> current = FORMATTERS.putIfAbsent(targetLocale,
+						formatters);
+				if (current != null) {
+					formatters = current;
+				}
+			}
+
+			int index = (dateFormatStyle + 1) * STYLE_COUNT + (timeFormatStyle + 1);
+			formatter = formatters.get(index);
+			if (formatter == null) {
+				formatter = new LocalizedDateFormatter(localizedPattern, targetLocale);
+				if (!formatters.compareAndSet(index, null, formatter)) {
+					formatter = formatters.get(index);
+				}
+			}
+		}
+
+		return formatter;
+	}
+
+	/**
+	 * Returns the date/time pattern.
+	 *
+	 * @return the date/time pattern.
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * Returns the locale of the formatter.
+	 *
+	 * @return the locale of the formatter.
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Formats an instant in the given time zone.
+	 *
+	 * @param epochMilli the milliseconds from the epoch of 1970-01-01T00:00:00Z.
+	 * @param zone the time zone.
+	 * @return the formatted string.
+	 * @throws NullPointerException if <code>zone</code> is <code>null</code>.
+	 */
+	public String format(final long epochMilli, final TimeZone zone) throws NullPointerException {
+		return format(epochMilli, zone, new StringBuilder(32)).toString();
+	}
+
+	/**
+	 * Formats a date/time object.
+	 *
+	 * @param temporal the date/time object.
+	 * @return the formatted string.
+	 * @throws DateTimeException if a field of the pattern isn't
+	 *     supported by <code>temporal</code>.
+	 * @throws NullPointerException if <code>temporal</code> is <code>null</code>.
+	 */
+	public String format(final TemporalAccessor temporal) throws NullPointerException {
+		return format(temporal, new StringBuilder(32)).toString();
+	}
+
+	/**
+	 * Formats an instant in the given time zone into a string builder.
+	 *
+	 * @param epochMilli the milliseconds from the epoch of 1970-01-01T00:00:00Z.
+	 * @param zone the time zone.
+	 * @param out the string builder to be appended to.
+	 * @return <code>out</code>.
+	 * @throws NullPointerException if <code>zone</code> or <code>out</code> is
+	 *     <code>null</code>.
+	 */
+	public StringBuilder format(final long epochMilli, final TimeZone zone, final StringBuilder out)
+			throws NullPointerException {
+		try {
+			formatTo(epochMilli, zone, out);
+		} catch (IOException e) {
+			// A StringBuilder never throws IOException.
+			throw new IllegalStateException(e);
+		}
+
+		return out;
+	}
+
+	/**
+	 * Formats a date/time object into a string builder.
+	 *
+	 * @param temporal the date/time object.
+	 * @param out the string builder to be appended to.
+	 * @return <code>out</code>.
+	 * @throws DateTimeException if a field of the pattern isn't
+	 *     supported by <code>temporal</code>.
+	 * @throws NullPointerException if <code>temporal</code> or <code>out</code>
+	 *     is <code>null</code>.
+	 */
+	public StringBuilder format(final TemporalAccessor temporal, final StringBuilder out)
+			throws NullPointerException {
+		try {
+			formatTo(temporal, out);
+		} catch (IOException e) {
+			// A StringBuilder never throws IOException.
+			throw new IllegalStateException(e);
+		}
+
+		return out;
+	}
+
+	/**
+	 * Formats an instant in the given time zone into an appendable.
+	 *
+	 * @param epochMilli the milliseconds from the epoch of 1970-01-01T00:00:00Z.
+	 * @param zone the time zone.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if <code>zone</code> or <code>out</code> is
+	 *     <code>null</code>.
+	 */
+	public void formatTo(final long epochMilli, final TimeZone zone, final Appendable out) throws IOException,
+			NullPointerException {
+		if (zone == null) {
+			throw new NullPointerException("zone:null");
+		} else if (out == null) {
+			throw new NullPointerException("out:null");
+		}
+
+		int offset = zone.getOffset(epochMilli);
+		long localMillis = epochMilli + offset;
+		for (Printer printer : printers) {
+			printer.print(this, epochMilli, localMillis, offset, zone, out);
+		}
+	}
+
+	/**
+	 * Formats a date/time object into an appendable.
+	 *
+	 * @param temporal the date/time object.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws DateTimeException if a field of the pattern isn't
+	 *     supported by <code>temporal</code>.
+	 * @throws NullPointerException if <code>temporal</code> or <code>out</code>
+	 *     is <code>null</code>.
+	 */
+	public void formatTo(final TemporalAccessor temporal, final Appendable out) throws IOException,
+			NullPointerException {
+		if (temporal == null) {
+			throw new NullPointerException("temporal:null");
+		} else if (out == null) {
+			throw new NullPointerException("out:null");
+		}
+
+		for (Printer printer : printers) {
+			printer.print(this, temporal, out);
+		}
+	}
+
+	/**
+	 * Creates a printer for a token of the pattern.
+	 *
+	 * @param token the token.
+	 * @return a printer.
+	 * @throws IllegalArgumentException if the token is an invalid pattern letter.
+	 */
+	private Printer createPrinter(final PatternToken token) throws IllegalArgumentException {
+		Printer printer;
+
+		int count = token.getCount();
+		switch (token.getLetter()) {
+		case 0:
+			printer = new LiteralPrinter(token.getLiteral());
+			break;
+		case 'G':
+			printer = new TextPrinter(ERA, getNames(Calendar.ERA, count >= 4 ? Calendar.LONG_FORMAT
+					: Calendar.SHORT_FORMAT), count);
+			break;
+		case 'y':
+			printer = new NumberPrinter(YEAR_OF_ERA, count);
+			break;
+		case 'Y':
+			printer = new NumberPrinter(WEEK_BASED_YEAR, count);
+			break;
+		case 'M':
+		case 'L':
+			if (count >= 3) {
+				int style;
+				if (token.getLetter() == 'M') {
+					style = count >= 4 ? Calendar.LONG_FORMAT : Calendar.SHORT_FORMAT;
+				} else {
+					style = count >= 4 ? Calendar.LONG_STANDALONE : Calendar.SHORT_STANDALONE;
+				}
+				printer = new TextPrinter(MONTH_OF_YEAR, getNames(Calendar.MONTH, style), count);
+			} else {
+				printer = new NumberPrinter(MONTH_OF_YEAR, count);
+			}
+			break;
+		case 'w':
+			printer = new NumberPrinter(WEEK_OF_WEEK_BASED_YEAR, count);
+			break;
+		case 'W':
+			printer = new NumberPrinter(WEEK_OF_MONTH, count);
+			break;
+		case 'D':
+			printer = new NumberPrinter(DAY_OF_YEAR, count);
+			break;
+		case 'd':
+			printer = new NumberPrinter(DAY_OF_MONTH, count);
+			break;
+		case 'F':
+			printer = new NumberPrinter(ALIGNED_WEEK_OF_MONTH, count);
+			break;
+		case 'E':
+			printer = new TextPrinter(DAY_OF_WEEK, getNames(Calendar.DAY_OF_WEEK, count >= 4 ? Calendar.LONG_FORMAT
+					: Calendar.SHORT_FORMAT), count);
+			break;
+		case 'u':
+			printer = new NumberPrinter(DAY_OF_WEEK, count);
+			break;
+		case 'a':
+			printer = new TextPrinter(AMPM_OF_DAY, getNames(Calendar.AM_PM, count >= 4 ? Calendar.LONG_FORMAT
+					: Calendar.SHORT_FORMAT), count);
+			break;
+		case 'H':
+			printer = new NumberPrinter(HOUR_OF_DAY, count);
+			break;
+		case 'k':
+			printer = new NumberPrinter(CLOCK_HOUR_OF_DAY, count);
+			break;
+		case 'K':
+			printer = new NumberPrinter(HOUR_OF_AMPM, count);
+			break;
+		case 'h':
+			printer = new NumberPrinter(CLOCK_HOUR_OF_AMPM, count);
+			break;
+		case 'm':
+			printer = new NumberPrinter(MINUTE_OF_HOUR, count);
+			break;
+		case 's':
+			printer = new NumberPrinter(SECOND_OF_MINUTE, count);
+			break;
+		case 'S':
+			printer = new NumberPrinter(MILLI_OF_SECOND, count);
+			break;
+		case 'z':
+			printer = new ZoneNamePrinter(count >= 4);
+			break;
+		case 'Z':
+			printer = new OffsetPrinter(false, true, false);
+			break;
+		case 'X':
+			if (count > 3) {
+				throw new IllegalArgumentException("pattern:" + pattern);
+			}
+			printer = new OffsetPrinter(true, count >= 2, count == 3);
+			break;
+		default:
+			throw new IllegalArgumentException("pattern:" + pattern);
+		}
+
+		return printer;
+	}
+
+	/**
+	 * Returns the localized names of a calendar field, indexed by the value of the
+	 * field ID minus its minimum value.
+	 *
+	 * @param calendarField the <code>Calendar</code> field.
+	 * @param style the style of the names.
+	 * @return the names, whose elements are <code>null</code> if the names aren't
+	 *     available.
+	 */
+	private String[] getNames(final int calendarField, final int style) {
+		Calendar calendar = Calendar.getInstance(Locale.ROOT);
+		int minimum = calendar.getMinimum(calendarField);
+		int maximum = calendar.getMaximum(calendarField);
+		String[] names = new String[maximum - minimum + 1];
+		for (int value = minimum; value <= maximum; value++) {
+			String name = CALENDAR_NAME_PROVIDER.getDisplayName("gregory", calendarField, value, style, locale);
+			if (calendarField == Calendar.DAY_OF_WEEK) {
+				// From SUNDAY (1) .. SATURDAY (7) to MONDAY (1) .. SUNDAY (7).
+				names[value == Calendar.SUNDAY ? 6 : value - 2] = name;
+			} else {
+				names[value - minimum] = name;
+			}
+		}
+
+		return names;
+	}
+
+	/**
+	 * Returns the value of a field of a local date/time.
+	 *
+	 * @param field the field ID.
+	 * @param localMillis the local milliseconds from 1970-01-01T00:00:00.
+	 * @return the value of the field.
+	 */
+	private long getField(final int field, final long localMillis) {
+		long value;
+
+		long epochDay = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+		int millisOfDay = (int) Math.floorMod(localMillis, MILLIS_PER_DAY);
+		switch (field) {
+		case ERA:
+			value = getYear(epochDay) > 0 ? 1 : 0;
+			break;
+		case YEAR_OF_ERA:
+			long year = getYear(epochDay);
+			value = year > 0 ? year : 1 - year;
+			break;
+		case WEEK_BASED_YEAR:
+			value = getWeekBasedYear(epochDay);
+			break;
+		case MONTH_OF_YEAR:
+			value = getMonth(epochDay);
+			break;
+		case WEEK_OF_WEEK_BASED_YEAR:
+			value = getWeekOfWeekBasedYear(epochDay);
+			break;
+		case WEEK_OF_MONTH:
+			int dayOfMonth = getDayOfMonth(epochDay);
+			value = computeWeek(getStartOfWeekOffset(dayOfMonth, getLocalizedDayOfWeek(epochDay)), dayOfMonth);
+			break;
+		case DAY_OF_YEAR:
+			value = getDayOfYear(epochDay);
+			break;
+		case DAY_OF_MONTH:
+			value = getDayOfMonth(epochDay);
+			break;
+		case ALIGNED_WEEK_OF_MONTH:
+			value = (getDayOfMonth(epochDay) - 1) / 7 + 1;
+			break;
+		case DAY_OF_WEEK:
+			value = Math.floorMod(epochDay + 3, 7) + 1;
+			break;
+		case AMPM_OF_DAY:
+			value = millisOfDay / 43200000;
+			break;
+		case HOUR_OF_DAY:
+			value = millisOfDay / 3600000;
+			break;
+		case CLOCK_HOUR_OF_DAY:
+			value = millisOfDay / 3600000;
+			value = value == 0 ? 24 : value;
+			break;
+		case HOUR_OF_AMPM:
+			value = millisOfDay / 3600000 % 12;
+			break;
+		case CLOCK_HOUR_OF_AMPM:
+			value = millisOfDay / 3600000 % 12;
+			value = value == 0 ? 12 : value;
+			break;
+		case MINUTE_OF_HOUR:
+			value = millisOfDay / 60000 % 60;
+			break;
+		case SECOND_OF_MINUTE:
+			value = millisOfDay / 1000 % 60;
+			break;
+		default:
+			value = millisOfDay % 1000;
+			break;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns the packed date of an epoch day, which is
+	 * <code>(year &lt;&lt; 9) | (month &lt;&lt; 5) | day</code>.
+	 *
+	 * @param epochDay the days from 1970-01-01.
+	 * @return the packed date.
+	 */
+	private static long getPackedDate(final long epochDay) {
+		// The days from 0000-03-01, so that the leap day is the last day of a year.
+		long days = epochDay + 719468;
+		long era = Math.floorDiv(days, 146097);
+		long dayOfEra = days - era * 146097;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long monthIndex = (5 * dayOfYear + 2) / 153;
+		long day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+		long month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+		return (year << 9) | (month << 5) | day;
+	}
+
+	/**
+	 * Returns the proleptic year of an epoch day.
+	 *
+	 * @param epochDay the days from 1970-01-01.
+	 * @return the proleptic year.
+	 */
+	private static long getYear(final long epochDay) {
+		return getPackedDate(epochDay) >> 9;
+	}
+
+	/**
+	 * Returns the month of an epoch day.
+	 *
+	 * @param epochDay the days from 1970-01-01.
+	 * @return the month from 1 to 12.
+	 */
+	private static int getMonth(final long epochDay) {
+		return (int) (getPackedDate(epochDay) >> 5) & 0xf;
+	}
+
+	/**
+	 * Returns the day of the month of an epoch day.
+	 *
+	 * @param epochDay the days from 1970-01-01.
+	 * @return the day of the month.
+	 */
+	private static int getDayOfMonth(final long epochDay) {
+		return (int) getPackedDate(epochDay) & 0x1f;
+	}
+
+	/**
+	 * Returns the day of the year of an epoch day.
+	 *
+	 * @param epochDay the days from 1970-01-01.
+	 * @return the day of the year.
+	 */
+	private static int getDayOfYear(final long epochDay) {
+		long date = getPackedDate(epochDay);
+		int month = (int) (date >> 5) & 0xf;
+		int dayOfYear = DAYS_BEFORE_MONTH[month - 1] + ((int) date & 0x1f);
+		if (month > 2 && isLeapYear(date >> 9)) {
+			dayOfYear++;
+		}
+
+		return dayOfYear;
+	}
+
+	/**
+	 * Determines whether a proleptic year is a leap year.
+	 *
+	 * @param year the proleptic year.
+	 * @return <code>true</code> if the year is a leap year; <code>false</code>
+	 *     otherwise.
+	 */
+	private static boolean isLeapYear(final long year) {
+		return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+	}
+
+	/**
+	 * Returns the day of the week of an epoch day in the week definition of the
+	 * locale.
+	 *
+	 * @param epochDay the days from 1970-01-01.
+	 * @return the day of the week from 1 (the first day of the week) to 7.
+	 */
+	private int getLocalizedDayOfWeek(final long epochDay) {
+		int isoDayOfWeek = (int) Math.floorMod(epochDay + 3, 7) + 1;
+		return Math.floorMod(isoDayOfWeek - firstDayOfWeek, 7) + 1;
+	}
+
+	/**
+	 * Returns the offset of the first day of the first week in a month or a year,
+	 * in the same way as {@link WeekFields}.
+	 *
+	 * @param day the day of the month or the year.
+	 * @param dayOfWeek the localized day of the week of <code>day</code>.
+	 * @return the offset of the first day of the first week.
+	 */
+	private int getStartOfWeekOffset(final int day, final int dayOfWeek) {
+		int weekStart = Math.floorMod(day - dayOfWeek, 7);
+		int offset = -weekStart;
+		if (weekStart + 1 > minimalDays) {
+			offset = 7 - weekStart;
+		}
+
+		return offset;
+	}
+
+	/**
+	 * Returns the week number of a day.
+	 *
+	 * @param offset the offset of the first day of the first week.
+	 * @param day the day of the month or the year.
+	 * @return the week number.
+	 */
+	private static int computeWeek(final int offset, final int day) {
+		return (7 + offset + (day - 1)) / 7;
+	}
+
+	/**
+	 * Returns the week of the week-based year of an epoch day.
+	 *
+	 * @param epochDay the days from 1970-01-01.
+	 * @return the week of the week-based year.
+	 */
+	private int getWeekOfWeekBasedYear(final long epochDay) {
+		int dayOfYear = getDayOfYear(epochDay);
+		int offset = getStartOfWeekOffset(dayOfYear, getLocalizedDayOfWeek(epochDay));
+		int week = computeWeek(offset, dayOfYear);
+		if (week == 0) {
+			// The last week of the previous year.
+			week = getWeekOfWeekBasedYear(epochDay - dayOfYear);
+		} else if (week > 50) {
+			int yearLength = isLeapYear(getYear(epochDay)) ? 366 : 365;
+			int newYearWeek = computeWeek(offset, yearLength + minimalDays);
+			if (week >= newYearWeek) {
+				week = week - newYearWeek + 1;
+			}
+		}
+
+		return week;
+	}
+
+	/**
+	 * Returns the week-based year of an epoch day.
+	 *
+	 * @param epochDay the days from 1970-01-01.
+	 * @return the week-based year.
+	 */
+	private long getWeekBasedYear(final long epochDay) {
+		long year = getYear(epochDay);
+		int dayOfYear = getDayOfYear(epochDay);
+		int offset = getStartOfWeekOffset(dayOfYear, getLocalizedDayOfWeek(epochDay));
+		int week = computeWeek(offset, dayOfYear);
+		if (week == 0) {
+			year--;
+		} else {
+			int yearLength = isLeapYear(year) ? 366 : 365;
+			if (week >= computeWeek(offset, yearLength + minimalDays)) {
+				year++;
+			}
+		}
+
+		return year;
+	}
+
+	/**
+	 * Appends a number in the localized digits, which is padded with zeros.
+	 *
+	 * @param out the appendable to be appended to.
+	 * @param value the non-negative number.
+	 * @param minimumDigits the minimum number of the digits.
+	 * @param zero the zero digit.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static void appendNumber(final Appendable out, final long value, final int minimumDigits,
+			final char zero) throws IOException {
+		long number = value;
+		if (number < 0) {
+			out.append('-');
+			number = -number;
+		}
+
+		int digits = 1;
+		long divisor = 1;
+		while (divisor <= number / 10) {
+			divisor *= 10;
+			digits++;
+		}
+		for (int i = digits; i < minimumDigits; i++) {
+			out.append(zero);
+		}
+		while (divisor > 0) {
+			out.append((char) (zero + number / divisor % 10));
+			divisor /= 10;
+		}
+	}
+
+	/**
+	 * A printer of a token of the pattern.
+	 */
+	private abstract static class Printer {
+
+		/**
+		 * Prints the token for an instant.
+		 *
+		 * @param formatter the formatter.
+		 * @param epochMilli the milliseconds from the epoch.
+		 * @param localMillis the local milliseconds from 1970-01-01T00:00:00.
+		 * @param offset the offset from UTC in milliseconds.
+		 * @param zone the time zone.
+		 * @param out the appendable to be appended to.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		abstract void print(LocalizedDateFormatter formatter, long epochMilli, long localMillis, int offset,
+				TimeZone zone, Appendable out) throws IOException;
+
+		/**
+		 * Prints the token for a date/time object.
+		 *
+		 * @param formatter the formatter.
+		 * @param temporal the date/time object.
+		 * @param out the appendable to be appended to.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		abstract void print(LocalizedDateFormatter formatter, TemporalAccessor temporal, Appendable out)
+				throws IOException;
+	}
+
+	/**
+	 * A printer of a literal text.
+	 */
+	private static final class LiteralPrinter extends Printer {
+
+		/**
+		 * The literal text.
+		 */
+		private final String literal;
+
+		/**
+		 * Constructs a printer.
+		 *
+		 * @param literal the literal text.
+		 */
+		LiteralPrinter(final String literal) {
+			this.literal = literal;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void print(final LocalizedDateFormatter formatter, final long epochMilli, final long localMillis,
+				final int offset, final TimeZone zone, final Appendable out) throws IOException {
+			out.append(literal);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void print(final LocalizedDateFormatter formatter, final TemporalAccessor temporal, final Appendable out)
+				throws IOException {
+			out.append(literal);
+		}
+	}
+
+	/**
+	 * A printer of a numeric field.
+	 */
+	private static final class NumberPrinter extends Printer {
+
+		/**
+		 * The field ID.
+		 */
+		private final int field;
+
+		/**
+		 * The number of the pattern letters.
+		 */
+		private final int count;
+
+		/**
+		 * Constructs a printer.
+		 *
+		 * @param field the field ID.
+		 * @param count the number of the pattern letters.
+		 */
+		NumberPrinter(final int field, final int count) {
+			this.field = field;
+			this.count = count;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void print(final LocalizedDateFormatter formatter, final long epochMilli, final long localMillis,
+				final int offset, final TimeZone zone, final Appendable out) throws IOException {
+			print(formatter, formatter.getField(field, localMillis), out);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void print(final LocalizedDateFormatter formatter, final TemporalAccessor temporal, final Appendable out)
+				throws IOException {
+			print(formatter, temporal.getLong(formatter.temporalFields[field]), out);
+		}
+
+		/**
+		 * Prints a value of the field.
+		 *
+		 * @param formatter the formatter.
+		 * @param value the value of the field.
+		 * @param out the appendable to be appended to.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		private void print(final LocalizedDateFormatter formatter, final long value, final Appendable out)
+				throws IOException {
+			if (count == 2 && (field == YEAR_OF_ERA || field == WEEK_BASED_YEAR)) {
+				// Two pattern letters of a year print the last two digits.
+				appendNumber(out, Math.floorMod(value, 100), 2, formatter.zeroDigit);
+			} else {
+				appendNumber(out, value, count, formatter.zeroDigit);
+			}
+		}
+	}
+
+	/**
+	 * A printer of a text field.
+	 */
+	private static final class TextPrinter extends Printer {
+
+		/**
+		 * The field ID.
+		 */
+		private final int field;
+
+		/**
+		 * The names indexed by the value of the field minus its minimum value.
+		 */
+		private final String[] names;
+
+		/**
+		 * The number of the pattern letters.
+		 */
+		private final int count;
+
+		/**
+		 * Constructs a printer.
+		 *
+		 * @param field the field ID.
+		 * @param names the names of the field.
+		 * @param count the number of the pattern letters.
+		 */
+		TextPrinter(final int field, final String[] names, final int count) {
+			this.field = field;
+			this.names = names;
+			this.count = count;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void print(final LocalizedDateFormatter formatter, final long epochMilli, final long localMillis,
+				final int offset, final TimeZone zone, final Appendable out) throws IOException {
+			print(formatter, formatter.getField(field, localMillis), out);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void print(final LocalizedDateFormatter formatter, final TemporalAccessor temporal, final Appendable out)
+				throws IOException {
+			print(formatter, temporal.getLong(formatter.temporalFields[field]), out);
+		}
+
+		/**
+		 * Prints a value of the field.
+		 *
+		 * @param formatter the formatter.
+		 * @param value the value of the field.
+		 * @param out the appendable to be appended to.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		private void print(final LocalizedDateFormatter formatter, final long value, final Appendable out)
+				throws IOException {
+			int minimum = field == MONTH_OF_YEAR || field == DAY_OF_WEEK ? 1 : 0;
+			long index = value - minimum;
+			if (0 <= index && index < names.length && names[(int) index] != null) {
+				out.append(names[(int) index]);
+			} else {
+				appendNumber(out, value, count, formatter.zeroDigit);
+			}
+		}
+	}
+
+	/**
+	 * A printer of a time zone name.
+	 */
+	private static final class ZoneNamePrinter extends Printer {
+
+		/**
+		 * A date for each thread, which is reused to ask a time zone whether an
+		 * instant is in daylight saving time without allocation.
+		 */
+		private static final ThreadLocal<Date> DATE = new ThreadLocal<Date>() {
+			@Override
+			protected Date initialValue() {
+				return new Date(0);
+			}
+		};
+
+		/**
+		 * <code>true</code> for the long names; <code>false</code> for the short
+		 * names.
+		 */
+		private final boolean longName;
+
+		/**
+		 * Constructs a printer.
+		 *
+		 * @param longName <code>true</code> for the long names; <code>false</code>
+		 *     for the short names.
+		 */
+		ZoneNamePrinter(final boolean longName) {
+			this.longName = longName;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void print(final LocalizedDateFormatter formatter, final long epochMilli, final long localMillis,
+				final int offset, final TimeZone zone, final Appendable out) throws IOException {
+			Date date = DATE.get();
+			date.setTime(epochMilli);
+			String name = getName(formatter, zone.getID(), zone.inDaylightTime(date));
+			if (name != null) {
+				out.append(name);
+			} else {
+				printGmtOffset(offset / 60000, out);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void print(final LocalizedDateFormatter formatter, final TemporalAccessor temporal, final Appendable out)
+				throws IOException {
+			ZoneId zoneId = temporal.query(TemporalQueries.zone());
+			if (zoneId == null) {
+				throw new DateTimeException("No time zone: " + temporal);
+			}
+
+			String name = null;
+			if (!(zoneId instanceof ZoneOffset)) {
+				boolean daylight = false;
+				if (temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+					daylight = zoneId.getRules().isDaylightSavings(Instant.ofEpochSecond(temporal.getLong(
+							ChronoField.INSTANT_SECONDS)));
+				}
+				name = getName(formatter, zoneId.getId(), daylight);
+			}
+			if (name != null) {
+				out.append(name);
+			} else {
+				printGmtOffset((int) (temporal.getLong(ChronoField.OFFSET_SECONDS) / 60), out);
+			}
+		}
+
+		/**
+		 * Returns the name of the time zone which <code>SimpleDateFormat</code>
+		 * formats with the symbols of the locale.
+		 *
+		 * @param formatter the formatter.
+		 * @param id the time zone ID.
+		 * @param daylight <code>true</code> for the daylight saving name.
+		 * @return the name, or <code>null</code> if the time zone is formatted as
+		 *     its GMT offset.
+		 */
+		private String getName(final LocalizedDateFormatter formatter, final String id, final boolean daylight) {
+			return DATE_FORMAT_SYMBOLS_PROVIDER.getZoneName(id, daylight, longName ? TimeZone.LONG : TimeZone.SHORT,
+					formatter.locale);
+		}
+
+		/**
+		 * Prints a GMT offset such as <code>GMT+03:30</code> in the ASCII digits as
+		 * <code>SimpleDateFormat</code> does for a time zone without a name.
+		 *
+		 * @param offsetMinutes the offset in minutes.
+		 * @param out the appendable to be appended to.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		private static void printGmtOffset(final int offsetMinutes, final Appendable out) throws IOException {
+			out.append("GMT").append(offsetMinutes < 0 ? '-' : '+');
+			int value = Math.abs(offsetMinutes);
+			appendNumber(out, value / 60, 2, '0');
+			out.append(':');
+			appendNumber(out, value % 60, 2, '0');
+		}
+	}
+
+	/**
+	 * A printer of an offset from UTC.
+	 */
+	private static final class OffsetPrinter extends Printer {
+
+		/**
+		 * <code>true</code> to print <code>Z</code> for the zero offset.
+		 */
+		private final boolean zeroAsZ;
+
+		/**
+		 * <code>true</code> to print the minutes.
+		 */
+		private final boolean minutes;
+
+		/**
+		 * <code>true</code> to print a colon between the hours and the minutes.
+		 */
+		private final boolean colon;
+
+		/**
+		 * Constructs a printer.
+		 *
+		 * @param zeroAsZ <code>true</code> to print <code>Z</code> for the zero
+		 *     offset.
+		 * @param minutes <code>true</code> to print the minutes.
+		 * @param colon <code>true</code> to print a colon between the hours and the
+		 *     minutes.
+		 */
+		OffsetPrinter(final boolean zeroAsZ, final boolean minutes, final boolean colon) {
+			this.zeroAsZ = zeroAsZ;
+			this.minutes = minutes;
+			this.colon = colon;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void print(final LocalizedDateFormatter formatter, final long epochMilli, final long localMillis,
+				final int offset, final TimeZone zone, final Appendable out) throws IOException {
+			print(offset / 60000, out);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void print(final LocalizedDateFormatter formatter, final TemporalAccessor temporal, final Appendable out)
+				throws IOException {
+			print((int) (temporal.getLong(ChronoField.OFFSET_SECONDS) / 60), out);
+		}
+
+		/**
+		 * Prints an offset in the ASCII digits as <code>SimpleDateFormat</code>
+		 * does.
+		 *
+		 * @param offsetMinutes the offset in minutes.
+		 * @param out the appendable to be appended to.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		private void print(final int offsetMinutes, final Appendable out) throws IOException {
+			if (zeroAsZ && offsetMinutes == 0) {
+				out.append('Z');
+			} else {
+				out.append(offsetMinutes < 0 ? '-' : '+');
+				int value = Math.abs(offsetMinutes);
+				appendNumber(out, value / 60, 2, '0');
+				if (minutes) {
+					if (colon) {
+						out.append(':');
+					}
+					appendNumber(out, value % 60, 2, '0');
+				}
+			}
+		}
+	}
+}
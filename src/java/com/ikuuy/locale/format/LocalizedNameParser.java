@@ -0,0 +1,255 @@
+package com.ikuuy.locale.format;
+
+import java.text.ParsePosition;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.ikuuy.locale.provider.CalendarNameProviderImpl;
+import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.TimeZoneNames;
+
+/**
+ * A parser of the localized names of the calendar fields and the time zones.
+ * The names are indexed by prefix trees for each locale, so that the cost of
+ * parsing a name depends only on the length of the name, not on the number of
+ * the names. The names are matched ignoring case, and the longest name wins.
+ * <p>
+ * The calendar names are the long and short names of the Gregorian calendar in
+ * both the format and the standalone forms, which {@link java.text.SimpleDateFormat}
+ * also accepts. The time zone names are all names of the time zones in the
+ * locale data. If a name belongs to multiple fields values or time zones, the
+ * first one is chosen, where the time zone IDs with a region such as
+ * <code>Asia/Tehran</code> precede the others, and the standard names precede
+ * the daylight saving names and the generic names of the same time zone.
+ * <p>
+ * Instances are immutable and safe for use by multiple threads.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class LocalizedNameParser {
+
+	/**
+	 * The <code>Calendar</code> fields which can be parsed.
+	 */
+	private static final int[] FIELDS = { Calendar.ERA, Calendar.MONTH, Calendar.DAY_OF_WEEK, Calendar.AM_PM };
+
+	/**
+	 * The string representation styles of the calendar names.
+	 */
+	private static final int[] STYLES = { Calendar.LONG_FORMAT, Calendar.LONG_STANDALONE, Calendar.SHORT_FORMAT,
+			Calendar.SHORT_STANDALONE };
+
+	/**
+	 * The number of the name types in a time zone record.
+	 */
+	private static final int NAME_TYPES = TimeZoneNames.GENERIC_SHORT + 1;
+
+	/**
+	 * A cache of the parsers for each locale.
+	 */
+	private static final ConcurrentMap<Locale, LocalizedNameParser> PARSERS =
+			new ConcurrentHashMap<Locale, LocalizedNameParser>();
+
+	/**
+	 * The locale of the names.
+	 */
+	private final Locale locale;
+
+	/**
+	 * The trees of the calendar names indexed by the fields.
+	 */
+	private final NameTrie[] fieldTries;
+
+	/**
+	 * The tree of the time zone names, whose values are the indexes of
+	 * {@link #zoneIds} multiplied by {@link #NAME_TYPES} plus the types of the
+	 * names.
+	 */
+	private final NameTrie zoneTrie;
+
+	/**
+	 * The time zone IDs.
+	 */
+	private final String[] zoneIds;
+
+	/**
+	 * Constructs a parser for the specified locale.
+	 *
+	 * @param locale the supported locale.
+	 */
+	private LocalizedNameParser(final Locale locale) {
+		this.locale = locale;
+
+		CalendarNameProviderImpl provider = new CalendarNameProviderImpl();
+		Calendar calendar = Calendar.getInstance(Locale.ROOT);
+		this.fieldTries = new NameTrie[FIELDS.length];
+		for (int i = 0; i < FIELDS.length; i++) {
+			int field = FIELDS[i];
+			fieldTries[i] = new NameTrie();
+			for (int style : STYLES) {
+				for (int value = calendar.getMinimum(field); value <= calendar.getMaximum(field); value++) {
+					fieldTries[i].put(provider.getDisplayName("gregory", field, value, style, locale), value);
+				}
+			}
+		}
+
+		this.zoneTrie = new NameTrie();
+		List<String> ids = new ArrayList<String>();
+		if (ExtLocalesUtil.isSupportedTimeZoneNameLocale(locale)) {
+			TimeZoneNames names = ExtLocalesUtil.getTimeZoneNames(locale);
+			String[] availableIds = TimeZone.getAvailableIDs();
+			for (int pass = 0; pass < 2; pass++) {
+				for (String id : availableIds) {
+					String[] record = names.getNames(id);
+					if (record != null && (id.indexOf('/') >= 0) == (pass == 0)) {
+						for (int type = 0; type < record.length && type < NAME_TYPES; type++) {
+							zoneTrie.put(record[type], ids.size() * NAME_TYPES + type);
+						}
+						ids.add(id);
+					}
+				}
+			}
+		}
+		this.zoneIds = ids.toArray(new String[ids.size()]);
+	}
+
+	/**
+	 * Returns the parser for the specified locale.
+	 *
+	 * @param locale the desired locale.
+	 * @return a parser.
+	 * @throws IllegalArgumentException if <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	public static LocalizedNameParser getInstance(final Locale locale) throws IllegalArgumentException,
+			NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		Locale targetLocale = ExtLocalesUtil.resolveLocale(locale);
+		if (targetLocale == null) {
+			throw new IllegalArgumentException("locale:" + locale.toString());
+		}
+
+		LocalizedNameParser parser = PARSERS.get(targetLocale);
+		if (parser == null) {
+			parser = new LocalizedNameParser(targetLocale);
+			LocalizedNameParser current = PARSERS.putIfAbsent(targetLocale, parser);
+			if (current != null) {
+				parser = current;
+			}
+		}
+
+		return parser;
+	}
+
+	/**
+	 * Returns the locale of the names.
+	 *
+	 * @return the locale of the names.
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Parses the localized name of the calendar field at the index of the parse
+	 * position. On success, the index is advanced past the name. Otherwise, the
+	 * error index is set.
+	 *
+	 * @param field the <code>Calendar</code> field index, which is one of
+	 *     <code>ERA</code>, <code>MONTH</code>, <code>DAY_OF_WEEK</code> and
+	 *     <code>AM_PM</code>.
+	 * @param text the text to be parsed.
+	 * @param position the parse position.
+	 * @return the value of the calendar field, or <code>-1</code> if no name is
+	 *     found.
+	 * @throws IllegalArgumentException if <code>field</code> is invalid.
+	 * @throws NullPointerException if <code>text</code> or <code>position</code>
+	 *     is <code>null</code>.
+	 */
+	public int parse(final int field, final CharSequence text, final ParsePosition position)
+			throws IllegalArgumentException, NullPointerException {
+		if (text == null) {
+			throw new NullPointerException("text:null");
+		} else if (position == null) {
+			throw new NullPointerException("position:null");
+		}
+
+		NameTrie trie = null;
+		for (int i = 0; i < FIELDS.length; i++) {
+			if (FIELDS[i] == field) {
+				trie = fieldTries[i];
+				break;
+			}
+		}
+		if (trie == null) {
+			throw new IllegalArgumentException("field:" + field);
+		}
+
+		return trie.match(text, position);
+	}
+
+	/**
+	 * Parses the localized name of a time zone at the index of the parse position.
+	 * On success, the index is advanced past the name. Otherwise, the error index
+	 * is set.
+	 *
+	 * @param text the text to be parsed.
+	 * @param position the parse position.
+	 * @return the time zone ID, or <code>null</code> if no name is found.
+	 * @throws NullPointerException if <code>text</code> or <code>position</code>
+	 *     is <code>null</code>.
+	 */
+	public String parseTimeZoneID(final CharSequence text, final ParsePosition position)
+			throws NullPointerException {
+		if (text == null) {
+			throw new NullPointerException("text:null");
+		} else if (position == null) {
+			throw new NullPointerException("position:null");
+		}
+
+		int value = zoneTrie.match(text, position);
+		return value >= 0 ? zoneIds[value / NAME_TYPES] : null;
+	}
+
+	/**
+	 * Parses the localized name of a time zone at the index of the parse position
+	 * into the result, which tells the time zone ID and whether the name is a
+	 * daylight saving name. On success, the index is advanced past the name.
+	 * Otherwise, the error index is set.
+	 *
+	 * @param text the text to be parsed.
+	 * @param position the parse position.
+	 * @param result the result to hold the time zone ID and the type of the name.
+	 * @return <code>true</code> if a name is found; <code>false</code> otherwise.
+	 * @throws NullPointerException if <code>text</code>, <code>position</code> or
+	 *     <code>result</code> is <code>null</code>.
+	 */
+	public boolean parseTimeZoneName(final CharSequence text, final ParsePosition position,
+			final ZoneNameParseResult result) throws NullPointerException {
+		if (text == null) {
+			throw new NullPointerException("text:null");
+		} else if (position == null) {
+			throw new NullPointerException("position:null");
+		} else if (result == null) {
+			throw new NullPointerException("result:null");
+		}
+
+		int value = zoneTrie.match(text, position);
+		if (value >= 0) {
+			result.setValue(zoneIds[value / NAME_TYPES], value % NAME_TYPES);
+		} else {
+			result.setError();
+		}
+
+		return value >= 0;
+	}
+}
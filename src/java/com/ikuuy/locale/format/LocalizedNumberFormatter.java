@@ -0,0 +1,688 @@
+package com.ikuuy.locale.format;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.ikuuy.locale.provider.NumberFormatProviderImpl;
+import com.ikuuy.locale.util.ExtLocalesUtil;
+
+/**
+ * A number formatter for <code>long</code> values and fixed-point values given
+ * as an unscaled <code>long</code> and a scale, which writes the localized
+ * digits, separators and signs straight into a <code>char[]</code> or an
+ * {@link Appendable} without {@link BigDecimal} or the digit list of
+ * {@link DecimalFormat}. The output is the same as the <code>DecimalFormat</code>
+ * which the formatter is built from, with the symbols of
+ * {@link java.text.spi.DecimalFormatSymbolsProvider}.
+ * <p>
+ * The configurations which are not supported by the fast path, such as the
+ * exponential notation, a rounding mode other than <code>HALF_EVEN</code> or a
+ * value overflowing <code>long</code> after the multiplier, fall back to a copy
+ * of the <code>DecimalFormat</code>.
+ * <p>
+ * Instances are immutable and safe for use by multiple threads.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class LocalizedNumberFormatter {
+
+	/**
+	 * The powers of ten which fit in <code>long</code>.
+	 */
+	private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+			100000000L, 1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+			100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L,
+			1000000000000000000L };
+
+	/**
+	 * The maximum number of the digits of <code>long</code>.
+	 */
+	private static final int MAX_DIGITS = 19;
+
+	/**
+	 * The bound below which every integral <code>double</code> value is exact.
+	 */
+	private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+	/**
+	 * A provider of the number formats.
+	 */
+	private static final NumberFormatProviderImpl NUMBER_FORMAT_PROVIDER = new NumberFormatProviderImpl();
+
+	/**
+	 * A cache of the formatters for each locale and property key of the pattern.
+	 */
+	private static final ConcurrentMap<Locale, ConcurrentMap<String, LocalizedNumberFormatter>> FORMATTERS =
+			new ConcurrentHashMap<Locale, ConcurrentMap<String, LocalizedNumberFormatter>>();
+
+	/**
+	 * The number format which is never handed out but cloned for the fallback.
+	 */
+	private final DecimalFormat prototype;
+
+	/**
+	 * <code>true</code> if the fast path is applicable.
+	 */
+	private final boolean supported;
+
+	/**
+	 * The prefix for the positive values.
+	 */
+	private final String positivePrefix;
+
+	/**
+	 * The suffix for the positive values.
+	 */
+	private final String positiveSuffix;
+
+	/**
+	 * The prefix for the negative values.
+	 */
+	private final String negativePrefix;
+
+	/**
+	 * The suffix for the negative values.
+	 */
+	private final String negativeSuffix;
+
+	/**
+	 * The localized zero digit.
+	 */
+	private final char zeroDigit;
+
+	/**
+	 * The localized grouping separator.
+	 */
+	private final char groupingSeparator;
+
+	/**
+	 * The localized decimal separator.
+	 */
+	private final char decimalSeparator;
+
+	/**
+	 * The grouping size, or <code>0</code> if the grouping isn't used.
+	 */
+	private final int groupingSize;
+
+	/**
+	 * The minimum number of the integer digits.
+	 */
+	private final int minimumIntegerDigits;
+
+	/**
+	 * The maximum number of the integer digits.
+	 */
+	private final int maximumIntegerDigits;
+
+	/**
+	 * The minimum number of the fraction digits.
+	 */
+	private final int minimumFractionDigits;
+
+	/**
+	 * The maximum number of the fraction digits.
+	 */
+	private final int maximumFractionDigits;
+
+	/**
+	 * <code>true</code> if the decimal separator is always shown.
+	 */
+	private final boolean decimalSeparatorAlwaysShown;
+
+	/**
+	 * The exponent of ten of the multiplier.
+	 */
+	private final int multiplierExponent;
+
+	/**
+	 * Constructs a formatter from a number format.
+	 *
+	 * @param format the number format, which is copied.
+	 */
+	private LocalizedNumberFormatter(final DecimalFormat format) {
+		this.prototype = (DecimalFormat) format.clone();
+
+		String pattern = prototype.toPattern();
+		this.positivePrefix = prototype.getPositivePrefix();
+		this.positiveSuffix = prototype.getPositiveSuffix();
+		this.negativePrefix = prototype.getNegativePrefix();
+		this.negativeSuffix = prototype.getNegativeSuffix();
+		this.zeroDigit = prototype.getDecimalFormatSymbols().getZeroDigit();
+
+		// The separators depend on whether the pattern is a currency one and on the
+		// version of the JRE, so they are taken from the output of the format.
+		boolean exponential = containsUnquoted(pattern, 'E');
+		DecimalFormat probe = (DecimalFormat) prototype.clone();
+		if (exponential) {
+			probe.applyPattern("#,#0.0");
+		}
+		probe.setGroupingUsed(true);
+		probe.setGroupingSize(1);
+		probe.setMultiplier(1);
+		probe.setMinimumIntegerDigits(2);
+		probe.setMaximumIntegerDigits(2);
+		probe.setMinimumFractionDigits(1);
+		probe.setMaximumFractionDigits(1);
+		String probeText = probe.format(BigDecimal.valueOf(105, 1));
+		int start = probe.getPositivePrefix().length();
+		this.groupingSeparator = probeText.charAt(start + 1);
+		this.decimalSeparator = probeText.charAt(start + 3);
+		this.groupingSize = prototype.isGroupingUsed() ? Math.max(prototype.getGroupingSize(), 0) : 0;
+		this.minimumIntegerDigits = prototype.getMinimumIntegerDigits();
+		this.maximumIntegerDigits = prototype.getMaximumIntegerDigits();
+		this.minimumFractionDigits = prototype.getMinimumFractionDigits();
+		this.maximumFractionDigits = prototype.getMaximumFractionDigits();
+		this.decimalSeparatorAlwaysShown = prototype.isDecimalSeparatorAlwaysShown();
+
+		int exponent = -1;
+		for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+			if (POWERS_OF_TEN[i] == prototype.getMultiplier()) {
+				exponent = i;
+				break;
+			}
+		}
+		this.multiplierExponent = exponent;
+
+		this.supported = exponent >= 0 && prototype.getRoundingMode() == RoundingMode.HALF_EVEN
+				&& !exponential && minimumIntegerDigits <= MAX_DIGITS
+				&& minimumFractionDigits <= MAX_DIGITS - 1;
+	}
+
+	/**
+	 * Returns a formatter which behaves as the given number format. The number
+	 * format is copied, so later changes to it don't affect the formatter.
+	 *
+	 * @param format the number format.
+	 * @return a formatter.
+	 * @throws NullPointerException if <code>format</code> is <code>null</code>.
+	 */
+	public static LocalizedNumberFormatter of(final DecimalFormat format) throws NullPointerException {
+		if (format == null) {
+			throw new NullPointerException("format:null");
+		}
+
+		return new LocalizedNumberFormatter(format);
+	}
+
+	/**
+	 * Returns a general-purpose number formatter for the specified locale.
+	 *
+	 * @param locale the desired locale.
+	 * @return a number formatter.
+	 * @throws IllegalArgumentException if <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	public static LocalizedNumberFormatter getNumberInstance(final Locale locale) throws IllegalArgumentException,
+			NullPointerException {
+		return getInstance("NumberPattern", locale);
+	}
+
+	/**
+	 * Returns an integer number formatter for the specified locale.
+	 *
+	 * @param locale the desired locale.
+	 * @return a number formatter.
+	 * @throws IllegalArgumentException if <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	public static LocalizedNumberFormatter getIntegerInstance(final Locale locale) throws IllegalArgumentException,
+			NullPointerException {
+		return getInstance("IntegerPattern", locale);
+	}
+
+	/**
+	 * Returns a percentage formatter for the specified locale.
+	 *
+	 * @param locale the desired locale.
+	 * @return a number formatter.
+	 * @throws IllegalArgumentException if <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	public static LocalizedNumberFormatter getPercentInstance(final Locale locale) throws IllegalArgumentException,
+			NullPointerException {
+		return getInstance("PercentPattern", locale);
+	}
+
+	/**
+	 * Returns a currency formatter for the specified locale.
+	 *
+	 * @param locale the desired locale.
+	 * @return a number formatter.
+	 * @throws IllegalArgumentException if <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	public static LocalizedNumberFormatter getCurrencyInstance(final Locale locale) throws IllegalArgumentException,
+			NullPointerException {
+		return getInstance("CurrencyPattern", locale);
+	}
+
+	/**
+	 * Returns a cached formatter for the specified property key and locale.
+	 *
+	 * @param key the property key of the pattern.
+	 * @param locale the desired locale.
+	 * @return a number formatter.
+	 * @throws IllegalArgumentException if <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	private static LocalizedNumberFormatter getInstance(final String key, final Locale locale)
+			throws IllegalArgumentException, NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		Locale targetLocale = ExtLocalesUtil.resolveLocale(locale);
+		if (targetLocale == null) {
+			throw new IllegalArgumentException("locale:" + locale.toString());
+		}
+
+		ConcurrentMap<String, LocalizedNumberFormatter> formatters = FORMATTERS.get(targetLocale);
+		if (formatters == null) {
+			formatters = new ConcurrentHashMap<String, LocalizedNumberFormatter>(8);
+			ConcurrentMap<String, LocalizedNumberFormatter> current = FORMATTERS.putIfAbsent(targetLocale,
+					formatters);
+			if (current != null) {
+				formatters = current;
+			}
+		}
+
+		LocalizedNumberFormatter formatter = formatters.get(key);
+		if (formatter == null) {
+			DecimalFormat format;
+			if ("IntegerPattern".equals(key)) {
+				format = (DecimalFormat) NUMBER_FORMAT_PROVIDER.getIntegerInstance(targetLocale);
+			} else if ("PercentPattern".equals(key)) {
+				format = (DecimalFormat) NUMBER_FORMAT_PROVIDER.getPercentInstance(targetLocale);
+			} else if ("CurrencyPattern".equals(key)) {
+				format = (DecimalFormat) NUMBER_FORMAT_PROVIDER.getCurrencyInstance(targetLocale);
+			} else {
+				format = (DecimalFormat) NUMBER_FORMAT_PROVIDER.getNumberInstance(targetLocale);
+			}
+			formatter = new LocalizedNumberFormatter(format);
+			LocalizedNumberFormatter current = formatters.putIfAbsent(key, formatter);
+			if (current != null) {
+				formatter = current;
+			}
+		}
+
+		return formatter;
+	}
+
+	/**
+	 * Formats a <code>long</code> value.
+	 *
+	 * @param value the value.
+	 * @return the formatted string.
+	 */
+	public String format(final long value) {
+		return format(value, 0);
+	}
+
+	/**
+	 * Formats a fixed-point value.
+	 *
+	 * @param unscaledValue the unscaled value.
+	 * @param scale the scale, which is the number of the digits after the decimal
+	 *     point.
+	 * @return the formatted string.
+	 */
+	public String format(final long unscaledValue, final int scale) {
+		StringBuilder out = new StringBuilder(32);
+		try {
+			formatTo(unscaledValue, scale, out);
+		} catch (IOException e) {
+			// A StringBuilder never throws IOException.
+			throw new IllegalStateException(e);
+		}
+
+		return out.toString();
+	}
+
+	/**
+	 * Formats a <code>long</code> value into an appendable.
+	 *
+	 * @param value the value.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if <code>out</code> is <code>null</code>.
+	 */
+	public void formatTo(final long value, final Appendable out) throws IOException, NullPointerException {
+		formatTo(value, 0, out);
+	}
+
+	/**
+	 * Formats a fixed-point value into an appendable.
+	 *
+	 * @param unscaledValue the unscaled value.
+	 * @param scale the scale, which is the number of the digits after the decimal
+	 *     point.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if <code>out</code> is <code>null</code>.
+	 */
+	public void formatTo(final long unscaledValue, final int scale, final Appendable out) throws IOException,
+			NullPointerException {
+		if (out == null) {
+			throw new NullPointerException("out:null");
+		}
+
+		if (print(unscaledValue, scale, null, 0, out) < 0) {
+			out.append(formatByFallback(unscaledValue, scale));
+		}
+	}
+
+	/**
+	 * Formats a <code>double</code> value. Only the integral values which are
+	 * exact after the multiplier take the fast path.
+	 *
+	 * @param value the value.
+	 * @return the formatted string.
+	 */
+	public String format(final double value) {
+		StringBuilder out = new StringBuilder(32);
+		try {
+			formatTo(value, out);
+		} catch (IOException e) {
+			// A StringBuilder never throws IOException.
+			throw new IllegalStateException(e);
+		}
+
+		return out.toString();
+	}
+
+	/**
+	 * Formats a <code>double</code> value into an appendable. Only the integral
+	 * values which are exact after the multiplier take the fast path.
+	 *
+	 * @param value the value.
+	 * @param out the appendable to be appended to.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws NullPointerException if <code>out</code> is <code>null</code>.
+	 */
+	public void formatTo(final double value, final Appendable out) throws IOException, NullPointerException {
+		if (out == null) {
+			throw new NullPointerException("out:null");
+		}
+
+		// DecimalFormat multiplies a double in double, which is exact below 2^53.
+		long longValue = (long) value;
+		boolean exact = longValue == value && Math.abs(longValue) < MAX_EXACT_DOUBLE
+				&& (value != 0 || Double.doubleToRawLongBits(value) == 0L) && multiplierExponent >= 0
+				&& Math.abs(longValue) < MAX_EXACT_DOUBLE / POWERS_OF_TEN[multiplierExponent];
+		if (!exact || print(longValue, 0, null, 0, out) < 0) {
+			out.append(((DecimalFormat) prototype.clone()).format(value));
+		}
+	}
+
+	/**
+	 * Formats a <code>long</code> value into a character array.
+	 *
+	 * @param value the value.
+	 * @param buffer the character array to be written to.
+	 * @param offset the index to start writing at.
+	 * @return the index after the last written character.
+	 * @throws IndexOutOfBoundsException if <code>buffer</code> is too small.
+	 * @throws NullPointerException if <code>buffer</code> is <code>null</code>.
+	 */
+	public int format(final long value, final char[] buffer, final int offset) throws IndexOutOfBoundsException,
+			NullPointerException {
+		return format(value, 0, buffer, offset);
+	}
+
+	/**
+	 * Formats a fixed-point value into a character array.
+	 *
+	 * @param unscaledValue the unscaled value.
+	 * @param scale the scale, which is the number of the digits after the decimal
+	 *     point.
+	 * @param buffer the character array to be written to.
+	 * @param offset the index to start writing at.
+	 * @return the index after the last written character.
+	 * @throws IndexOutOfBoundsException if <code>buffer</code> is too small.
+	 * @throws NullPointerException if <code>buffer</code> is <code>null</code>.
+	 */
+	public int format(final long unscaledValue, final int scale, final char[] buffer, final int offset)
+			throws IndexOutOfBoundsException, NullPointerException {
+		if (buffer == null) {
+			throw new NullPointerException("buffer:null");
+		}
+
+		int end;
+		try {
+			end = print(unscaledValue, scale, buffer, offset, null);
+		} catch (IOException e) {
+			// No appendable is used.
+			throw new IllegalStateException(e);
+		}
+		if (end < 0) {
+			String text = formatByFallback(unscaledValue, scale);
+			text.getChars(0, text.length(), buffer, offset);
+			end = offset + text.length();
+		}
+
+		return end;
+	}
+
+	/**
+	 * Formats a fixed-point value with a copy of the number format.
+	 *
+	 * @param unscaledValue the unscaled value.
+	 * @param scale the scale.
+	 * @return the formatted string.
+	 */
+	private String formatByFallback(final long unscaledValue, final int scale) {
+		DecimalFormat format = (DecimalFormat) prototype.clone();
+		return scale == 0 ? format.format(unscaledValue) : format.format(BigDecimal.valueOf(unscaledValue, scale));
+	}
+
+	/**
+	 * Prints a fixed-point value into either a character array or an appendable.
+	 *
+	 * @param unscaledValue the unscaled value.
+	 * @param scale the scale.
+	 * @param buffer the character array, or <code>null</code> to use
+	 *     <code>out</code>.
+	 * @param offset the index to start writing at in <code>buffer</code>.
+	 * @param out the appendable, or <code>null</code> to use <code>buffer</code>.
+	 * @return the index after the last written character in <code>buffer</code>,
+	 *     or <code>-1</code> if the value isn't supported by the fast path and
+	 *     nothing is written.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private int print(final long unscaledValue, final int scale, final char[] buffer, final int offset,
+			final Appendable out) throws IOException {
+		int end = -1;
+		if (supported && unscaledValue != Long.MIN_VALUE) {
+			// Apply the multiplier by moving the decimal point.
+			boolean negative = unscaledValue < 0;
+			long magnitude = Math.abs(unscaledValue);
+			long currentScale = (long) scale - multiplierExponent;
+			if (currentScale >= 0) {
+				if (Math.min(currentScale, maximumFractionDigits) < MAX_DIGITS) {
+					end = print(negative, magnitude, currentScale, buffer, offset, out);
+				}
+			} else if (-currentScale < POWERS_OF_TEN.length
+					&& magnitude <= Long.MAX_VALUE / POWERS_OF_TEN[(int) -currentScale]) {
+				end = print(negative, magnitude * POWERS_OF_TEN[(int) -currentScale], 0, buffer, offset, out);
+			}
+		}
+
+		return end;
+	}
+
+	/**
+	 * Prints a non-negative fixed-point value with the sign into either a
+	 * character array or an appendable.
+	 *
+	 * @param negative <code>true</code> if the value is negative.
+	 * @param magnitude the absolute unscaled value.
+	 * @param scale the non-negative scale, which is less than
+	 *     <code>19</code> after rounding.
+	 * @param buffer the character array, or <code>null</code> to use
+	 *     <code>out</code>.
+	 * @param offset the index to start writing at in <code>buffer</code>.
+	 * @param out the appendable, or <code>null</code> to use <code>buffer</code>.
+	 * @return the index after the last written character in <code>buffer</code>.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private int print(final boolean negative, final long magnitude, final long scale, final char[] buffer,
+			final int offset, final Appendable out) throws IOException {
+		// Round half to even.
+		long roundedMagnitude = magnitude;
+		long currentScale = scale;
+		if (currentScale > maximumFractionDigits) {
+			long drop = currentScale - maximumFractionDigits;
+			long quotient;
+			boolean roundUp;
+			if (drop < MAX_DIGITS) {
+				long divisor = POWERS_OF_TEN[(int) drop];
+				long remainder = magnitude % divisor;
+				long half = divisor / 2;
+				quotient = magnitude / divisor;
+				roundUp = remainder > half || (remainder == half && (quotient & 1) == 1);
+			} else {
+				quotient = 0;
+				roundUp = drop == MAX_DIGITS && magnitude > 5000000000000000000L;
+			}
+			roundedMagnitude = roundUp ? quotient + 1 : quotient;
+			currentScale = maximumFractionDigits;
+		}
+
+		long integerPart = roundedMagnitude / POWERS_OF_TEN[(int) currentScale];
+		long fractionPart = roundedMagnitude % POWERS_OF_TEN[(int) currentScale];
+		if (maximumIntegerDigits < MAX_DIGITS) {
+			integerPart %= POWERS_OF_TEN[maximumIntegerDigits];
+		}
+
+		// Drop the trailing zeros of the fraction down to the minimum.
+		int fractionDigits = (int) currentScale;
+		while (fractionDigits > minimumFractionDigits && fractionPart % 10 == 0) {
+			fractionPart /= 10;
+			fractionDigits--;
+		}
+		if (fractionDigits == 0) {
+			fractionPart = 0;
+		}
+
+		int integerDigits = integerPart == 0 ? 0 : countDigits(integerPart);
+		integerDigits = Math.max(integerDigits, Math.min(minimumIntegerDigits, maximumIntegerDigits));
+		if (integerDigits == 0 && fractionDigits == 0 && minimumFractionDigits == 0) {
+			// Print a zero if there is no digit at all.
+			integerDigits = 1;
+		}
+
+		int position = offset;
+		position = append(negative ? negativePrefix : positivePrefix, buffer, position, out);
+		for (int i = integerDigits - 1; i >= 0; i--) {
+			long digit = i < MAX_DIGITS ? integerPart / POWERS_OF_TEN[i] % 10 : 0;
+			position = append((char) (zeroDigit + digit), buffer, position, out);
+			if (groupingSize > 0 && i > 0 && i % groupingSize == 0) {
+				position = append(groupingSeparator, buffer, position, out);
+			}
+		}
+		if (fractionDigits < minimumFractionDigits) {
+			fractionPart *= POWERS_OF_TEN[minimumFractionDigits - fractionDigits];
+			fractionDigits = minimumFractionDigits;
+		}
+		if (fractionDigits > 0 || decimalSeparatorAlwaysShown) {
+			position = append(decimalSeparator, buffer, position, out);
+		}
+		for (int i = fractionDigits - 1; i >= 0; i--) {
+			long digit = fractionPart / POWERS_OF_TEN[i] % 10;
+			position = append((char) (zeroDigit + digit), buffer, position, out);
+		}
+		position = append(negative ? negativeSuffix : positiveSuffix, buffer, position, out);
+
+		return position;
+	}
+
+	/**
+	 * Returns the number of the decimal digits of a positive value.
+	 *
+	 * @param value the positive value.
+	 * @return the number of the digits.
+	 */
+	private static int countDigits(final long value) {
+		int digits = 1;
+		while (digits < MAX_DIGITS && value >= POWERS_OF_TEN[digits]) {
+			digits++;
+		}
+
+		return digits;
+	}
+
+	/**
+	 * Appends a character to either a character array or an appendable.
+	 *
+	 * @param c the character.
+	 * @param buffer the character array, or <code>null</code> to use
+	 *     <code>out</code>.
+	 * @param position the index to write at in <code>buffer</code>.
+	 * @param out the appendable, or <code>null</code> to use <code>buffer</code>.
+	 * @return the index after the character.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static int append(final char c, final char[] buffer, final int position, final Appendable out)
+			throws IOException {
+		if (out != null) {
+			out.append(c);
+		} else {
+			buffer[position] = c;
+		}
+
+		return position + 1;
+	}
+
+	/**
+	 * Appends a string to either a character array or an appendable.
+	 *
+	 * @param s the string.
+	 * @param buffer the character array, or <code>null</code> to use
+	 *     <code>out</code>.
+	 * @param position the index to write at in <code>buffer</code>.
+	 * @param out the appendable, or <code>null</code> to use <code>buffer</code>.
+	 * @return the index after the string.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static int append(final String s, final char[] buffer, final int position, final Appendable out)
+			throws IOException {
+		if (out != null) {
+			out.append(s);
+		} else {
+			s.getChars(0, s.length(), buffer, position);
+		}
+
+		return position + s.length();
+	}
+
+	/**
+	 * Determines whether the pattern contains the given character outside the
+	 * quotes.
+	 *
+	 * @param pattern the pattern.
+	 * @param c the character.
+	 * @return <code>true</code> if the pattern contains the character outside the
+	 *     quotes; <code>false</code> otherwise.
+	 */
+	private static boolean containsUnquoted(final String pattern, final char c) {
+		boolean contained = false;
+		boolean quoted = false;
+		for (int i = 0; i < pattern.length() && !contained; i++) {
+			char ch = pattern.charAt(i);
+			if (ch == '\'') {
+				quoted = !quoted;
+			} else if (!quoted && ch == c) {
+				contained = true;
+			}
+		}
+
+		return contained;
+	}
+}
@@ -0,0 +1,442 @@
+package com.ikuuy.locale.format;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.ikuuy.locale.provider.DecimalFormatSymbolsProviderImpl;
+import com.ikuuy.locale.util.ExtLocalesUtil;
+
+/**
+ * A parser of localized plain numbers, which parses a text straight into a
+ * <code>long</code> value, or into an unscaled <code>long</code> value and a
+ * scale, without {@link java.text.DecimalFormat}. The result and the error are
+ * reported through a reusable {@link NumberParseResult}, so that parsing
+ * creates no objects even on failure.
+ * <p>
+ * The parser accepts the following text, surrounded by optional white spaces
+ * and bidirectional formatting characters:
+ * <ul>
+ * <li>an optional sign before or after the digits, which is <code>+</code>,
+ * <code>-</code>, <code>U+2212</code> or the minus sign of the locale.</li>
+ * <li>the decimal digits of any Unicode script, which may be mixed, such as
+ * Extended Arabic-Indic digits typed together with ASCII digits.</li>
+ * <li>the grouping separators between the digits of the integer part, which
+ * are the grouping separator of the locale and <code>,</code> unless it is a
+ * decimal separator. If the grouping separator of the locale is a space, the
+ * other spaces are also accepted.</li>
+ * <li>a decimal separator, which is either the decimal or the monetary decimal
+ * separator of the locale, or <code>.</code> unless it is the grouping
+ * separator of the locale.</li>
+ * </ul>
+ * The positions of the grouping separators aren't checked, as
+ * <code>DecimalFormat</code> doesn't. A number whose unscaled value, including
+ * the trailing zeros of the fraction, doesn't fit in <code>long</code> is an
+ * error.
+ * <p>
+ * Instances are immutable and safe for use by multiple threads.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class LocalizedNumberParser {
+
+	/**
+	 * The provider of the symbols.
+	 */
+	private static final DecimalFormatSymbolsProviderImpl SYMBOLS_PROVIDER = new DecimalFormatSymbolsProviderImpl();
+
+	/**
+	 * A cache of the parsers for each locale.
+	 */
+	private static final ConcurrentMap<Locale, LocalizedNumberParser> PARSERS =
+			new ConcurrentHashMap<Locale, LocalizedNumberParser>();
+
+	/**
+	 * The locale of the symbols.
+	 */
+	private final Locale locale;
+
+	/**
+	 * The zero digit of the locale.
+	 */
+	private final char zeroDigit;
+
+	/**
+	 * The minus sign of the locale.
+	 */
+	private final char minusSign;
+
+	/**
+	 * The accepted grouping separators.
+	 */
+	private final char[] groupingSeparators;
+
+	/**
+	 * The accepted decimal separators.
+	 */
+	private final char[] decimalSeparators;
+
+	/**
+	 * Constructs a parser for the specified locale.
+	 *
+	 * @param locale the supported locale.
+	 */
+	private LocalizedNumberParser(final Locale locale) {
+		this.locale = locale;
+
+		DecimalFormatSymbols symbols = SYMBOLS_PROVIDER.getInstance(locale);
+		this.zeroDigit = symbols.getZeroDigit();
+		this.minusSign = symbols.getMinusSign();
+
+		char grouping = symbols.getGroupingSeparator();
+		StringBuilder decimals = new StringBuilder();
+		decimals.append(symbols.getDecimalSeparator());
+		appendIfAbsent(decimals, symbols.getMonetaryDecimalSeparator());
+		if (grouping != '.') {
+			appendIfAbsent(decimals, '.');
+		}
+		this.decimalSeparators = decimals.toString().toCharArray();
+
+		StringBuilder groupings = new StringBuilder();
+		if (decimals.indexOf(String.valueOf(grouping)) < 0) {
+			groupings.append(grouping);
+		}
+		if (decimals.indexOf(",") < 0) {
+			appendIfAbsent(groupings, ',');
+		}
+		if (grouping == '\u066c') {
+			// The Arabic comma is typed for the Arabic thousands separator.
+			appendIfAbsent(groupings, '\u060c');
+		} else if (Character.isSpaceChar(grouping)) {
+			appendIfAbsent(groupings, ' ');
+			appendIfAbsent(groupings, '\u00a0');
+			appendIfAbsent(groupings, '\u202f');
+		}
+		this.groupingSeparators = groupings.toString().toCharArray();
+	}
+
+	/**
+	 * Returns the parser for the specified locale.
+	 *
+	 * @param locale the desired locale.
+	 * @return a parser.
+	 * @throws IllegalArgumentException if <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	public static LocalizedNumberParser getInstance(final Locale locale) throws IllegalArgumentException,
+			NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		Locale targetLocale = ExtLocalesUtil.resolveLocale(locale);
+		if (targetLocale == null) {
+			throw new IllegalArgumentException("locale:" + locale.toString());
+		}
+
+		LocalizedNumberParser parser = PARSERS.get(targetLocale);
+		if (parser == null) {
+			parser = new LocalizedNumberParser(targetLocale);
+			LocalizedNumberParser current = PARSERS.putIfAbsent(targetLocale, parser);
+			if (current != null) {
+				parser = current;
+			}
+		}
+
+		return parser;
+	}
+
+	/**
+	 * Returns the locale of the symbols.
+	 *
+	 * @return the locale of the symbols.
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Parses a whole text as a fixed-point value.
+	 *
+	 * @param text the text to be parsed.
+	 * @param result the holder of the result.
+	 * @return <code>true</code> if the parsing succeeded; <code>false</code>
+	 *     otherwise.
+	 * @throws NullPointerException if <code>text</code> or <code>result</code> is
+	 *     <code>null</code>.
+	 */
+	public boolean parse(final CharSequence text, final NumberParseResult result) throws NullPointerException {
+		if (text == null) {
+			throw new NullPointerException("text:null");
+		}
+
+		return parse(text, 0, text.length(), result);
+	}
+
+	/**
+	 * Parses a range of a text as a fixed-point value. The range must consist of
+	 * exactly one number.
+	 *
+	 * @param text the text to be parsed.
+	 * @param start the index of the first character.
+	 * @param end the index after the last character.
+	 * @param result the holder of the result.
+	 * @return <code>true</code> if the parsing succeeded; <code>false</code>
+	 *     otherwise.
+	 * @throws IndexOutOfBoundsException if the range is out of the text.
+	 * @throws NullPointerException if <code>text</code> or <code>result</code> is
+	 *     <code>null</code>.
+	 */
+	public boolean parse(final CharSequence text, final int start, final int end, final NumberParseResult result)
+			throws IndexOutOfBoundsException, NullPointerException {
+		if (text == null) {
+			throw new NullPointerException("text:null");
+		} else if (result == null) {
+			throw new NullPointerException("result:null");
+		} else if (start < 0 || start > end || end > text.length()) {
+			throw new IndexOutOfBoundsException("start:" + start + ",end:" + end);
+		}
+
+		int errorIndex = -1;
+		int i = skipIgnorables(text, start, end);
+
+		int sign = 0;
+		if (i < end) {
+			sign = getSign(text.charAt(i));
+			if (sign != 0) {
+				i = skipIgnorables(text, i + 1, end);
+			}
+		}
+
+		// The digits are accumulated as a negative value to reach Long.MIN_VALUE.
+		long value = 0;
+		int scale = 0;
+		boolean digitFound = false;
+		boolean decimalFound = false;
+		int lastDigitIndex = -1;
+		while (i < end && errorIndex < 0) {
+			char c = text.charAt(i);
+			int digit = toDigit(c);
+			if (digit >= 0) {
+				if (value < Long.MIN_VALUE / 10 || (value == Long.MIN_VALUE / 10 && digit > 8)) {
+					errorIndex = i;
+				} else {
+					value = value * 10 - digit;
+					if (decimalFound) {
+						scale++;
+					}
+					digitFound = true;
+					lastDigitIndex = i;
+					i++;
+				}
+			} else if (!decimalFound && digitFound && contains(groupingSeparators, c) && i + 1 < end
+					&& toDigit(text.charAt(i + 1)) >= 0) {
+				i++;
+			} else if (!decimalFound && contains(decimalSeparators, c)) {
+				decimalFound = true;
+				i++;
+			} else {
+				break;
+			}
+		}
+
+		if (errorIndex < 0) {
+			if (!digitFound) {
+				errorIndex = i;
+			} else {
+				i = skipIgnorables(text, i, end);
+				if (sign == 0 && i < end && getSign(text.charAt(i)) < 0) {
+					sign = -1;
+					i = skipIgnorables(text, i + 1, end);
+				}
+				if (i < end) {
+					errorIndex = i;
+				} else if (sign >= 0) {
+					if (value == Long.MIN_VALUE) {
+						errorIndex = lastDigitIndex;
+					} else {
+						value = -value;
+					}
+				}
+			}
+		}
+
+		if (errorIndex < 0) {
+			result.setValue(value, scale, end);
+		} else {
+			result.setError(start, errorIndex);
+		}
+
+		return errorIndex < 0;
+	}
+
+	/**
+	 * Parses a whole text as a <code>long</code> value.
+	 *
+	 * @param text the text to be parsed.
+	 * @param result the holder of the result.
+	 * @return <code>true</code> if the parsing succeeded; <code>false</code>
+	 *     otherwise.
+	 * @throws NullPointerException if <code>text</code> or <code>result</code> is
+	 *     <code>null</code>.
+	 */
+	public boolean parseLong(final CharSequence text, final NumberParseResult result) throws NullPointerException {
+		if (text == null) {
+			throw new NullPointerException("text:null");
+		}
+
+		return parseLong(text, 0, text.length(), result);
+	}
+
+	/**
+	 * Parses a range of a text as a <code>long</code> value. A fraction is
+	 * accepted only if all its digits are zeros. On success, the scale of the
+	 * result is <code>0</code>.
+	 *
+	 * @param text the text to be parsed.
+	 * @param start the index of the first character.
+	 * @param end the index after the last character.
+	 * @param result the holder of the result.
+	 * @return <code>true</code> if the parsing succeeded; <code>false</code>
+	 *     otherwise.
+	 * @throws IndexOutOfBoundsException if the range is out of the text.
+	 * @throws NullPointerException if <code>text</code> or <code>result</code> is
+	 *     <code>null</code>.
+	 */
+	public boolean parseLong(final CharSequence text, final int start, final int end, final NumberParseResult result)
+			throws IndexOutOfBoundsException, NullPointerException {
+		boolean parsed = parse(text, start, end, result);
+		if (parsed && result.getScale() > 0) {
+			long value = result.getUnscaledValue();
+			int scale = result.getScale();
+			while (scale > 0 && value % 10 == 0) {
+				value /= 10;
+				scale--;
+			}
+			if (scale == 0) {
+				result.setValue(value, 0, result.getIndex());
+			} else {
+				result.setError(start, indexOfFraction(text, start, end));
+				parsed = false;
+			}
+		}
+
+		return parsed;
+	}
+
+	/**
+	 * Returns the index of the first non-zero digit after the decimal separator.
+	 *
+	 * @param text the parsed text.
+	 * @param start the index of the first character.
+	 * @param end the index after the last character.
+	 * @return the index of the first non-zero fraction digit.
+	 */
+	private int indexOfFraction(final CharSequence text, final int start, final int end) {
+		int index = end;
+		boolean decimalFound = false;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (!decimalFound) {
+				decimalFound = contains(decimalSeparators, c);
+			} else if (toDigit(c) > 0) {
+				index = i;
+				break;
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Returns the value of the decimal digit. The ASCII digits and the digits of
+	 * the locale are looked up first without the Unicode character database.
+	 *
+	 * @param c the character.
+	 * @return the value of the digit, or <code>-1</code> if the character isn't a
+	 *     decimal digit.
+	 */
+	private int toDigit(final char c) {
+		int digit;
+		if ('0' <= c && c <= '9') {
+			digit = c - '0';
+		} else if (zeroDigit <= c && c <= zeroDigit + 9) {
+			digit = c - zeroDigit;
+		} else {
+			digit = Character.digit(c, 10);
+		}
+
+		return digit;
+	}
+
+	/**
+	 * Returns the sign which the given character stands for.
+	 *
+	 * @param c the character.
+	 * @return <code>-1</code> for a minus sign, <code>1</code> for a plus sign, or
+	 *     <code>0</code> otherwise.
+	 */
+	private int getSign(final char c) {
+		int sign = 0;
+		if (c == '-' || c == '\u2212' || c == minusSign) {
+			sign = -1;
+		} else if (c == '+') {
+			sign = 1;
+		}
+
+		return sign;
+	}
+
+	/**
+	 * Skips the white spaces and the formatting characters such as the
+	 * bidirectional marks.
+	 *
+	 * @param text the text.
+	 * @param start the index to start skipping at.
+	 * @param end the index after the last character.
+	 * @return the index of the first character which isn't skipped.
+	 */
+	private static int skipIgnorables(final CharSequence text, final int start, final int end) {
+		int i = start;
+		while (i < end) {
+			char c = text.charAt(i);
+			if (!Character.isWhitespace(c) && !Character.isSpaceChar(c) && Character.getType(c) != Character.FORMAT) {
+				break;
+			}
+			i++;
+		}
+
+		return i;
+	}
+
+	/**
+	 * Determines whether the array contains the character.
+	 *
+	 * @param chars the characters.
+	 * @param c the character.
+	 * @return <code>true</code> if the array contains the character;
+	 *     <code>false</code> otherwise.
+	 */
+	private static boolean contains(final char[] chars, final char c) {
+		boolean contained = false;
+		for (int i = 0; i < chars.length && !contained; i++) {
+			contained = chars[i] == c;
+		}
+
+		return contained;
+	}
+
+	/**
+	 * Appends the character unless the builder contains it.
+	 *
+	 * @param builder the builder.
+	 * @param c the character.
+	 */
+	private static void appendIfAbsent(final StringBuilder builder, final char c) {
+		if (builder.indexOf(String.valueOf(c)) < 0) {
+			builder.append(c);
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.ikuuy.locale.format;
+
+import java.text.ParsePosition;
+import java.util.Arrays;
+
+/**
+ * A prefix tree of names, which finds the longest name at a position of a text
+ * ignoring case in the same way as {@link String#regionMatches(boolean, int, String, int, int)}.
+ * A tree is built by {@link #put(String, int)} and must not be modified once it
+ * is shared.
+ *
+ * @author Yuki Yamada
+ *
+ */
+final class NameTrie {
+
+	/**
+	 * The root node.
+	 */
+	private final Node root = new Node();
+
+	/**
+	 * Adds a name with its value. If the name is already added ignoring case, the
+	 * value added first is kept.
+	 *
+	 * @param name the name.
+	 * @param value the non-negative value of the name.
+	 */
+	void put(final String name, final int value) {
+		if (name != null && !name.isEmpty()) {
+			Node node = root;
+			for (int i = 0; i < name.length(); i++) {
+				node = node.add(fold(name.charAt(i)));
+			}
+			if (node.value < 0) {
+				node.value = value;
+			}
+		}
+	}
+
+	/**
+	 * Finds the longest name at the index of the parse position. On success, the
+	 * index is advanced past the name. Otherwise, the error index is set.
+	 *
+	 * @param text the text to be parsed.
+	 * @param position the parse position.
+	 * @return the value of the name, or <code>-1</code> if no name is found.
+	 */
+	int match(final CharSequence text, final ParsePosition position) {
+		int start = position.getIndex();
+		int value = -1;
+		int end = start;
+
+		Node node = root;
+		for (int i = start; node != null && i < text.length(); i++) {
+			node = node.get(fold(text.charAt(i)));
+			if (node != null && node.value >= 0) {
+				value = node.value;
+				end = i + 1;
+			}
+		}
+
+		if (value >= 0) {
+			position.setIndex(end);
+		} else {
+			position.setErrorIndex(start);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Folds the case of a character.
+	 *
+	 * @param c the character.
+	 * @return the folded character.
+	 */
+	private static char fold(final char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	/**
+	 * A node of the tree, whose children are sorted by their characters.
+	 */
+	private static final class Node {
+
+		/**
+		 * The characters of the children in ascending order.
+		 */
+		private char[] chars = new char[0];
+
+		/**
+		 * The children.
+		 */
+		private Node[] children = new Node[0];
+
+		/**
+		 * The value of the name which ends at this node, or <code>-1</code>.
+		 */
+		private int value = -1;
+
+		/**
+		 * Returns the child for the given character.
+		 *
+		 * @param c the character.
+		 * @return the child, or <code>null</code> if not found.
+		 */
+		Node get(final char c) {
+			int index = Arrays.binarySearch(chars, c);
+			return index >= 0 ? children[index] : null;
+		}
+
+		/**
+		 * Returns the child for the given character, which is added if not found.
+		 *
+		 * @param c the character.
+		 * @return the child.
+		 */
+		Node add(final char c) {
+			int index = Arrays.binarySearch(chars, c);
+			if (index < 0) {
+				index = -index - 1;
+				char[] newChars = new char[chars.length + 1];
+				Node[] newChildren = new Node[children.length + 1];
+				System.arraycopy(chars, 0, newChars, 0, index);
+				System.arraycopy(children, 0, newChildren, 0, index);
+				newChars[index] = c;
+				newChildren[index] = new Node();
+				System.arraycopy(chars, index, newChars, index + 1, chars.length - index);
+				System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+				chars = newChars;
+				children = newChildren;
+			}
+
+			return children[index];
+		}
+	}
+}
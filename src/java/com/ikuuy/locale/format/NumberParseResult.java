@@ -0,0 +1,119 @@
+package com.ikuuy.locale.format;
+
+/**
+ * A reusable holder of the result of {@link LocalizedNumberParser}. On success,
+ * it holds the parsed value as an unscaled value and a scale, and the index
+ * after the parsed text. On failure, it holds the index where the error was
+ * found, so that errors are reported without creating any objects.
+ * <p>
+ * Instances are not safe for use by multiple threads.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class NumberParseResult {
+
+	/**
+	 * The unscaled value.
+	 */
+	private long unscaledValue;
+
+	/**
+	 * The scale, which is the number of the digits after the decimal point.
+	 */
+	private int scale;
+
+	/**
+	 * The index after the parsed text.
+	 */
+	private int index;
+
+	/**
+	 * The index where the error was found, or <code>-1</code> if no error.
+	 */
+	private int errorIndex = -1;
+
+	/**
+	 * Returns the unscaled value. The value is <code>unscaledValue / 10^scale</code>.
+	 *
+	 * @return the unscaled value, or <code>0</code> if the parsing failed.
+	 */
+	public long getUnscaledValue() {
+		return unscaledValue;
+	}
+
+	/**
+	 * Returns the scale, which is the number of the digits after the decimal
+	 * point.
+	 *
+	 * @return the scale, or <code>0</code> if the parsing failed.
+	 */
+	public int getScale() {
+		return scale;
+	}
+
+	/**
+	 * Returns the index after the parsed text.
+	 *
+	 * @return the index after the parsed text.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns the index where the error was found.
+	 *
+	 * @return the index where the error was found, or <code>-1</code> if the
+	 *     parsing succeeded.
+	 */
+	public int getErrorIndex() {
+		return errorIndex;
+	}
+
+	/**
+	 * Determines whether the parsing failed.
+	 *
+	 * @return <code>true</code> if the parsing failed; <code>false</code>
+	 *     otherwise.
+	 */
+	public boolean isError() {
+		return errorIndex >= 0;
+	}
+
+	/**
+	 * Sets the parsed value.
+	 *
+	 * @param unscaledValue the unscaled value.
+	 * @param scale the scale.
+	 * @param index the index after the parsed text.
+	 */
+	void setValue(final long unscaledValue, final int scale, final int index) {
+		this.unscaledValue = unscaledValue;
+		this.scale = scale;
+		this.index = index;
+		this.errorIndex = -1;
+	}
+
+	/**
+	 * Sets the error.
+	 *
+	 * @param index the index where the parsing started.
+	 * @param errorIndex the index where the error was found.
+	 */
+	void setError(final int index, final int errorIndex) {
+		this.unscaledValue = 0;
+		this.scale = 0;
+		this.index = index;
+		this.errorIndex = errorIndex;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return getClass().getName() + "[unscaledValue=" + unscaledValue + ",scale=" + scale + ",index=" + index
+				+ ",errorIndex=" + errorIndex + "]";
+	}
+}
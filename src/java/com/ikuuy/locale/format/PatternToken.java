@@ -0,0 +1,148 @@
+package com.ikuuy.locale.format;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A token of a date/time pattern of {@link java.text.SimpleDateFormat}, which
+ * is either a run of the same pattern letter or a literal text.
+ *
+ * @author Yuki Yamada
+ *
+ */
+final class PatternToken {
+
+	/**
+	 * The pattern letter, or <code>0</code> for a literal text.
+	 */
+	private final char letter;
+
+	/**
+	 * The number of the repeated pattern letters.
+	 */
+	private final int count;
+
+	/**
+	 * The literal text, or <code>null</code> for a pattern letter.
+	 */
+	private final String literal;
+
+	/**
+	 * Constructs a token.
+	 *
+	 * @param letter the pattern letter, or <code>0</code> for a literal text.
+	 * @param count the number of the repeated pattern letters.
+	 * @param literal the literal text, or <code>null</code> for a pattern letter.
+	 */
+	private PatternToken(final char letter, final int count, final String literal) {
+		this.letter = letter;
+		this.count = count;
+		this.literal = literal;
+	}
+
+	/**
+	 * Splits a date/time pattern into tokens. A text quoted by <code>'</code> and
+	 * the characters other than ASCII letters are literal texts, and
+	 * <code>''</code> stands for a single quote. The adjacent literal texts are
+	 * merged into a token.
+	 *
+	 * @param pattern the date/time pattern.
+	 * @return an unmodifiable list of the tokens.
+	 * @throws IllegalArgumentException if <code>pattern</code> has an unterminated
+	 *     quote.
+	 * @throws NullPointerException if <code>pattern</code> is <code>null</code>.
+	 */
+	static List<PatternToken> tokenize(final String pattern) throws IllegalArgumentException, NullPointerException {
+		if (pattern == null) {
+			throw new NullPointerException("pattern:null");
+		}
+
+		List<PatternToken> tokens = new ArrayList<PatternToken>();
+		StringBuilder literal = new StringBuilder();
+		boolean quoted = false;
+		int length = pattern.length();
+		int i = 0;
+		while (i < length) {
+			char c = pattern.charAt(i);
+			if (c == '\'') {
+				if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+					literal.append(c);
+					i += 2;
+				} else {
+					quoted = !quoted;
+					i++;
+				}
+			} else if (!quoted && isPatternLetter(c)) {
+				if (literal.length() > 0) {
+					tokens.add(new PatternToken((char) 0, 0, literal.toString()));
+					literal.setLength(0);
+				}
+				int start = i;
+				while (i < length && pattern.charAt(i) == c) {
+					i++;
+				}
+				tokens.add(new PatternToken(c, i - start, null));
+			} else {
+				literal.append(c);
+				i++;
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("pattern:" + pattern);
+		}
+		if (literal.length() > 0) {
+			tokens.add(new PatternToken((char) 0, 0, literal.toString()));
+		}
+
+		return Collections.unmodifiableList(tokens);
+	}
+
+	/**
+	 * Determines whether the given character is a pattern letter.
+	 *
+	 * @param c the character.
+	 * @return <code>true</code> if the character is an ASCII letter;
+	 *     <code>false</code> otherwise.
+	 */
+	private static boolean isPatternLetter(final char c) {
+		return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z');
+	}
+
+	/**
+	 * Determines whether this token is a literal text.
+	 *
+	 * @return <code>true</code> if this token is a literal text;
+	 *     <code>false</code> otherwise.
+	 */
+	boolean isLiteral() {
+		return literal != null;
+	}
+
+	/**
+	 * Returns the pattern letter.
+	 *
+	 * @return the pattern letter, or <code>0</code> for a literal text.
+	 */
+	char getLetter() {
+		return letter;
+	}
+
+	/**
+	 * Returns the number of the repeated pattern letters.
+	 *
+	 * @return the number of the repeated pattern letters.
+	 */
+	int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the literal text.
+	 *
+	 * @return the literal text, or <code>null</code> for a pattern letter.
+	 */
+	String getLiteral() {
+		return literal;
+	}
+}
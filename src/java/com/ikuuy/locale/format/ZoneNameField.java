@@ -0,0 +1,425 @@
+package com.ikuuy.locale.format;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalField;
+import java.time.temporal.TemporalQueries;
+import java.time.temporal.TemporalUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
+import java.time.temporal.ValueRange;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+import com.ikuuy.locale.provider.DateFormatSymbolsProviderImpl;
+
+/**
+ * A field of a time zone name, which lets a {@link java.time.format.DateTimeFormatter}
+ * format and parse the same time zone names as {@link java.text.SimpleDateFormat}
+ * with the symbols of {@link DateFormatSymbolsProviderImpl}. The value of the
+ * field is the index of the time zone ID in {@link TimeZone#getAvailableIDs()}
+ * multiplied by two, plus one for the daylight saving name, or
+ * {@link #NO_NAME} if the time zone has no name, which is formatted as an
+ * empty string.
+ * <p>
+ * A parsed name is resolved into the time zone together with the parsed date
+ * and time, choosing the offset which matches the standard or daylight saving
+ * name. A name parsed without a date is left as the field, since the offset
+ * isn't determined. If the formatter has an override zone other than the time
+ * zone of the name, the result is in the override zone at the instant of the
+ * name.
+ * <p>
+ * Each field has a fallback field, which is supported only by the time zones
+ * without a name, so that an optional section led by it formats them as their
+ * GMT offsets in the same way as <code>SimpleDateFormat</code>.
+ *
+ * @author Yuki Yamada
+ *
+ */
+final class ZoneNameField implements TemporalField {
+
+	/**
+	 * The value of a time zone whose name isn't in the zone strings.
+	 */
+	static final long NO_NAME = -1;
+
+	/**
+	 * The available time zone IDs.
+	 */
+	private static final String[] IDS = TimeZone.getAvailableIDs();
+
+	/**
+	 * A map from a time zone ID to its index in {@link #IDS}.
+	 */
+	private static final Map<String, Integer> INDEXES = new HashMap<String, Integer>();
+
+	/**
+	 * The text of the fallback field.
+	 */
+	private static final Map<Long, String> FALLBACK_TEXT = Collections.singletonMap(Long.valueOf(0), "");
+
+	static {
+		for (int i = 0; i < IDS.length; i++) {
+			INDEXES.put(IDS[i], Integer.valueOf(i));
+		}
+	}
+
+	/**
+	 * The names for the values, or <code>null</code> for a fallback field.
+	 */
+	private final Map<Long, String> names;
+
+	/**
+	 * The name field of a fallback field, or the fallback field of a name field.
+	 */
+	private final ZoneNameField pair;
+
+	/**
+	 * Constructs a field of the time zone names in the specified style.
+	 *
+	 * @param provider the provider of the zone names.
+	 * @param style either <code>TimeZone.LONG</code> or <code>TimeZone.SHORT</code>.
+	 * @param locale the locale of the names.
+	 */
+	ZoneNameField(final DateFormatSymbolsProviderImpl provider, final int style, final Locale locale) {
+		// The region IDs precede the others, and the standard names precede the daylight
+		// saving names, for a name shared by multiple values.
+		List<Long> values = new ArrayList<Long>();
+		List<String> texts = new ArrayList<String>();
+		for (int pass = 0; pass < 2; pass++) {
+			for (int i = 0; i < IDS.length; i++) {
+				if ((IDS[i].indexOf('/') >= 0) == (pass == 0)) {
+					for (int daylight = 0; daylight < 2; daylight++) {
+						String name = provider.getZoneName(IDS[i], daylight != 0, style, locale);
+						if (name != null && !name.isEmpty()) {
+							values.add(Long.valueOf(i * 2L + daylight));
+							texts.add(name);
+						}
+					}
+				}
+			}
+		}
+
+		// DateTimeFormatterBuilder keeps the last value for a name, so the names are
+		// put in the reverse order of the precedence.
+		Map<Long, String> namesMap = new LinkedHashMap<Long, String>();
+		for (int i = values.size() - 1; i >= 0; i--) {
+			namesMap.put(values.get(i), texts.get(i));
+		}
+		namesMap.put(Long.valueOf(NO_NAME), "");
+		this.names = Collections.unmodifiableMap(namesMap);
+		this.pair = new ZoneNameField(this);
+	}
+
+	/**
+	 * Constructs the fallback field of the specified name field.
+	 *
+	 * @param nameField the name field.
+	 */
+	private ZoneNameField(final ZoneNameField nameField) {
+		this.names = null;
+		this.pair = nameField;
+	}
+
+	/**
+	 * Returns the text for each value of the field, where the time zones without
+	 * a name are formatted as an empty string.
+	 *
+	 * @return the text for each value.
+	 */
+	Map<Long, String> getTextLookup() {
+		return names != null ? names : FALLBACK_TEXT;
+	}
+
+	/**
+	 * Returns the fallback field of the name field.
+	 *
+	 * @return the fallback field.
+	 */
+	ZoneNameField getFallbackField() {
+		return names != null ? pair : this;
+	}
+
+	/**
+	 * Returns the value of the name field for the temporal object.
+	 *
+	 * @param temporal the temporal object.
+	 * @return the value of the name field.
+	 * @throws DateTimeException if the temporal object has no time zone.
+	 */
+	private long getNameValue(final TemporalAccessor temporal) throws DateTimeException {
+		ZoneId zone = temporal.query(TemporalQueries.zoneId());
+		if (zone == null) {
+			throw new DateTimeException("Unable to extract ZoneId from temporal " + temporal);
+		}
+
+		long value = NO_NAME;
+		Integer index = INDEXES.get(zone.getId());
+		if (index != null && !(zone instanceof ZoneOffset) && temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+			Instant instant = Instant.ofEpochSecond(temporal.getLong(ChronoField.INSTANT_SECONDS));
+			long candidate = index.intValue() * 2L + (zone.getRules().isDaylightSavings(instant) ? 1 : 0);
+			if (names.containsKey(Long.valueOf(candidate))) {
+				value = candidate;
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TemporalUnit getBaseUnit() {
+		return ChronoUnit.FOREVER;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TemporalUnit getRangeUnit() {
+		return ChronoUnit.FOREVER;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValueRange range() {
+		return names != null ? ValueRange.of(NO_NAME, IDS.length * 2L - 1) : ValueRange.of(0, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isDateBased() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isTimeBased() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isSupportedBy(final TemporalAccessor temporal) {
+		boolean supported = temporal.query(TemporalQueries.zoneId()) != null;
+		if (supported && names == null) {
+			supported = pair.getNameValue(temporal) == NO_NAME;
+		}
+
+		return supported;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValueRange rangeRefinedBy(final TemporalAccessor temporal) {
+		return range();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getFrom(final TemporalAccessor temporal) {
+		return names != null ? getNameValue(temporal) : 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <R extends Temporal> R adjustInto(final R temporal, final long newValue) {
+		throw new UnsupportedTemporalTypeException("Unsupported field: " + toString());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TemporalAccessor resolve(final Map<TemporalField, Long> fieldValues,
+			final TemporalAccessor partialTemporal, final ResolverStyle resolverStyle) {
+		long value = fieldValues.get(this).longValue();
+		TemporalAccessor result = null;
+		if (names == null) {
+			fieldValues.remove(this);
+		} else if (value == NO_NAME) {
+			// The GMT offset is parsed by the fallback section if any.
+			fieldValues.remove(this);
+			if (partialTemporal.query(TemporalQueries.zone()) == null) {
+				throw new DateTimeException("Unable to parse the time zone name");
+			}
+		} else {
+			LocalDate date = partialTemporal.query(TemporalQueries.localDate());
+			LocalTime time = resolveTime(fieldValues, partialTemporal);
+			if (date != null && time != null) {
+				fieldValues.remove(this);
+				ZonedDateTime dateTime = resolveZonedDateTime(LocalDateTime.of(date, time),
+						preferZone(value, partialTemporal));
+				ZoneId zone = partialTemporal.query(TemporalQueries.zoneId());
+				if (zone == null || zone.equals(dateTime.getZone())) {
+					result = dateTime;
+				} else {
+					// The resolved zone can't differ from the override zone of the formatter, so
+					// the offset of the name is kept instead, which decides the instant as
+					// SimpleDateFormat does. A parsed offset takes precedence over it.
+					if (!fieldValues.containsKey(ChronoField.OFFSET_SECONDS)) {
+						fieldValues.put(ChronoField.OFFSET_SECONDS, Long.valueOf(dateTime.getOffset()
+								.getTotalSeconds()));
+					}
+					result = dateTime.toLocalDateTime();
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the value of the same name for the preferred time zone if any. As
+	 * <code>SimpleDateFormat</code> prefers its own time zone and then the default
+	 * time zone for a name shared by multiple time zones, the override zone of the
+	 * formatter and then the default time zone are preferred.
+	 *
+	 * @param value the parsed value.
+	 * @param partialTemporal the partially resolved temporal object.
+	 * @return the value for the preferred time zone, or <code>value</code> if no
+	 *     preferred time zone has the name.
+	 */
+	private long preferZone(final long value, final TemporalAccessor partialTemporal) {
+		String name = names.get(Long.valueOf(value));
+		ZoneId zone = partialTemporal.query(TemporalQueries.zoneId());
+		String[] ids = { zone != null ? zone.getId() : null, TimeZone.getDefault().getID() };
+
+		long result = value;
+		for (int i = 0; i < ids.length && result == value; i++) {
+			Integer index = ids[i] != null ? INDEXES.get(ids[i]) : null;
+			for (int daylight = 0; index != null && daylight < 2 && result == value; daylight++) {
+				long candidate = index.intValue() * 2L + daylight;
+				if (name.equals(names.get(Long.valueOf(candidate)))) {
+					result = candidate;
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the parsed time, which may not be resolved yet.
+	 *
+	 * @param fieldValues the parsed fields.
+	 * @param partialTemporal the partially resolved temporal object.
+	 * @return the time, or <code>null</code> if the hour isn't parsed.
+	 */
+	private static LocalTime resolveTime(final Map<TemporalField, Long> fieldValues,
+			final TemporalAccessor partialTemporal) {
+		LocalTime time = partialTemporal.query(TemporalQueries.localTime());
+		if (time == null && fieldValues.containsKey(ChronoField.HOUR_OF_DAY)) {
+			long nano = 0;
+			if (fieldValues.containsKey(ChronoField.NANO_OF_SECOND)) {
+				nano = fieldValues.get(ChronoField.NANO_OF_SECOND).longValue();
+			} else if (fieldValues.containsKey(ChronoField.MILLI_OF_SECOND)) {
+				nano = fieldValues.get(ChronoField.MILLI_OF_SECOND).longValue() * 1000000L;
+			}
+			time = LocalTime.of(getInt(fieldValues, ChronoField.HOUR_OF_DAY),
+					getInt(fieldValues, ChronoField.MINUTE_OF_HOUR),
+					getInt(fieldValues, ChronoField.SECOND_OF_MINUTE),
+					ChronoField.NANO_OF_SECOND.checkValidIntValue(nano));
+		}
+
+		return time;
+	}
+
+	/**
+	 * Returns the value of a parsed time field.
+	 *
+	 * @param fieldValues the parsed fields.
+	 * @param field the time field.
+	 * @return the value, or <code>0</code> if the field isn't parsed.
+	 */
+	private static int getInt(final Map<TemporalField, Long> fieldValues, final ChronoField field) {
+		Long value = fieldValues.get(field);
+		return value != null ? field.checkValidIntValue(value.longValue()) : 0;
+	}
+
+	/**
+	 * Resolves the local date-time in the time zone of the parsed name.
+	 *
+	 * @param dateTime the local date-time.
+	 * @param value the value of the name field.
+	 * @return the zoned date-time.
+	 */
+	private ZonedDateTime resolveZonedDateTime(final LocalDateTime dateTime, final long value) {
+		String id = IDS[(int) (value / 2)];
+		boolean daylight = value % 2 != 0;
+		ZoneId zone = ZoneId.of(id, ZoneId.SHORT_IDS);
+		ZoneRules rules = zone.getRules();
+		TimeZone timeZone = TimeZone.getTimeZone(id);
+
+		// As SimpleDateFormat does, the time zone decides the offset if the standard and
+		// the daylight saving names are the same, or if it has no daylight saving time.
+		// Otherwise, the offset must match the name.
+		boolean decided = names.get(Long.valueOf(value)).equalsIgnoreCase(names.get(Long.valueOf(value ^ 1)))
+				|| (daylight && timeZone.getDSTSavings() == 0);
+		ZonedDateTime result = null;
+		for (ZoneOffset offset : rules.getValidOffsets(dateTime)) {
+			if (result == null && (decided || rules.isDaylightSavings(dateTime.toInstant(offset)) == daylight)) {
+				result = ZonedDateTime.ofLocal(dateTime, zone, offset);
+			}
+		}
+		if (result == null) {
+			// The date-time doesn't exist with the name, such as a standard name in summer
+			// or a time in a gap, so the offset is derived from the name.
+			Instant instant = dateTime.toInstant(rules.getOffset(dateTime));
+			int seconds = rules.getStandardOffset(instant).getTotalSeconds()
+					+ (daylight ? timeZone.getDSTSavings() / 1000 : 0);
+			result = ZonedDateTime.of(dateTime, ZoneOffset.ofTotalSeconds(seconds));
+		}
+
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getDisplayName(final Locale locale) {
+		return toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return names != null ? "ZoneName" : "ZoneNameFallback";
+	}
+}
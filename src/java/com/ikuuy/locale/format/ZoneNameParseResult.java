@@ -0,0 +1,106 @@
+package com.ikuuy.locale.format;
+
+import com.ikuuy.locale.util.TimeZoneNames;
+
+/**
+ * A reusable holder of the time zone name parsed by {@link LocalizedNameParser}.
+ * On success, it holds the time zone ID and the type of the matched name, so
+ * that the caller can tell a daylight saving name from a standard or generic
+ * one.
+ * <p>
+ * Instances are not safe for use by multiple threads.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class ZoneNameParseResult {
+
+	/**
+	 * The time zone ID, or <code>null</code> if no name is found.
+	 */
+	private String id;
+
+	/**
+	 * The type of the matched name, or <code>-1</code> if no name is found.
+	 */
+	private int type = -1;
+
+	/**
+	 * Returns the time zone ID.
+	 *
+	 * @return the time zone ID, or <code>null</code> if the parsing failed.
+	 */
+	public String getID() {
+		return id;
+	}
+
+	/**
+	 * Returns the type of the matched name, which is one of the indexes of
+	 * {@link TimeZoneNames}, such as {@link TimeZoneNames#STANDARD_LONG} and
+	 * {@link TimeZoneNames#DAYLIGHT_SHORT}.
+	 *
+	 * @return the type of the matched name, or <code>-1</code> if the parsing
+	 *     failed.
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * Determines whether the matched name is a daylight saving name.
+	 *
+	 * @return <code>true</code> if the matched name is a daylight saving name;
+	 *     <code>false</code> otherwise.
+	 */
+	public boolean isDaylight() {
+		return type == TimeZoneNames.DAYLIGHT_LONG || type == TimeZoneNames.DAYLIGHT_SHORT;
+	}
+
+	/**
+	 * Determines whether the matched name is a generic name, which doesn't
+	 * distinguish standard time from daylight saving time.
+	 *
+	 * @return <code>true</code> if the matched name is a generic name;
+	 *     <code>false</code> otherwise.
+	 */
+	public boolean isGeneric() {
+		return type == TimeZoneNames.GENERIC_LONG || type == TimeZoneNames.GENERIC_SHORT;
+	}
+
+	/**
+	 * Determines whether the parsing failed.
+	 *
+	 * @return <code>true</code> if the parsing failed; <code>false</code>
+	 *     otherwise.
+	 */
+	public boolean isError() {
+		return id == null;
+	}
+
+	/**
+	 * Sets the parsed name.
+	 *
+	 * @param id the time zone ID.
+	 * @param type the type of the matched name.
+	 */
+	void setValue(final String id, final int type) {
+		this.id = id;
+		this.type = type;
+	}
+
+	/**
+	 * Sets the error.
+	 */
+	void setError() {
+		this.id = null;
+		this.type = -1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return getClass().getName() + "[id=" + id + ",type=" + type + "]";
+	}
+}
@@ -4,6 +4,7 @@ import java.util.Locale;
 import java.util.spi.CalendarDataProvider;
 
 import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.LocaleDataSection;
 
 /**
  * An implementation class for {@link CalendarDataProvider} which provides
@@ -22,6 +23,17 @@ public class CalendarDataProviderImpl extends CalendarDataProvider {
 		return ExtLocalesUtil.getAvailableLocales();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isSupportedLocale(final Locale locale) throws NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		return ExtLocalesUtil.isSupportedLocale(locale);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -31,7 +43,7 @@ public class CalendarDataProviderImpl extends CalendarDataProvider {
 			throw new NullPointerException("locale:null");
 		}
 
-		return ExtLocalesUtil.getInt("FirstDayOfWeek", locale);
+		return ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.CALENDAR).getInt("FirstDayOfWeek");
 	}
 
 	/**
@@ -43,6 +55,6 @@ public class CalendarDataProviderImpl extends CalendarDataProvider {
 			throw new NullPointerException("locale:null");
 		}
 
-		return ExtLocalesUtil.getInt("MinimalDaysInFirstWeek", locale);
+		return ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.CALENDAR).getInt("MinimalDaysInFirstWeek");
 	}
 }
@@ -2,15 +2,19 @@ package com.ikuuy.locale.provider;
 
 import java.text.DateFormatSymbols;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.spi.CalendarNameProvider;
 
 import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.LocaleData;
+import com.ikuuy.locale.util.LocaleDataSection;
 
 /**
  * An implementation class for {@link CalendarNameProvider} which provides
@@ -26,6 +30,92 @@ public class CalendarNameProviderImpl extends CalendarNameProvider {
 	 */
 	private static final Logger LOG = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
 
+	/**
+	 * The <code>Calendar</code> fields held in the tables of the display names.
+	 */
+	private static final int[] FIELDS = { Calendar.ERA, Calendar.MONTH, Calendar.DAY_OF_WEEK, Calendar.AM_PM };
+
+	/**
+	 * The string representation styles held in the tables of the display names.
+	 */
+	private static final int[] STYLES = { Calendar.SHORT, Calendar.LONG, Calendar.NARROW_FORMAT,
+			Calendar.SHORT_STANDALONE, Calendar.LONG_STANDALONE, Calendar.NARROW_STANDALONE };
+
+	/**
+	 * A marker for the fields which have no unique display names. Compared only by
+	 * identity.
+	 */
+	private static final Map<String, Integer> NO_DISPLAY_NAMES =
+			Collections.unmodifiableMap(new HashMap<String, Integer>());
+
+	/**
+	 * The index of the eras within the symbols.
+	 */
+	private static final int ERAS = 0;
+
+	/**
+	 * The index of the months within the symbols.
+	 */
+	private static final int MONTHS = 1;
+
+	/**
+	 * The index of the short months within the symbols.
+	 */
+	private static final int SHORT_MONTHS = 2;
+
+	/**
+	 * The index of the weekdays within the symbols.
+	 */
+	private static final int WEEKDAYS = 3;
+
+	/**
+	 * The index of the short weekdays within the symbols.
+	 */
+	private static final int SHORT_WEEKDAYS = 4;
+
+	/**
+	 * The index of the AM/PM strings within the symbols.
+	 */
+	private static final int AM_PM_STRINGS = 5;
+
+	/**
+	 * The offset of the narrow forms within the symbols.
+	 */
+	private static final int NARROW = 6;
+
+	/**
+	 * The suffixes for the property keys of the eras.
+	 */
+	private static final String[] ERA_KEYS = { "BC", "AD" };
+
+	/**
+	 * The suffixes for the property keys of the months.
+	 */
+	private static final String[] MONTH_KEYS = { "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT",
+			"NOV", "DEC" };
+
+	/**
+	 * The suffixes for the property keys of the weekdays.
+	 */
+	private static final String[] WEEKDAY_KEYS = { "SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT" };
+
+	/**
+	 * The suffixes for the property keys of the AM/PM strings.
+	 */
+	private static final String[] AM_PM_KEYS = { "AM", "PM" };
+
+	/**
+	 * A cache of the symbols and their narrow forms for each locale, which are
+	 * shared and never modified.
+	 */
+	private static final ConcurrentMap<Locale, String[][]> SYMBOLS = new ConcurrentHashMap<Locale, String[][]>();
+
+	/**
+	 * A cache of the tables of the display names for each locale and calendar type.
+	 */
+	private static final ConcurrentMap<Locale, ConcurrentMap<String, NameTable>> TABLES =
+			new ConcurrentHashMap<Locale, ConcurrentMap<String, NameTable>>();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -34,6 +124,17 @@ public class CalendarNameProviderImpl extends CalendarNameProvider {
 		return ExtLocalesUtil.getAvailableLocales();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isSupportedLocale(final Locale locale) throws NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		return ExtLocalesUtil.isSupportedLocale(locale);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -45,16 +146,152 @@ public class CalendarNameProviderImpl extends CalendarNameProvider {
 		}
 
 		String displayName = null;
-		String key = generateKey(calendarType, field, value, style);
-		if (ExtLocalesUtil.containsKey(key, locale)) {
-			displayName = ExtLocalesUtil.getString(key, locale);
+		NameTable table = getNameTable(calendarType, locale);
+		int fieldIndex = indexOf(FIELDS, field);
+		int styleIndex = indexOf(STYLES, style);
+		if (table != null && fieldIndex >= 0 && styleIndex >= 0 && table.minimums[fieldIndex] <= value
+				&& value <= table.maximums[fieldIndex]) {
+			displayName = table.names[fieldIndex][styleIndex][value - table.minimums[fieldIndex]];
 		} else {
+			displayName = lookUpDisplayName(calendarType, field, value, style, locale);
+		}
+
+		return displayName;
+	}
+
+	/**
+	 * Looks up the string representation (display name) of the calendar
+	 * <code>field value</code> in the resource bundle, or in
+	 * {@link DateFormatSymbols} if the resource bundle doesn't have it.
+	 *
+	 * @param calendarType the calendar type.
+	 * @param field the <code>Calendar</code> field index.
+	 * @param value the value of the <code>Calendar field</code>.
+	 * @param style the string representation style.
+	 * @param locale the desired locale.
+	 * @return the string representation of the <code>field value</code>, or
+	 *     <code>null</code> if no string representation is applicable.
+	 * @throws IllegalArgumentException if <code>field</code> or <code>style</code>
+	 *     is invalid.
+	 */
+	private String lookUpDisplayName(final String calendarType, final int field, final int value, final int style,
+			final Locale locale) throws IllegalArgumentException {
+		String key = generateKey(calendarType, field, value, style);
+		LocaleData data = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.CALENDAR);
+		String displayName = data.findString(key);
+		if (displayName == null) {
 			displayName = getDisplayNameFromDateFormatSymbols(calendarType, field, value, style, locale);
 		}
 
 		return displayName;
 	}
 
+	/**
+	 * Returns the table of the display names for the specified calendar type and
+	 * locale. The table is built on the first request.
+	 *
+	 * @param calendarType the calendar type.
+	 * @param locale the desired locale.
+	 * @return the table of the display names, or <code>null</code> if
+	 *     <code>calendarType</code> is <code>null</code> or if <code>locale</code>
+	 *     isn't available.
+	 */
+	private NameTable getNameTable(final String calendarType, final Locale locale) {
+		NameTable table = null;
+
+		Locale targetLocale = ExtLocalesUtil.resolveLocale(locale);
+		if (calendarType != null && targetLocale != null) {
+			ConcurrentMap<String, NameTable> tables = TABLES.get(targetLocale);
+			if (tables == null) {
+				tables = new ConcurrentHashMap<String, NameTable>();
+				ConcurrentMap<String, NameTable> currentTables = TABLES.putIfAbsent(targetLocale, tables);
+				if (currentTables != null) {
+					tables = currentTables;
+				}
+			}
+
+			table = tables.get(calendarType);
+			if (table == null) {
+				table = createNameTable(calendarType, targetLocale);
+				NameTable current = tables.putIfAbsent(calendarType, table);
+				if (current != null) {
+					table = current;
+				}
+			}
+		}
+
+		return table;
+	}
+
+	/**
+	 * Builds the table of the display names for the specified calendar type and
+	 * locale.
+	 *
+	 * @param calendarType the calendar type.
+	 * @param locale the desired locale.
+	 * @return a table of the display names.
+	 */
+	private NameTable createNameTable(final String calendarType, final Locale locale) {
+		Calendar calendar = getCalendar(calendarType);
+		NameTable table = new NameTable();
+
+		for (int fieldIndex = 0; fieldIndex < FIELDS.length; fieldIndex++) {
+			int field = FIELDS[fieldIndex];
+			int minimum = calendar.getMinimum(field);
+			int maximum = calendar.getMaximum(field);
+			table.minimums[fieldIndex] = minimum;
+			table.maximums[fieldIndex] = maximum;
+			table.names[fieldIndex] = new String[STYLES.length][maximum - minimum + 1];
+			for (int styleIndex = 0; styleIndex < STYLES.length; styleIndex++) {
+				for (int value = minimum; value <= maximum; value++) {
+					table.names[fieldIndex][styleIndex][value - minimum] =
+							lookUpDisplayName(calendarType, field, value, STYLES[styleIndex], locale);
+				}
+			}
+		}
+
+		return table;
+	}
+
+	/**
+	 * Returns a calendar which the minimum and maximum values of the fields are
+	 * taken from for the specified calendar type.
+	 *
+	 * @param calendarType the calendar type.
+	 * @return a calendar.
+	 */
+	private static Calendar getCalendar(final String calendarType) {
+		Calendar calendar;
+		if ("buddhist".equals(calendarType)) {
+			calendar = Calendar.getInstance(new Locale("th", "TH", "TH"));
+		} else if ("japanese".equals(calendarType)) {
+			calendar = Calendar.getInstance(new Locale("ja", "JP", "JP"));
+		} else {
+			calendar = Calendar.getInstance(Locale.ROOT);
+		}
+
+		return calendar;
+	}
+
+	/**
+	 * Returns the index of the given value within the array.
+	 *
+	 * @param array the array to be searched.
+	 * @param value the value to be searched for.
+	 * @return the index of the value, or <code>-1</code> if not found.
+	 */
+	private static int indexOf(final int[] array, final int value) {
+		int index = -1;
+		for (int i = 0; i < array.length; i++) {
+			if (array[i] == value) {
+				index = i;
+				break;
+			}
+		}
+
+		return index;
+	}
+
 	/**
 	 * Returns a key for the resource bundle.
 	 *
@@ -124,8 +361,9 @@ public class CalendarNameProviderImpl extends CalendarNameProvider {
 	/**
 	 * Returns the string representation (display name) of the calendar
 	 * <code>field value</code> in the given <code>style</code> and
-	 * <code>locale</code> from {@link DateFormatSymbols}. If no string
-	 * representation is applicable, <code>null</code> is returned.
+	 * <code>locale</code> from the symbols which {@link DateFormatSymbols} is
+	 * built from. If no string representation is applicable, <code>null</code> is
+	 * returned.
 	 *
 	 * @param calendarType the calendar type.
 	 * @param field the <code>Calendar</code> field index.
@@ -138,30 +376,31 @@ public class CalendarNameProviderImpl extends CalendarNameProvider {
 			final int style, final Locale locale) {
 		String displayName = null;
 
-		DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+		String[][] symbols = getSymbols(locale);
+		int narrow = (style & Calendar.NARROW_FORMAT) != 0 ? NARROW : 0;
 		String[] symbolsArray = null;
 		switch (field) {
 		case Calendar.ERA:
 			if ("gregory".equals(calendarType)) {
-				symbolsArray = symbols.getEras();
+				symbolsArray = symbols[ERAS + narrow];
 			}
 			break;
 		case Calendar.MONTH:
 			if ((style & Calendar.LONG) == 0) {
-				symbolsArray = symbols.getShortMonths();
+				symbolsArray = symbols[SHORT_MONTHS + narrow];
 			} else {
-				symbolsArray = symbols.getMonths();
+				symbolsArray = symbols[MONTHS + narrow];
 			}
 			break;
 		case Calendar.DAY_OF_WEEK:
 			if ((style & Calendar.LONG) == 0) {
-				symbolsArray = symbols.getShortWeekdays();
+				symbolsArray = symbols[SHORT_WEEKDAYS + narrow];
 			} else {
-				symbolsArray = symbols.getWeekdays();
+				symbolsArray = symbols[WEEKDAYS + narrow];
 			}
 			break;
 		case Calendar.AM_PM:
-			symbolsArray = symbols.getAmPmStrings();
+			symbolsArray = symbols[AM_PM_STRINGS + narrow];
 			break;
 		default:
 			break;
@@ -169,20 +408,91 @@ public class CalendarNameProviderImpl extends CalendarNameProvider {
 
 		if (symbolsArray != null && 0 <= value && value < symbolsArray.length) {
 			displayName = symbolsArray[value];
-			if ((style & Calendar.NARROW_FORMAT) != 0) {
-				Pattern pattern = Pattern.compile("^(\\d+).*");
-				Matcher matcher = pattern.matcher(displayName);
-				if (matcher.find()) {
-					// Use the first digit(s).
-					displayName = matcher.group(1);
-				} else if (!displayName.isEmpty()) {
-					// Use the first character.
-					displayName = displayName.substring(0, 1);
+		}
+
+		return displayName;
+	}
+
+	/**
+	 * Returns the symbols and their narrow forms for the specified locale, indexed
+	 * by {@link #ERAS}, {@link #MONTHS} and so on, plus {@link #NARROW} for the
+	 * narrow forms. The returned arrays are shared and must not be modified.
+	 *
+	 * @param locale the desired locale.
+	 * @return the symbols.
+	 */
+	private static String[][] getSymbols(final Locale locale) {
+		Locale targetLocale = ExtLocalesUtil.resolveLocale(locale);
+		if (targetLocale == null) {
+			targetLocale = Locale.ROOT;
+		}
+
+		String[][] symbols = SYMBOLS.get(targetLocale);
+		if (symbols == null) {
+			LocaleData data = ExtLocalesUtil.getLocaleData(targetLocale, LocaleDataSection.CALENDAR);
+			symbols = new String[NARROW * 2][];
+			symbols[ERAS] = getSymbols(data, "Eras", ERA_KEYS, false);
+			symbols[MONTHS] = getSymbols(data, "Months", MONTH_KEYS, false);
+			symbols[SHORT_MONTHS] = getSymbols(data, "ShortMonths", MONTH_KEYS, false);
+			symbols[WEEKDAYS] = getSymbols(data, "Weekdays", WEEKDAY_KEYS, true);
+			symbols[SHORT_WEEKDAYS] = getSymbols(data, "ShortWeekdays", WEEKDAY_KEYS, true);
+			symbols[AM_PM_STRINGS] = getSymbols(data, "AmPmStrings", AM_PM_KEYS, false);
+			for (int i = 0; i < NARROW; i++) {
+				symbols[i + NARROW] = new String[symbols[i].length];
+				for (int j = 0; j < symbols[i].length; j++) {
+					symbols[i + NARROW][j] = toNarrow(symbols[i][j]);
 				}
 			}
+			String[][] current = SYMBOLS.putIfAbsent(targetLocale, symbols);
+			if (current != null) {
+				symbols = current;
+			}
 		}
 
-		return displayName;
+		return symbols;
+	}
+
+	/**
+	 * Returns the symbols for the given keys from the locale data.
+	 *
+	 * @param data the locale data.
+	 * @param prefix the prefix for the property keys.
+	 * @param keys the suffixes for the property keys.
+	 * @param leadingEmpty <code>true</code> if the symbols start with an empty
+	 *     string as the weekdays of <code>DateFormatSymbols</code> do.
+	 * @return the symbols.
+	 */
+	private static String[] getSymbols(final LocaleData data, final String prefix, final String[] keys,
+			final boolean leadingEmpty) {
+		int offset = leadingEmpty ? 1 : 0;
+		String[] symbols = new String[keys.length + offset];
+		if (leadingEmpty) {
+			symbols[0] = "";
+		}
+		for (int i = 0; i < keys.length; i++) {
+			symbols[i + offset] = data.getString(prefix + "." + keys[i]);
+		}
+
+		return symbols;
+	}
+
+	/**
+	 * Returns the narrow form of the given name, which is its leading digits if it
+	 * starts with a digit, or its first character otherwise.
+	 *
+	 * @param name the name.
+	 * @return the narrow form of the name.
+	 */
+	private static String toNarrow(final String name) {
+		int length = 0;
+		while (length < name.length() && '0' <= name.charAt(length) && name.charAt(length) <= '9') {
+			length++;
+		}
+		if (length == 0 && !name.isEmpty()) {
+			length = 1;
+		}
+
+		return name.substring(0, length);
 	}
 	
 	/**
@@ -196,27 +506,56 @@ public class CalendarNameProviderImpl extends CalendarNameProvider {
 		}
 
 		Map<String, Integer> displayNames = null;
+		NameTable table = getNameTable(calendarType, locale);
+		int fieldIndex = indexOf(FIELDS, field);
+		int styleIndex = style == Calendar.ALL_STYLES ? STYLES.length : indexOf(STYLES, style);
+		if (table != null && fieldIndex >= 0 && styleIndex >= 0) {
+			int index = fieldIndex * (STYLES.length + 1) + styleIndex;
+			displayNames = table.displayNames.get(index);
+			if (displayNames == null) {
+				displayNames = createDisplayNames(calendarType, field, style, locale);
+				displayNames = displayNames != null ? Collections.unmodifiableMap(displayNames) : NO_DISPLAY_NAMES;
+				if (!table.displayNames.compareAndSet(index, null, displayNames)) {
+					displayNames = table.displayNames.get(index);
+				}
+			}
+			if (displayNames == NO_DISPLAY_NAMES) {
+				displayNames = null;
+			}
+		} else {
+			displayNames = createDisplayNames(calendarType, field, style, locale);
+		}
+
+		return displayNames;
+	}
+
+	/**
+	 * Returns a new <code>Map</code> containing all string representations
+	 * (display names) of the <code>Calendar field</code> in the given
+	 * <code>style</code> and <code>locale</code>.
+	 *
+	 * @param calendarType the calendar type.
+	 * @param field the <code>Calendar</code> field index.
+	 * @param style the string representation style.
+	 * @param locale the desired locale.
+	 * @return a <code>Map</code> containing all display names of <code>field</code>.
+	 */
+	private Map<String, Integer> createDisplayNames(final String calendarType, final int field, final int style,
+			final Locale locale) {
+		Map<String, Integer> displayNames = null;
 
 		int minimum = 1;
 		int maximum = 1;
 		if (field == Calendar.ERA || field == Calendar.MONTH || field == Calendar.DAY_OF_WEEK
 				|| field == Calendar.AM_PM) {
 			// Get the minimum and maximum values for the calendar field.
-			Calendar calendar;
-			if ("buddhist".equals(calendarType)) {
-				calendar = Calendar.getInstance(new Locale("th", "TH", "TH"));
-			} else if ("japanese".equals(calendarType)) {
-				calendar = Calendar.getInstance(new Locale("ja", "JP", "JP"));
-			} else {
-				calendar = Calendar.getInstance(Locale.ROOT);
-			}
+			Calendar calendar = getCalendar(calendarType);
 			minimum = calendar.getMinimum(field);
 			maximum = calendar.getMaximum(field);
 		}
 
 		if (style == Calendar.ALL_STYLES) {
-			for (int specificStyle : new int[] { Calendar.SHORT, Calendar.LONG, Calendar.NARROW_FORMAT,
-					Calendar.SHORT_STANDALONE, Calendar.LONG_STANDALONE, Calendar.NARROW_STANDALONE }) {
+			for (int specificStyle : STYLES) {
 				Map<String, Integer> map = getDisplayNames(calendarType, field, minimum, maximum, specificStyle, locale);
 				if (displayNames == null) {
 					displayNames = map;
@@ -271,4 +610,33 @@ public class CalendarNameProviderImpl extends CalendarNameProvider {
 
 		return displayNames;
 	}
+
+	/**
+	 * A table of the display names for a locale and a calendar type, indexed by
+	 * the field, the style and the value.
+	 */
+	private static final class NameTable {
+
+		/**
+		 * The minimum values of the fields.
+		 */
+		private final int[] minimums = new int[FIELDS.length];
+
+		/**
+		 * The maximum values of the fields.
+		 */
+		private final int[] maximums = new int[FIELDS.length];
+
+		/**
+		 * The display names indexed by the field, the style and the value.
+		 */
+		private final String[][][] names = new String[FIELDS.length][][];
+
+		/**
+		 * The unmodifiable maps of the display names indexed by the field and the
+		 * style including <code>ALL_STYLES</code>, which are filled in on demand.
+		 */
+		private final AtomicReferenceArray<Map<String, Integer>> displayNames =
+				new AtomicReferenceArray<Map<String, Integer>>(FIELDS.length * (STYLES.length + 1));
+	}
 }
@@ -5,9 +5,12 @@ import java.text.ParseException;
 import java.text.RuleBasedCollator;
 import java.text.spi.CollatorProvider;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
 
 import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.LocaleDataSection;
 
 /**
  * An implementation class for {@link CollatorProvider} which provides a
@@ -23,6 +26,36 @@ public class CollatorProviderImpl extends CollatorProvider {
 	 */
 	private static final Logger LOG = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
 
+	/**
+	 * The collation rules of the root locale, which the tailoring rules of each
+	 * locale are appended to.
+	 */
+	private static final String ROOT_RULES = ((RuleBasedCollator) Collator.getInstance(Locale.ROOT)).getRules();
+
+	/**
+	 * A cache of the compiled collators for each tailoring rules, which are never
+	 * handed out but cloned. The locales with the same rules share a collator.
+	 */
+	private static final ConcurrentMap<String, Collator> PROTOTYPES = new ConcurrentHashMap<String, Collator>();
+
+	static {
+		if (ExtLocalesUtil.getConfigBoolean("Collator.precompile", false)) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (Locale locale : ExtLocalesUtil.getAvailableLocales()) {
+						getPrototype(locale);
+					}
+				}
+			}, "ExtLocales-Collator-precompile");
+			thread.setDaemon(true);
+			// Don't pin the loader of the thread which happens to initialize this
+			// class, such as the loader of a web application.
+			thread.setContextClassLoader(CollatorProviderImpl.class.getClassLoader());
+			thread.start();
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -31,6 +64,17 @@ public class CollatorProviderImpl extends CollatorProvider {
 		return ExtLocalesUtil.getAvailableLocales();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isSupportedLocale(final Locale locale) throws NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		return ExtLocalesUtil.isSupportedLocale(locale);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -38,17 +82,35 @@ public class CollatorProviderImpl extends CollatorProvider {
 	public Collator getInstance(final Locale locale) throws IllegalArgumentException, NullPointerException {
 		if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
+		} else if (!ExtLocalesUtil.isSupportedLocale(locale)) {
 			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
-		RuleBasedCollator collator = (RuleBasedCollator) Collator.getInstance(Locale.ROOT);
-		String rules = collator.getRules() + ExtLocalesUtil.getString("CollatorRules", locale);
+		return (Collator) getPrototype(locale).clone();
+	}
 
-		try {
-			collator = new RuleBasedCollator(rules);
-		} catch (ParseException e) {
-			LOG.warning(e.getMessage());
+	/**
+	 * Returns the compiled collator for the specified locale, which must not be
+	 * modified.
+	 *
+	 * @param locale the desired locale.
+	 * @return a collator.
+	 */
+	private static Collator getPrototype(final Locale locale) {
+		String tailoringRules = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.COLLATION).getString(
+				"CollatorRules");
+		Collator collator = PROTOTYPES.get(tailoringRules);
+		if (collator == null) {
+			try {
+				collator = new RuleBasedCollator(ROOT_RULES + tailoringRules);
+			} catch (ParseException e) {
+				LOG.warning(e.getMessage());
+				collator = Collator.getInstance(Locale.ROOT);
+			}
+			Collator current = PROTOTYPES.putIfAbsent(tailoringRules, collator);
+			if (current != null) {
+				collator = current;
+			}
 		}
 
 		return collator;
@@ -5,6 +5,9 @@ import java.util.Locale;
 import java.util.spi.CurrencyNameProvider;
 
 import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.KeyTable;
+import com.ikuuy.locale.util.LocaleData;
+import com.ikuuy.locale.util.LocaleDataSection;
 
 /**
  * An implementation class for {@link CurrencyNameProvider} which provides
@@ -15,6 +18,16 @@ import com.ikuuy.locale.util.ExtLocalesUtil;
  */
 public class CurrencyNameProviderImpl extends CurrencyNameProvider {
 
+	/**
+	 * A table of the property keys for the currency names.
+	 */
+	private static final KeyTable NAME_KEYS = new KeyTable("Currency.", ".Name");
+
+	/**
+	 * A table of the property keys for the currency symbols.
+	 */
+	private static final KeyTable SYMBOL_KEYS = new KeyTable("Currency.", "");
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -23,6 +36,17 @@ public class CurrencyNameProviderImpl extends CurrencyNameProvider {
 		return ExtLocalesUtil.getAvailableLocales();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isSupportedLocale(final Locale locale) throws NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		return ExtLocalesUtil.isSupportedLocale(locale);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -31,21 +55,19 @@ public class CurrencyNameProviderImpl extends CurrencyNameProvider {
 			NullPointerException {
 		if (currencyCode == null) {
 			throw new NullPointerException("currencyCode:null");
-		} else if (!currencyCode.matches("^[A-Z]{3}$")) {
+		} else if (!ExtLocalesUtil.consistsOf(currencyCode, 3, 3, 'A', 'Z')) {
 			// The currency code string should be in the form of three upper-case letters.
 			throw new IllegalArgumentException("currencyCode:" + currencyCode);
 		} else if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
+		} else if (!ExtLocalesUtil.isSupportedLocale(locale)) {
 			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
-		String displayName = null;
-		String key = "Currency." + currencyCode + ".Name";
+		String key = NAME_KEYS.getKey(currencyCode);
 
-		if (ExtLocalesUtil.containsKey(key, locale)) {
-			displayName = ExtLocalesUtil.getString(key, locale);
-		}
+		LocaleData data = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.CURRENCY);
+		String displayName = data.findString(key);
 
 		return displayName;
 	}
@@ -58,24 +80,25 @@ public class CurrencyNameProviderImpl extends CurrencyNameProvider {
 			NullPointerException {
 		if (currencyCode == null) {
 			throw new NullPointerException("currencyCode:null");
-		} else if (!currencyCode.matches("^[A-Z]{3}$")) {
+		} else if (!ExtLocalesUtil.consistsOf(currencyCode, 3, 3, 'A', 'Z')) {
 			// The currency code string should be in the form of three upper-case letters.
 			throw new IllegalArgumentException("currencyCode:" + currencyCode);
 		} else if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
+		} else if (!ExtLocalesUtil.isSupportedLocale(locale)) {
 			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
-		String symbol = null;
-		String key = "Currency." + currencyCode;
+		String key = SYMBOL_KEYS.getKey(currencyCode);
 
-		if (ExtLocalesUtil.containsKey(key, locale)) {
-			symbol = ExtLocalesUtil.getString(key, locale);
-		} else {
-			String intlSymbol = ExtLocalesUtil.getString("InternationalCurrencySymbol", locale);
+		LocaleData data = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.CURRENCY);
+		String symbol = data.findString(key);
+		if (symbol == null) {
+			// The symbol of the local currency is in the decimal format symbols.
+			LocaleData symbols = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.SYMBOLS);
+			String intlSymbol = symbols.getString("InternationalCurrencySymbol");
 			if (currencyCode.equals(intlSymbol)) {
-				symbol = ExtLocalesUtil.getString("CurrencySymbol", locale);
+				symbol = symbols.getString("CurrencySymbol");
 			}
 		}
 
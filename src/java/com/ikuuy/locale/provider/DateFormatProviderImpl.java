@@ -5,8 +5,13 @@ import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.text.spi.DateFormatProvider;
 import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.LocaleDataSection;
 
 /**
  * An implementation class for {@link DateFormatProvider} which provides a
@@ -17,6 +22,21 @@ import com.ikuuy.locale.util.ExtLocalesUtil;
  */
 public class DateFormatProviderImpl extends DateFormatProvider {
 
+	/**
+	 * A formatting style which means that the date or the time is not formatted.
+	 */
+	public static final int NONE = -1;
+
+	/**
+	 * The number of the formatting styles including {@link #NONE}.
+	 */
+	private static final int STYLE_COUNT = DateFormat.SHORT + 2;
+
+	/**
+	 * A cache of the tables of the date/time patterns for each locale.
+	 */
+	private static final ConcurrentMap<Locale, PatternTable> TABLES = new ConcurrentHashMap<Locale, PatternTable>();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -25,20 +45,24 @@ public class DateFormatProviderImpl extends DateFormatProvider {
 		return ExtLocalesUtil.getAvailableLocales();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isSupportedLocale(final Locale locale) throws NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		return ExtLocalesUtil.isSupportedLocale(locale);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public DateFormat getDateInstance(final int style, final Locale locale) throws IllegalArgumentException,
 			NullPointerException {
-		DateFormat dateFormat = null;
-
-		String format = getDateTimeFormatString("DateFormat", style, locale);
-		if (format != null) {
-			dateFormat = new SimpleDateFormat(format, locale);
-		}
-
-		return dateFormat;
+		return getInstance(style, NONE, locale);
 	}
 
 	/**
@@ -47,16 +71,7 @@ public class DateFormatProviderImpl extends DateFormatProvider {
 	@Override
 	public DateFormat getDateTimeInstance(final int dateStyle, final int timeStyle, final Locale locale)
 			throws IllegalArgumentException, NullPointerException {
-		DateFormat dateFormat = null;
-
-		String format = getDateTimeFormatString("DateTimeFormat", dateStyle, locale);
-		if (format != null) {
-			String pattern = MessageFormat.format(format, getDateTimeFormatString("DateFormat", dateStyle, locale),
-					getDateTimeFormatString("TimeFormat", timeStyle, locale));
-			dateFormat = new SimpleDateFormat(pattern, locale);
-		}
-
-		return dateFormat;
+		return getInstance(dateStyle, timeStyle, locale);
 	}
 
 	/**
@@ -65,19 +80,213 @@ public class DateFormatProviderImpl extends DateFormatProvider {
 	@Override
 	public DateFormat getTimeInstance(final int style, final Locale locale) throws IllegalArgumentException,
 			NullPointerException {
-		DateFormat dateFormat = null;
+		return getInstance(NONE, style, locale);
+	}
+
+	/**
+	 * Returns the date/time pattern with the given formatting styles for the
+	 * specified locale.
+	 *
+	 * @param dateStyle the given date formatting style, or {@link #NONE} for a
+	 *     time pattern.
+	 * @param timeStyle the given time formatting style, or {@link #NONE} for a
+	 *     date pattern.
+	 * @param locale the desired locale.
+	 * @return a date/time pattern, or <code>null</code> if no pattern is
+	 *     available.
+	 * @throws IllegalArgumentException if <code>dateStyle</code> or
+	 *     <code>timeStyle</code> is invalid, or if <code>locale</code> isn't
+	 *     available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	public String getPattern(final int dateStyle, final int timeStyle, final Locale locale)
+			throws IllegalArgumentException, NullPointerException {
+		String pattern;
+		if (isSharingPatterns()) {
+			pattern = getPattern(getPatternTable(locale), dateStyle, timeStyle);
+		} else {
+			pattern = composePattern(dateStyle, timeStyle, locale);
+		}
+
+		return pattern;
+	}
 
-		String format = getDateTimeFormatString("TimeFormat", style, locale);
-		if (format != null) {
-			dateFormat = new SimpleDateFormat(format, locale);
+	/**
+	 * Returns a new <code>DateFormat</code> instance with the given formatting
+	 * styles for the specified locale.
+	 *
+	 * @param dateStyle the given date formatting style, or {@link #NONE}.
+	 * @param timeStyle the given time formatting style, or {@link #NONE}.
+	 * @param locale the desired locale.
+	 * @return a date/time formatter, or <code>null</code> if no pattern is
+	 *     available.
+	 * @throws IllegalArgumentException if <code>dateStyle</code> or
+	 *     <code>timeStyle</code> is invalid, or if <code>locale</code> isn't
+	 *     available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	protected DateFormat getInstance(final int dateStyle, final int timeStyle, final Locale locale)
+			throws IllegalArgumentException, NullPointerException {
+		DateFormat dateFormat = null;
+		if (!isSharingPatterns()) {
+			String pattern = composePattern(dateStyle, timeStyle, locale);
+			if (pattern != null) {
+				dateFormat = new SimpleDateFormat(pattern, locale);
+			}
+		} else {
+			PatternTable table = getPatternTable(locale);
+			String pattern = getPattern(table, dateStyle, timeStyle);
+			if (pattern == null) {
+				dateFormat = null;
+			} else if (!locale.equals(table.locale)) {
+				// The country and the extensions such as the calendar type affect the
+				// calendar, so only the supported locales themselves share the prototypes.
+				dateFormat = new SimpleDateFormat(pattern, locale);
+			} else {
+				int index = getIndex(dateStyle, timeStyle);
+				SimpleDateFormat prototype = table.prototypes.get(index);
+				if (prototype == null) {
+					prototype = new SimpleDateFormat(pattern, table.locale);
+					if (!table.prototypes.compareAndSet(index, null, prototype)) {
+						prototype = table.prototypes.get(index);
+					}
+				}
+				dateFormat = (DateFormat) prototype.clone();
+				dateFormat.setTimeZone(TimeZone.getDefault());
+			}
 		}
 
 		return dateFormat;
 	}
 
+	/**
+	 * Returns whether this provider shares the cached patterns and formatters. A
+	 * subclass may override {@link #getDateTimeFormatString(String, int, Locale)},
+	 * so that its patterns are composed for each call with the caller's locale.
+	 *
+	 * @return <code>true</code> if this provider is of this class itself.
+	 */
+	private boolean isSharingPatterns() {
+		return getClass() == DateFormatProviderImpl.class;
+	}
+
+	/**
+	 * Returns the table of the date/time patterns for the specified locale.
+	 *
+	 * @param locale the desired locale.
+	 * @return the table of the date/time patterns.
+	 * @throws IllegalArgumentException if <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	private static PatternTable getPatternTable(final Locale locale) throws IllegalArgumentException,
+			NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		Locale targetLocale = ExtLocalesUtil.resolveLocale(locale);
+		if (targetLocale == null) {
+			throw new IllegalArgumentException("locale:" + locale.toString());
+		}
+
+		PatternTable table = TABLES.get(targetLocale);
+		if (table == null) {
+			table = new PatternTable(targetLocale);
+			PatternTable current = TABLES.putIfAbsent(targetLocale, table);
+			if (current != null) {
+				table = current;
+			}
+		}
+
+		return table;
+	}
+
+	/**
+	 * Returns the date/time pattern with the given formatting styles from a table,
+	 * which is composed on the first use, so that a broken pattern affects only
+	 * its own styles.
+	 *
+	 * @param table the table of the date/time patterns.
+	 * @param dateStyle the given date formatting style, or {@link #NONE}.
+	 * @param timeStyle the given time formatting style, or {@link #NONE}.
+	 * @return a date/time pattern, or <code>null</code> if no pattern is
+	 *     available.
+	 * @throws IllegalArgumentException if <code>dateStyle</code> or
+	 *     <code>timeStyle</code> is invalid.
+	 */
+	private String getPattern(final PatternTable table, final int dateStyle, final int timeStyle)
+			throws IllegalArgumentException {
+		int index = getIndex(dateStyle, timeStyle);
+		String pattern = table.patterns.get(index);
+		if (pattern == null) {
+			pattern = composePattern(dateStyle, timeStyle, table.locale);
+			if (pattern != null && !table.patterns.compareAndSet(index, null, pattern)) {
+				pattern = table.patterns.get(index);
+			}
+		}
+
+		return pattern;
+	}
+
+	/**
+	 * Composes the date/time pattern with the given formatting styles from the
+	 * patterns of {@link #getDateTimeFormatString(String, int, Locale)}.
+	 *
+	 * @param dateStyle the given date formatting style, or {@link #NONE}.
+	 * @param timeStyle the given time formatting style, or {@link #NONE}.
+	 * @param locale the desired locale.
+	 * @return a date/time pattern, or <code>null</code> if no pattern is
+	 *     available.
+	 * @throws IllegalArgumentException if <code>dateStyle</code> or
+	 *     <code>timeStyle</code> is invalid, or if <code>locale</code> isn't
+	 *     available.
+	 * @throws NullPointerException if <code>locale</code> is <code>null</code>.
+	 */
+	private String composePattern(final int dateStyle, final int timeStyle, final Locale locale)
+			throws IllegalArgumentException, NullPointerException {
+		getIndex(dateStyle, timeStyle);
+
+		String pattern;
+		if (timeStyle == NONE) {
+			pattern = getDateTimeFormatString("DateFormat", dateStyle, locale);
+		} else if (dateStyle == NONE) {
+			pattern = getDateTimeFormatString("TimeFormat", timeStyle, locale);
+		} else {
+			String format = getDateTimeFormatString("DateTimeFormat", dateStyle, locale);
+			if (format != null) {
+				pattern = MessageFormat.format(format, getDateTimeFormatString("DateFormat", dateStyle, locale),
+						getDateTimeFormatString("TimeFormat", timeStyle, locale));
+			} else {
+				pattern = null;
+			}
+		}
+
+		return pattern;
+	}
+
+	/**
+	 * Returns the index within the table of the date/time patterns.
+	 *
+	 * @param dateStyle the given date formatting style, or {@link #NONE}.
+	 * @param timeStyle the given time formatting style, or {@link #NONE}.
+	 * @return the index within the table.
+	 * @throws IllegalArgumentException if <code>dateStyle</code> or
+	 *     <code>timeStyle</code> is invalid, or if both are {@link #NONE}.
+	 */
+	private static int getIndex(final int dateStyle, final int timeStyle) throws IllegalArgumentException {
+		if (dateStyle < NONE || dateStyle > DateFormat.SHORT) {
+			throw new IllegalArgumentException("style:" + dateStyle);
+		} else if (timeStyle < NONE || timeStyle > DateFormat.SHORT || (dateStyle == NONE && timeStyle == NONE)) {
+			throw new IllegalArgumentException("style:" + timeStyle);
+		}
+
+		return (dateStyle + 1) * STYLE_COUNT + (timeStyle + 1);
+	}
+
 	/**
 	 * Returns a date/time pattern with the given formatting style for the specified
-	 * locale.
+	 * locale. The patterns of a subclass overriding this method are neither cached
+	 * nor shared with the other instances.
 	 *
 	 * @param prefix the prefix for the property key.
 	 * @param style the given date/time formatting style.
@@ -91,7 +300,7 @@ public class DateFormatProviderImpl extends DateFormatProvider {
 			throws IllegalArgumentException, NullPointerException {
 		if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
+		} else if (!ExtLocalesUtil.isSupportedLocale(locale)) {
 			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
@@ -113,6 +322,39 @@ public class DateFormatProviderImpl extends DateFormatProvider {
 			throw new IllegalArgumentException("style:" + style);
 		}
 
-		return ExtLocalesUtil.getString(key, locale);
+		return ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.CALENDAR).getString(key);
+	}
+
+	/**
+	 * A table of the date/time patterns and the formatters for a locale, indexed
+	 * by the combination of the date and time formatting styles.
+	 */
+	private static final class PatternTable {
+
+		/**
+		 * The locale of the patterns.
+		 */
+		private final Locale locale;
+
+		/**
+		 * The date/time patterns, which are composed on the first use.
+		 */
+		private final AtomicReferenceArray<String> patterns = new AtomicReferenceArray<String>(STYLE_COUNT
+				* STYLE_COUNT);
+
+		/**
+		 * The formatters which are never handed out but cloned.
+		 */
+		private final AtomicReferenceArray<SimpleDateFormat> prototypes =
+				new AtomicReferenceArray<SimpleDateFormat>(STYLE_COUNT * STYLE_COUNT);
+
+		/**
+		 * Constructs an empty table for the specified locale.
+		 *
+		 * @param locale the locale of the patterns.
+		 */
+		PatternTable(final Locale locale) {
+			this.locale = locale;
+		}
 	}
 }
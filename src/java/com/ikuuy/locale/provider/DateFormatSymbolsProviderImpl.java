@@ -2,9 +2,17 @@ package com.ikuuy.locale.provider;
 
 import java.text.DateFormatSymbols;
 import java.text.spi.DateFormatSymbolsProvider;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.LocaleData;
+import com.ikuuy.locale.util.LocaleDataSection;
+import com.ikuuy.locale.util.TimeZoneNames;
 
 /**
  * An implementation class for {@link DateFormatSymbolsProvider} which provides a
@@ -15,6 +23,32 @@ import com.ikuuy.locale.util.ExtLocalesUtil;
  */
 public class DateFormatSymbolsProviderImpl extends DateFormatSymbolsProvider {
 
+	/**
+	 * A cache of the fully built symbols for each locale, which are never handed
+	 * out but cloned.
+	 */
+	private static final ConcurrentMap<Locale, DateFormatSymbols> PROTOTYPES =
+			new ConcurrentHashMap<Locale, DateFormatSymbols>();
+
+	/**
+	 * A flag whether the zone strings are filled in only when they are needed.
+	 */
+	private static final boolean LAZY_ZONE_STRINGS =
+			ExtLocalesUtil.getConfigBoolean("DateFormatSymbols.lazyZoneStrings", false);
+
+	/**
+	 * A cache of the localized zone strings for each locale, which are shared and
+	 * never modified.
+	 */
+	private static final ConcurrentMap<Locale, String[][]> ZONE_STRINGS = new ConcurrentHashMap<Locale, String[][]>();
+
+	/**
+	 * A cache of the rows of the zone strings for each locale, keyed by the time
+	 * zone IDs.
+	 */
+	private static final ConcurrentMap<Locale, Map<String, String[]>> ZONE_NAMES =
+			new ConcurrentHashMap<Locale, Map<String, String[]>>();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -23,6 +57,17 @@ public class DateFormatSymbolsProviderImpl extends DateFormatSymbolsProvider {
 		return ExtLocalesUtil.getAvailableLocales();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isSupportedLocale(final Locale locale) throws NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		return ExtLocalesUtil.isSupportedLocale(locale);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -30,87 +75,232 @@ public class DateFormatSymbolsProviderImpl extends DateFormatSymbolsProvider {
 	public DateFormatSymbols getInstance(final Locale locale) throws IllegalArgumentException, NullPointerException {
 		if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
+		} else if (!ExtLocalesUtil.isSupportedLocale(locale)) {
 			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
-		DateFormatSymbols symbols = DateFormatSymbols.getInstance(Locale.ROOT);
+		Locale targetLocale = ExtLocalesUtil.resolveLocale(locale);
+		DateFormatSymbols prototype = PROTOTYPES.get(targetLocale);
+		if (prototype == null) {
+			prototype = createInstance(targetLocale);
+			DateFormatSymbols current = PROTOTYPES.putIfAbsent(targetLocale, prototype);
+			if (current != null) {
+				prototype = current;
+			}
+		}
+
+		return (DateFormatSymbols) prototype.clone();
+	}
+
+	/**
+	 * Returns a new <code>DateFormatSymbols</code> instance built from the resource
+	 * bundle for the specified locale.
+	 *
+	 * @param locale the desired locale.
+	 * @return a date format symbols.
+	 */
+	static DateFormatSymbols createInstance(final Locale locale) {
+		LocaleData data = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.CALENDAR);
+		boolean zoneNames = ExtLocalesUtil.isSupportedTimeZoneNameLocale(locale);
+		DateFormatSymbols symbols;
+		if (LAZY_ZONE_STRINGS && zoneNames) {
+			symbols = new LazyZoneStringsDateFormatSymbols(locale);
+		} else {
+			symbols = DateFormatSymbols.getInstance(Locale.ROOT);
+		}
 		symbols.setEras(new String[] {
-				ExtLocalesUtil.getString("Eras.BC", locale),
-				ExtLocalesUtil.getString("Eras.AD", locale) });
+				data.getString("Eras.BC"),
+				data.getString("Eras.AD") });
 		symbols.setMonths(new String[] {
-				ExtLocalesUtil.getString("Months.JAN", locale),
-				ExtLocalesUtil.getString("Months.FEB", locale),
-				ExtLocalesUtil.getString("Months.MAR", locale),
-				ExtLocalesUtil.getString("Months.APR", locale),
-				ExtLocalesUtil.getString("Months.MAY", locale),
-				ExtLocalesUtil.getString("Months.JUN", locale),
-				ExtLocalesUtil.getString("Months.JUL", locale),
-				ExtLocalesUtil.getString("Months.AUG", locale),
-				ExtLocalesUtil.getString("Months.SEP", locale),
-				ExtLocalesUtil.getString("Months.OCT", locale),
-				ExtLocalesUtil.getString("Months.NOV", locale),
-				ExtLocalesUtil.getString("Months.DEC", locale) });
+				data.getString("Months.JAN"),
+				data.getString("Months.FEB"),
+				data.getString("Months.MAR"),
+				data.getString("Months.APR"),
+				data.getString("Months.MAY"),
+				data.getString("Months.JUN"),
+				data.getString("Months.JUL"),
+				data.getString("Months.AUG"),
+				data.getString("Months.SEP"),
+				data.getString("Months.OCT"),
+				data.getString("Months.NOV"),
+				data.getString("Months.DEC") });
 		symbols.setShortMonths(new String[] {
-				ExtLocalesUtil.getString("ShortMonths.JAN", locale),
-				ExtLocalesUtil.getString("ShortMonths.FEB", locale),
-				ExtLocalesUtil.getString("ShortMonths.MAR", locale),
-				ExtLocalesUtil.getString("ShortMonths.APR", locale),
-				ExtLocalesUtil.getString("ShortMonths.MAY", locale),
-				ExtLocalesUtil.getString("ShortMonths.JUN", locale),
-				ExtLocalesUtil.getString("ShortMonths.JUL", locale),
-				ExtLocalesUtil.getString("ShortMonths.AUG", locale),
-				ExtLocalesUtil.getString("ShortMonths.SEP", locale),
-				ExtLocalesUtil.getString("ShortMonths.OCT", locale),
-				ExtLocalesUtil.getString("ShortMonths.NOV", locale),
-				ExtLocalesUtil.getString("ShortMonths.DEC", locale) });
+				data.getString("ShortMonths.JAN"),
+				data.getString("ShortMonths.FEB"),
+				data.getString("ShortMonths.MAR"),
+				data.getString("ShortMonths.APR"),
+				data.getString("ShortMonths.MAY"),
+				data.getString("ShortMonths.JUN"),
+				data.getString("ShortMonths.JUL"),
+				data.getString("ShortMonths.AUG"),
+				data.getString("ShortMonths.SEP"),
+				data.getString("ShortMonths.OCT"),
+				data.getString("ShortMonths.NOV"),
+				data.getString("ShortMonths.DEC") });
 		symbols.setWeekdays(new String[] {"",
-				ExtLocalesUtil.getString("Weekdays.SUN", locale),
-				ExtLocalesUtil.getString("Weekdays.MON", locale),
-				ExtLocalesUtil.getString("Weekdays.TUE", locale),
-				ExtLocalesUtil.getString("Weekdays.WED", locale),
-				ExtLocalesUtil.getString("Weekdays.THU", locale),
-				ExtLocalesUtil.getString("Weekdays.FRI", locale),
-				ExtLocalesUtil.getString("Weekdays.SAT", locale) });
+				data.getString("Weekdays.SUN"),
+				data.getString("Weekdays.MON"),
+				data.getString("Weekdays.TUE"),
+				data.getString("Weekdays.WED"),
+				data.getString("Weekdays.THU"),
+				data.getString("Weekdays.FRI"),
+				data.getString("Weekdays.SAT") });
 		symbols.setShortWeekdays(new String[] {"",
-				ExtLocalesUtil.getString("ShortWeekdays.SUN", locale),
-				ExtLocalesUtil.getString("ShortWeekdays.MON", locale),
-				ExtLocalesUtil.getString("ShortWeekdays.TUE", locale),
-				ExtLocalesUtil.getString("ShortWeekdays.WED", locale),
-				ExtLocalesUtil.getString("ShortWeekdays.THU", locale),
-				ExtLocalesUtil.getString("ShortWeekdays.FRI", locale),
-				ExtLocalesUtil.getString("ShortWeekdays.SAT", locale) });
+				data.getString("ShortWeekdays.SUN"),
+				data.getString("ShortWeekdays.MON"),
+				data.getString("ShortWeekdays.TUE"),
+				data.getString("ShortWeekdays.WED"),
+				data.getString("ShortWeekdays.THU"),
+				data.getString("ShortWeekdays.FRI"),
+				data.getString("ShortWeekdays.SAT") });
 		symbols.setAmPmStrings(new String[] {
-				ExtLocalesUtil.getString("AmPmStrings.AM", locale),
-				ExtLocalesUtil.getString("AmPmStrings.PM", locale) });
-		symbols.setLocalPatternChars(ExtLocalesUtil.getString(
-				"LocalPatternChars", locale));
-
-		if (ExtLocalesUtil.isAvailableLocale(locale, ExtLocalesUtil.getAvailableTimeZoneNameLocales())) {
-			String prefix = "ZoneStrings";
-			String[][] zoneStrings = symbols.getZoneStrings();
-			for (String[] values : zoneStrings) {
-				String zoneId = values[0];
-				String key = prefix + "." + zoneId + ".STANDARD.LONG";
-				if (ExtLocalesUtil.containsKey(key, locale, true)) {
-					values[1] = ExtLocalesUtil.getString(key, locale, true);
-				}
-				key = prefix + "." + zoneId + ".STANDARD.SHORT";
-				if (ExtLocalesUtil.containsKey(key, locale, true)) {
-					values[2] = ExtLocalesUtil.getString(key, locale, true);
-				}
-				key = prefix + "." + zoneId + ".DAYLIGHT.LONG";
-				if (ExtLocalesUtil.containsKey(key, locale, true)) {
-					values[3] = ExtLocalesUtil.getString(key, locale, true);
+				data.getString("AmPmStrings.AM"),
+				data.getString("AmPmStrings.PM") });
+		symbols.setLocalPatternChars(data.getString(
+				"LocalPatternChars"));
+
+		if (!LAZY_ZONE_STRINGS && zoneNames) {
+			symbols.setZoneStrings(getZoneStrings(locale));
+		}
+
+		return symbols;
+	}
+
+	/**
+	 * Returns the name of the time zone which {@link java.text.SimpleDateFormat}
+	 * formats with the symbols for the specified locale. For the locales with time
+	 * zone names, it is the name in the zone strings, which are the names of the
+	 * root locale overridden by the locale data. For the other locales, it is the
+	 * display name of the time zone in the root locale.
+	 *
+	 * @param ID a time zone ID.
+	 * @param daylight <code>true</code> for the daylight saving name;
+	 *     <code>false</code> for the standard name.
+	 * @param style either <code>TimeZone.LONG</code> or <code>TimeZone.SHORT</code>.
+	 * @param locale the desired locale.
+	 * @return the name of the time zone, or <code>null</code> if the time zone is
+	 *     formatted as its GMT offset, such as <code>GMT+03:30</code>.
+	 * @throws IllegalArgumentException if <code>style</code> is invalid, or if
+	 *     <code>locale</code> isn't available.
+	 * @throws NullPointerException if <code>ID</code> or <code>locale</code> is
+	 *     <code>null</code>.
+	 */
+	public String getZoneName(final String ID, final boolean daylight, final int style, final Locale locale)
+			throws IllegalArgumentException, NullPointerException {
+		if (ID == null) {
+			throw new NullPointerException("ID:null");
+		} else if (locale == null) {
+			throw new NullPointerException("locale:null");
+		} else if (!ExtLocalesUtil.isSupportedLocale(locale)) {
+			throw new IllegalArgumentException("locale:" + locale.toString());
+		}
+
+		int index;
+		if (style == TimeZone.SHORT) {
+			index = daylight ? TimeZoneNames.DAYLIGHT_SHORT : TimeZoneNames.STANDARD_SHORT;
+		} else if (style == TimeZone.LONG) {
+			index = daylight ? TimeZoneNames.DAYLIGHT_LONG : TimeZoneNames.STANDARD_LONG;
+		} else {
+			throw new IllegalArgumentException("style:" + style);
+		}
+
+		Locale targetLocale = ExtLocalesUtil.resolveTimeZoneNameLocale(locale);
+		if (targetLocale == null) {
+			targetLocale = Locale.ROOT;
+		}
+
+		Map<String, String[]> zoneNames = ZONE_NAMES.get(targetLocale);
+		if (zoneNames == null) {
+			zoneNames = createZoneNames(targetLocale);
+			Map<String, String[]> current = ZONE_NAMES.putIfAbsent(targetLocale, zoneNames);
+			if (current != null) {
+				zoneNames = current;
+			}
+		}
+
+		String[] values = zoneNames.get(ID);
+		return values != null ? values[index + 1] : null;
+	}
+
+	/**
+	 * Returns a new map from a time zone ID to the row of the zone strings, in the
+	 * same way as {@link java.text.SimpleDateFormat} finds the names.
+	 *
+	 * @param targetLocale the locale of the time zone names, or the root locale.
+	 * @return the rows of the zone strings.
+	 */
+	private static Map<String, String[]> createZoneNames(final Locale targetLocale) {
+		Map<String, String[]> zoneNames = new HashMap<String, String[]>();
+		if (targetLocale != Locale.ROOT) {
+			for (String[] values : getZoneStrings(targetLocale)) {
+				// SimpleDateFormat uses the first row for a time zone ID.
+				if (!zoneNames.containsKey(values[0])) {
+					zoneNames.put(values[0], values);
 				}
-				key = prefix + "." + zoneId + ".DAYLIGHT.SHORT";
-				if (ExtLocalesUtil.containsKey(key, locale, true)) {
-					values[4] = ExtLocalesUtil.getString(key, locale, true);
+			}
+		} else {
+			// Without the zone strings, SimpleDateFormat uses the display names of the
+			// symbols' locale, which is the root locale.
+			for (String id : TimeZone.getAvailableIDs()) {
+				TimeZone zone = TimeZone.getTimeZone(id);
+				zoneNames.put(id, new String[] { id, zone.getDisplayName(false, TimeZone.LONG, Locale.ROOT),
+						zone.getDisplayName(false, TimeZone.SHORT, Locale.ROOT),
+						zone.getDisplayName(true, TimeZone.LONG, Locale.ROOT),
+						zone.getDisplayName(true, TimeZone.SHORT, Locale.ROOT) });
+			}
+		}
+
+		return zoneNames;
+	}
+
+	/**
+	 * Returns the localized zone strings for the specified locale. The returned
+	 * array is shared and must not be modified.
+	 *
+	 * @param locale the desired locale.
+	 * @return the zone strings.
+	 */
+	static String[][] getZoneStrings(final Locale locale) {
+		Locale targetLocale = ExtLocalesUtil.resolveTimeZoneNameLocale(locale);
+		if (targetLocale == null) {
+			targetLocale = Locale.ROOT;
+		}
+
+		String[][] zoneStrings = ZONE_STRINGS.get(targetLocale);
+		if (zoneStrings == null) {
+			zoneStrings = createZoneStrings(targetLocale);
+			String[][] current = ZONE_STRINGS.putIfAbsent(targetLocale, zoneStrings);
+			if (current != null) {
+				zoneStrings = current;
+			}
+		}
+
+		return zoneStrings;
+	}
+
+	/**
+	 * Returns new zone strings for the specified locale, which are the names of
+	 * the root locale overridden by the locale data.
+	 *
+	 * @param targetLocale the locale of the time zone names, or the root locale.
+	 * @return the zone strings.
+	 */
+	static String[][] createZoneStrings(final Locale targetLocale) {
+		String[][] zoneStrings = DateFormatSymbols.getInstance(Locale.ROOT).getZoneStrings();
+		if (targetLocale != Locale.ROOT) {
+			TimeZoneNames names = ExtLocalesUtil.getTimeZoneNames(targetLocale);
+			for (String[] values : zoneStrings) {
+				String[] record = names.getNames(values[0]);
+				if (record != null) {
+					for (int i = TimeZoneNames.STANDARD_LONG; i <= TimeZoneNames.DAYLIGHT_SHORT; i++) {
+						if (record[i] != null) {
+							values[i + 1] = record[i];
+						}
+					}
 				}
 			}
-			symbols.setZoneStrings(zoneStrings);
 		}
 
-		return symbols;
+		return zoneStrings;
 	}
 }
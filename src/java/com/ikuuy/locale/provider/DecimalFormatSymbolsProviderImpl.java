@@ -3,8 +3,12 @@ package com.ikuuy.locale.provider;
 import java.text.DecimalFormatSymbols;
 import java.text.spi.DecimalFormatSymbolsProvider;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.LocaleData;
+import com.ikuuy.locale.util.LocaleDataSection;
 
 /**
  * An implementation class for {@link DecimalFormatSymbolsProvider} which provides
@@ -15,6 +19,13 @@ import com.ikuuy.locale.util.ExtLocalesUtil;
  */
 public class DecimalFormatSymbolsProviderImpl extends DecimalFormatSymbolsProvider {
 
+	/**
+	 * A cache of the fully built symbols for each locale, which are never handed
+	 * out but cloned.
+	 */
+	private static final ConcurrentMap<Locale, DecimalFormatSymbols> PROTOTYPES =
+			new ConcurrentHashMap<Locale, DecimalFormatSymbols>();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -23,6 +34,17 @@ public class DecimalFormatSymbolsProviderImpl extends DecimalFormatSymbolsProvid
 		return ExtLocalesUtil.getAvailableLocales();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isSupportedLocale(final Locale locale) throws NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		return ExtLocalesUtil.isSupportedLocale(locale);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -30,39 +52,61 @@ public class DecimalFormatSymbolsProviderImpl extends DecimalFormatSymbolsProvid
 	public DecimalFormatSymbols getInstance(final Locale locale) throws IllegalArgumentException, NullPointerException {
 		if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
+		} else if (!ExtLocalesUtil.isSupportedLocale(locale)) {
 			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
+		Locale targetLocale = ExtLocalesUtil.resolveLocale(locale);
+		DecimalFormatSymbols prototype = PROTOTYPES.get(targetLocale);
+		if (prototype == null) {
+			prototype = createInstance(targetLocale);
+			DecimalFormatSymbols current = PROTOTYPES.putIfAbsent(targetLocale, prototype);
+			if (current != null) {
+				prototype = current;
+			}
+		}
+
+		return (DecimalFormatSymbols) prototype.clone();
+	}
+
+	/**
+	 * Returns a new <code>DecimalFormatSymbols</code> instance built from the
+	 * resource bundle for the specified locale.
+	 *
+	 * @param locale the desired locale.
+	 * @return a decimal format symbols.
+	 */
+	private static DecimalFormatSymbols createInstance(final Locale locale) {
+		LocaleData data = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.SYMBOLS);
 		DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.ROOT);
 		symbols.setDecimalSeparator(
-				ExtLocalesUtil.getChar("DecimalSeparator", locale));
+				data.getChar("DecimalSeparator"));
 		symbols.setDigit(
-				ExtLocalesUtil.getChar("Digit", locale));
+				data.getChar("Digit"));
 		symbols.setExponentSeparator(
-				ExtLocalesUtil.getString("ExponentSeparator", locale));
+				data.getString("ExponentSeparator"));
 		symbols.setGroupingSeparator(
-				ExtLocalesUtil.getChar("GroupingSeparator", locale));
+				data.getChar("GroupingSeparator"));
 		symbols.setInfinity(
-				ExtLocalesUtil.getString("Infinity", locale));
+				data.getString("Infinity"));
 		symbols.setInternationalCurrencySymbol(
-				ExtLocalesUtil.getString("InternationalCurrencySymbol", locale));
+				data.getString("InternationalCurrencySymbol"));
 		symbols.setCurrencySymbol(
-				ExtLocalesUtil.getString("CurrencySymbol", locale));
+				data.getString("CurrencySymbol"));
 		symbols.setMinusSign(
-				ExtLocalesUtil.getChar("MinusSign", locale));
+				data.getChar("MinusSign"));
 		symbols.setMonetaryDecimalSeparator(
-				ExtLocalesUtil.getChar("MonetaryDecimalSeparator", locale));
+				data.getChar("MonetaryDecimalSeparator"));
 		symbols.setNaN(
-				ExtLocalesUtil.getString("NaN", locale));
+				data.getString("NaN"));
 		symbols.setPatternSeparator(
-				ExtLocalesUtil.getChar("PatternSeparator", locale));
+				data.getChar("PatternSeparator"));
 		symbols.setPercent(
-				ExtLocalesUtil.getChar("Percent", locale));
+				data.getChar("Percent"));
 		symbols.setPerMill(
-				ExtLocalesUtil.getChar("PerMill", locale));
+				data.getChar("PerMill"));
 		symbols.setZeroDigit(
-				ExtLocalesUtil.getChar("ZeroDigit", locale));
+				data.getChar("ZeroDigit"));
 
 		return symbols;
 	}
@@ -0,0 +1,127 @@
+package com.ikuuy.locale.provider;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+
+/**
+ * A {@link DateFormatSymbols} which fills in the localized zone strings only
+ * when they are actually needed. The symbols are marked as having the zone
+ * strings set from the beginning, so that {@link java.text.SimpleDateFormat}
+ * formats and parses the time zone names through {@link #getZoneStrings()} with
+ * the same names as the symbols filled in eagerly, rather than through
+ * {@link java.util.TimeZone#getDisplayName(boolean, int, Locale)}.
+ * <p>
+ * <code>SimpleDateFormat</code> calls {@link #getZoneStrings()} of a subclass
+ * for every time zone name it formats or parses, so the zone strings are copied
+ * from the shared ones once on the first call and then returned without being
+ * copied again. A clone starts without the zone strings unless they are set
+ * explicitly, so that only the symbols which actually use them keep a copy.
+ *
+ * @author Yuki Yamada
+ *
+ */
+final class LazyZoneStringsDateFormatSymbols extends DateFormatSymbols {
+
+	/**
+	 * The serial version UID.
+	 */
+	private static final long serialVersionUID = 3510375063632539372L;
+
+	/**
+	 * The empty zone strings set in the superclass, which only mark the zone
+	 * strings as set.
+	 */
+	private static final String[][] NO_ZONE_STRINGS = new String[0][];
+
+	/**
+	 * The locale of the zone strings.
+	 */
+	private final Locale zoneStringsLocale;
+
+	/**
+	 * The zone strings of this symbols, or <code>null</code> until they are
+	 * filled in or set.
+	 */
+	private String[][] zoneStrings;
+
+	/**
+	 * A flag whether the zone strings are set explicitly.
+	 */
+	private boolean zoneStringsSet;
+
+	/**
+	 * Constructs a symbols of the root locale whose zone strings are filled in for
+	 * the specified locale on demand.
+	 *
+	 * @param locale the locale of the zone strings.
+	 */
+	LazyZoneStringsDateFormatSymbols(final Locale locale) {
+		super(Locale.ROOT);
+		this.zoneStringsLocale = locale;
+		super.setZoneStrings(NO_ZONE_STRINGS);
+	}
+
+	/**
+	 * Returns the zone strings of this symbols. Unlike the superclass, the
+	 * returned array isn't a copy, so that <code>SimpleDateFormat</code> can look
+	 * up the names without copying the zone strings on each call.
+	 *
+	 * @return the zone strings.
+	 */
+	@Override
+	public String[][] getZoneStrings() {
+		if (zoneStrings == null) {
+			zoneStrings = copyOf(DateFormatSymbolsProviderImpl.getZoneStrings(zoneStringsLocale));
+		}
+
+		return zoneStrings;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setZoneStrings(final String[][] newZoneStrings) {
+		String[][] aCopy = copyOf(newZoneStrings);
+		// Clears the cached hash code of the superclass.
+		super.setZoneStrings(NO_ZONE_STRINGS);
+		zoneStrings = aCopy;
+		zoneStringsSet = true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object clone() {
+		LazyZoneStringsDateFormatSymbols other = (LazyZoneStringsDateFormatSymbols) super.clone();
+		other.zoneStrings = zoneStringsSet ? copyOf(zoneStrings) : null;
+
+		return other;
+	}
+
+	/**
+	 * Returns a deep copy of the zone strings.
+	 *
+	 * @param zoneStrings the zone strings.
+	 * @return the copy of the zone strings.
+	 * @throws IllegalArgumentException if the length of any row is less than 5.
+	 * @throws NullPointerException if <code>zoneStrings</code> is <code>null</code>.
+	 */
+	private static String[][] copyOf(final String[][] zoneStrings) throws IllegalArgumentException,
+			NullPointerException {
+		if (zoneStrings == null) {
+			throw new NullPointerException("zoneStrings:null");
+		}
+
+		String[][] aCopy = new String[zoneStrings.length][];
+		for (int i = 0; i < zoneStrings.length; i++) {
+			if (zoneStrings[i].length < 5) {
+				throw new IllegalArgumentException("zoneStrings[" + i + "].length:" + zoneStrings[i].length);
+			}
+			aCopy[i] = zoneStrings[i].clone();
+		}
+
+		return aCopy;
+	}
+}
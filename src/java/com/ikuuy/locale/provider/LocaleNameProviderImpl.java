@@ -4,6 +4,9 @@ import java.util.Locale;
 import java.util.spi.LocaleNameProvider;
 
 import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.KeyTable;
+import com.ikuuy.locale.util.LocaleData;
+import com.ikuuy.locale.util.LocaleDataSection;
 
 /**
  * An implementation class for {@link LocaleNameProvider} which provides localized
@@ -14,16 +17,68 @@ import com.ikuuy.locale.util.ExtLocalesUtil;
  */
 public class LocaleNameProviderImpl extends LocaleNameProvider {
 
+	/**
+	 * An array of all available locales including the root locale.
+	 */
+	private static final Locale[] AVAILABLE_LOCALES;
+
+	/**
+	 * A table of the property keys for the country codes.
+	 */
+	private static final KeyTable COUNTRY_KEYS = new KeyTable("Country.", "");
+
+	/**
+	 * A table of the property keys for the language codes.
+	 */
+	private static final KeyTable LANGUAGE_KEYS = new KeyTable("Language.", "");
+
+	/**
+	 * A table of the property keys for the script codes.
+	 */
+	private static final KeyTable SCRIPT_KEYS = new KeyTable("Script.", "");
+
+	/**
+	 * A table of the property keys for the variants.
+	 */
+	private static final KeyTable VARIANT_KEYS = new KeyTable("Variant.", "");
+
+	static {
+		Locale[] locales = ExtLocalesUtil.getAvailableLocales();
+		AVAILABLE_LOCALES = new Locale[locales.length + 1];
+		AVAILABLE_LOCALES[0] = Locale.ROOT;
+		System.arraycopy(locales, 0, AVAILABLE_LOCALES, 1, locales.length);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public Locale[] getAvailableLocales() {
-		Locale[] locales = ExtLocalesUtil.getAvailableLocales();
-		Locale[] availableLocales = new Locale[locales.length + 1];
-		availableLocales[0] = Locale.ROOT;
-		System.arraycopy(locales, 0, availableLocales, 1, locales.length);
-		return availableLocales;
+		return AVAILABLE_LOCALES.clone();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isSupportedLocale(final Locale locale) throws NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		return ExtLocalesUtil.isSupportedLocale(locale) || isRootLocale(locale);
+	}
+
+	/**
+	 * Determines whether the given <code>locale</code> is the root locale
+	 * regardless of its extensions.
+	 *
+	 * @param locale possible locale.
+	 * @return <code>true</code> if the given <code>locale</code> is the root
+	 *     locale; <code>false</code> otherwise.
+	 */
+	private static boolean isRootLocale(final Locale locale) {
+		return locale.getLanguage().isEmpty() && locale.getScript().isEmpty() && locale.getCountry().isEmpty()
+				&& locale.getVariant().isEmpty();
 	}
 
 	/**
@@ -34,22 +89,19 @@ public class LocaleNameProviderImpl extends LocaleNameProvider {
 			NullPointerException {
 		if (countryCode == null) {
 			throw new NullPointerException("countryCode:null");
-		} else if (!countryCode.matches("^[A-Z]{2}$") && !countryCode.matches("^[0-9]{3}$")) {
+		} else if (!ExtLocalesUtil.consistsOf(countryCode, 2, 2, 'A', 'Z')
+				&& !ExtLocalesUtil.consistsOf(countryCode, 3, 3, '0', '9')) {
 			// The country code string should be in the form of two upper-case letters
 			// or three digit letters.
 			throw new IllegalArgumentException("countryCode:" + countryCode);
 		} else if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
-			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
-		String displayCountry = null;
-		String key = "Country." + countryCode;
+		String key = COUNTRY_KEYS.getKey(countryCode);
 
-		if (ExtLocalesUtil.containsKey(key, locale)) {
-			displayCountry = ExtLocalesUtil.getString(key, locale);
-		}
+		LocaleData data = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.LOCALE_NAMES);
+		String displayCountry = data.findString(key);
 
 		return displayCountry;
 	}
@@ -62,22 +114,18 @@ public class LocaleNameProviderImpl extends LocaleNameProvider {
 			NullPointerException {
 		if (languageCode == null) {
 			throw new NullPointerException("languageCode:null");
-		} else if (!languageCode.matches("^[a-z]{2,8}$")) {
+		} else if (!ExtLocalesUtil.consistsOf(languageCode, 2, 8, 'a', 'z')) {
 			// The language code string should be in the form of
 			// two to eight lower-case letters.
 			throw new IllegalArgumentException("languageCode:" + languageCode);
 		} else if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
-			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
-		String displayLanguage = null;
-		String key = "Language." + languageCode;
+		String key = LANGUAGE_KEYS.getKey(languageCode);
 
-		if (ExtLocalesUtil.containsKey(key, locale)) {
-			displayLanguage = ExtLocalesUtil.getString(key, locale);
-		}
+		LocaleData data = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.LOCALE_NAMES);
+		String displayLanguage = data.findString(key);
 
 		return displayLanguage;
 	}
@@ -90,21 +138,17 @@ public class LocaleNameProviderImpl extends LocaleNameProvider {
 			NullPointerException {
 		if (scriptCode == null) {
 			throw new NullPointerException("scriptCode:null");
-		} else if (!scriptCode.matches("^[A-Z][a-z]{3}$")) {
+		} else if (scriptCode.length() != 4 || !ExtLocalesUtil.isScriptCode(scriptCode)) {
 			// The script code string should be in the form of four title case letters.
 			throw new IllegalArgumentException("scriptCode:" + scriptCode);
 		} else if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
-			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
-		String displayScript = null;
-		String key = "Script." + scriptCode;
+		String key = SCRIPT_KEYS.getKey(scriptCode);
 
-		if (ExtLocalesUtil.containsKey(key, locale)) {
-			displayScript = ExtLocalesUtil.getString(key, locale);
-		}
+		LocaleData data = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.LOCALE_NAMES);
+		String displayScript = data.findString(key);
 
 		return displayScript;
 	}
@@ -119,16 +163,12 @@ public class LocaleNameProviderImpl extends LocaleNameProvider {
 			throw new NullPointerException("variant:null");
 		} else if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
-			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
-		String displayVariant = null;
-		String key = "Variant." + variant;
+		String key = VARIANT_KEYS.getKey(variant);
 
-		if (ExtLocalesUtil.containsKey(key, locale)) {
-			displayVariant = ExtLocalesUtil.getString(key, locale);
-		}
+		LocaleData data = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.LOCALE_NAMES);
+		String displayVariant = data.findString(key);
 
 		return displayVariant;
 	}
@@ -5,8 +5,11 @@ import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.spi.NumberFormatProvider;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.LocaleDataSection;
 
 /**
  * An implementation class for {@link NumberFormatProvider} which provides a
@@ -17,6 +20,13 @@ import com.ikuuy.locale.util.ExtLocalesUtil;
  */
 public class NumberFormatProviderImpl extends NumberFormatProvider {
 
+	/**
+	 * A cache of the fully configured formatters for each locale and property key,
+	 * which are never handed out but cloned.
+	 */
+	private static final ConcurrentMap<Locale, ConcurrentMap<String, DecimalFormat>> PROTOTYPES =
+			new ConcurrentHashMap<Locale, ConcurrentMap<String, DecimalFormat>>();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -25,6 +35,17 @@ public class NumberFormatProviderImpl extends NumberFormatProvider {
 		return ExtLocalesUtil.getAvailableLocales();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isSupportedLocale(final Locale locale) throws NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		return ExtLocalesUtil.isSupportedLocale(locale);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -72,14 +93,45 @@ public class NumberFormatProviderImpl extends NumberFormatProvider {
 			NullPointerException {
 		if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
+		} else if (!ExtLocalesUtil.isSupportedLocale(locale)) {
 			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
+		Locale targetLocale = ExtLocalesUtil.resolveLocale(locale);
+		ConcurrentMap<String, DecimalFormat> prototypes = PROTOTYPES.get(targetLocale);
+		if (prototypes == null) {
+			prototypes = new ConcurrentHashMap<String, DecimalFormat>(8);
+			ConcurrentMap<String, DecimalFormat> current = PROTOTYPES.putIfAbsent(targetLocale, prototypes);
+			if (current != null) {
+				prototypes = current;
+			}
+		}
+
+		DecimalFormat prototype = prototypes.get(key);
+		if (prototype == null) {
+			prototype = createInstance(key, targetLocale);
+			DecimalFormat current = prototypes.putIfAbsent(key, prototype);
+			if (current != null) {
+				prototype = current;
+			}
+		}
+
+		return (NumberFormat) prototype.clone();
+	}
+
+	/**
+	 * Returns a new <code>DecimalFormat</code> instance configured with the pattern
+	 * for the specified key and locale.
+	 *
+	 * @param key the property key.
+	 * @param locale the desired locale.
+	 * @return a number formatter.
+	 */
+	private static DecimalFormat createInstance(final String key, final Locale locale) {
 		DecimalFormat format = new DecimalFormat();
 		format.setDecimalFormatSymbols(DecimalFormatSymbols.getInstance(locale));
 
-		String pattern = ExtLocalesUtil.getString(key, locale);
+		String pattern = ExtLocalesUtil.getLocaleData(locale, LocaleDataSection.SYMBOLS).getString(key);
 		format.applyPattern(pattern);
 
 		return format;
@@ -0,0 +1,95 @@
+package com.ikuuy.locale.provider;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A report of a preload by {@link Preloader}, which holds the time spent on
+ * each locale and the elapsed time of the whole preload. The time of a locale
+ * is measured on the thread which preloaded it, so that the sum of the times
+ * exceeds the elapsed time if the locales are preloaded in parallel.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class PreloadReport {
+
+	/**
+	 * The preloaded locales.
+	 */
+	private final Locale[] locales;
+
+	/**
+	 * The time spent on each locale in nanoseconds.
+	 */
+	private final long[] times;
+
+	/**
+	 * The elapsed time of the whole preload in nanoseconds.
+	 */
+	private final long elapsedTime;
+
+	/**
+	 * Constructs a report.
+	 *
+	 * @param locales the preloaded locales.
+	 * @param times the time spent on each locale in nanoseconds.
+	 * @param elapsedTime the elapsed time of the whole preload in nanoseconds.
+	 */
+	PreloadReport(final Locale[] locales, final long[] times, final long elapsedTime) {
+		this.locales = locales;
+		this.times = times;
+		this.elapsedTime = elapsedTime;
+	}
+
+	/**
+	 * Returns the preloaded locales in the order of the request.
+	 *
+	 * @return an array of the locales.
+	 */
+	public Locale[] getLocales() {
+		return locales.clone();
+	}
+
+	/**
+	 * Returns the time spent on a locale.
+	 *
+	 * @param locale the locale.
+	 * @param unit the unit of the time.
+	 * @return the time in the given unit, or <code>-1</code> if the locale isn't
+	 *     in the report.
+	 */
+	public long getTime(final Locale locale, final TimeUnit unit) {
+		int index = Arrays.asList(locales).indexOf(locale);
+		return index >= 0 ? unit.convert(times[index], TimeUnit.NANOSECONDS) : -1;
+	}
+
+	/**
+	 * Returns the elapsed time of the whole preload.
+	 *
+	 * @param unit the unit of the time.
+	 * @return the time in the given unit.
+	 */
+	public long getElapsedTime(final TimeUnit unit) {
+		return unit.convert(elapsedTime, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns a table of the times in milliseconds for each locale.
+	 *
+	 * @return a string representation of this report.
+	 */
+	@Override
+	public String toString() {
+		String separator = System.getProperty("line.separator");
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("%-16s %10s", "locale", "ms")).append(separator);
+		for (int i = 0; i < locales.length; i++) {
+			builder.append(String.format("%-16s %10.1f", locales[i], Double.valueOf(times[i] / 1e6))).append(separator);
+		}
+		builder.append(String.format("%-16s %10.1f", "elapsed", Double.valueOf(elapsedTime / 1e6))).append(separator);
+
+		return builder.toString();
+	}
+}
@@ -0,0 +1,223 @@
+package com.ikuuy.locale.provider;
+
+import java.text.DateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.LocaleDataSection;
+
+/**
+ * A preloader which loads the locale data and builds the cached instances of
+ * all providers in advance, such as the compiled collators, the date and
+ * decimal format symbols and the date and number formats, so that the first
+ * requests after startup don't pay for them. The locales are preloaded in
+ * parallel by a {@link ForkJoinPool}.
+ * <p>
+ * An application calls one of the <code>preload</code> methods at startup,
+ * before it starts serving requests.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class Preloader {
+
+	/**
+	 * The calendar type whose names are preloaded.
+	 */
+	private static final String CALENDAR_TYPE = "gregory";
+
+	/**
+	 * The date and time formatting styles.
+	 */
+	private static final int[] STYLES = { DateFormat.FULL, DateFormat.LONG, DateFormat.MEDIUM, DateFormat.SHORT };
+
+	/**
+	 * The calendar name provider, which caches the tables of the names.
+	 */
+	private static final CalendarNameProviderImpl CALENDAR_NAME_PROVIDER = new CalendarNameProviderImpl();
+
+	/**
+	 * The collator provider, which caches the compiled collators.
+	 */
+	private static final CollatorProviderImpl COLLATOR_PROVIDER = new CollatorProviderImpl();
+
+	/**
+	 * The date format provider, which caches the patterns and the formats.
+	 */
+	private static final DateFormatProviderImpl DATE_FORMAT_PROVIDER = new DateFormatProviderImpl();
+
+	/**
+	 * The date format symbols provider, which caches the symbols and the zone
+	 * strings.
+	 */
+	private static final DateFormatSymbolsProviderImpl DATE_FORMAT_SYMBOLS_PROVIDER =
+			new DateFormatSymbolsProviderImpl();
+
+	/**
+	 * The decimal format symbols provider, which caches the symbols.
+	 */
+	private static final DecimalFormatSymbolsProviderImpl DECIMAL_FORMAT_SYMBOLS_PROVIDER =
+			new DecimalFormatSymbolsProviderImpl();
+
+	/**
+	 * The number format provider, which caches the formats.
+	 */
+	private static final NumberFormatProviderImpl NUMBER_FORMAT_PROVIDER = new NumberFormatProviderImpl();
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private Preloader() {
+	}
+
+	/**
+	 * Preloads all available locales on the common pool.
+	 *
+	 * @return the report of the preload.
+	 */
+	public static PreloadReport preloadAll() {
+		return preload(ForkJoinPool.commonPool(), ExtLocalesUtil.getAvailableLocales());
+	}
+
+	/**
+	 * Preloads the given locales on the common pool.
+	 *
+	 * @param locales the locales to be preloaded.
+	 * @return the report of the preload.
+	 * @throws IllegalArgumentException if any of the <code>locales</code> isn't
+	 *     supported.
+	 * @throws NullPointerException if <code>locales</code> or any of them is
+	 *     <code>null</code>.
+	 */
+	public static PreloadReport preload(final Locale... locales) throws IllegalArgumentException,
+			NullPointerException {
+		return preload(ForkJoinPool.commonPool(), locales);
+	}
+
+	/**
+	 * Preloads the given locales on the given pool, and waits for all of them.
+	 *
+	 * @param pool the pool which preloads the locales.
+	 * @param locales the locales to be preloaded.
+	 * @return the report of the preload.
+	 * @throws IllegalArgumentException if any of the <code>locales</code> isn't
+	 *     supported.
+	 * @throws NullPointerException if <code>pool</code>, <code>locales</code> or
+	 *     any of them is <code>null</code>.
+	 */
+	public static PreloadReport preload(final ForkJoinPool pool, final Locale... locales)
+			throws IllegalArgumentException, NullPointerException {
+		if (pool == null) {
+			throw new NullPointerException("pool:null");
+		} else if (locales == null) {
+			throw new NullPointerException("locales:null");
+		}
+		for (Locale locale : locales) {
+			if (locale == null) {
+				throw new NullPointerException("locale:null");
+			} else if (!ExtLocalesUtil.isSupportedLocale(locale)) {
+				throw new IllegalArgumentException("locale:" + locale.toString());
+			}
+		}
+
+		long start = System.nanoTime();
+		PreloadTask[] tasks = new PreloadTask[locales.length];
+		for (int i = 0; i < locales.length; i++) {
+			tasks[i] = new PreloadTask(locales[i]);
+			pool.execute(tasks[i]);
+		}
+		long[] times = new long[locales.length];
+		for (int i = 0; i < locales.length; i++) {
+			times[i] = tasks[i].join().longValue();
+		}
+
+		return new PreloadReport(locales.clone(), times, System.nanoTime() - start);
+	}
+
+	/**
+	 * Preloads a locale on the current thread.
+	 *
+	 * @param locale the locale to be preloaded.
+	 */
+	private static void preload(final Locale locale) {
+		for (LocaleDataSection section : LocaleDataSection.values()) {
+			ExtLocalesUtil.getLocaleData(locale, section);
+		}
+		if (ExtLocalesUtil.isSupportedTimeZoneNameLocale(locale)) {
+			ExtLocalesUtil.getTimeZoneNames(locale);
+		}
+
+		DECIMAL_FORMAT_SYMBOLS_PROVIDER.getInstance(locale);
+		NUMBER_FORMAT_PROVIDER.getNumberInstance(locale);
+		NUMBER_FORMAT_PROVIDER.getIntegerInstance(locale);
+		NUMBER_FORMAT_PROVIDER.getPercentInstance(locale);
+		NUMBER_FORMAT_PROVIDER.getCurrencyInstance(locale);
+
+		DATE_FORMAT_SYMBOLS_PROVIDER.getInstance(locale);
+		for (int dateStyle : STYLES) {
+			DATE_FORMAT_PROVIDER.getDateInstance(dateStyle, locale);
+			DATE_FORMAT_PROVIDER.getTimeInstance(dateStyle, locale);
+			for (int timeStyle : STYLES) {
+				DATE_FORMAT_PROVIDER.getDateTimeInstance(dateStyle, timeStyle, locale);
+			}
+		}
+		CALENDAR_NAME_PROVIDER.getDisplayName(CALENDAR_TYPE, Calendar.MONTH, Calendar.JANUARY, Calendar.LONG_FORMAT,
+				locale);
+
+		COLLATOR_PROVIDER.getInstance(locale);
+	}
+
+	/**
+	 * Preloads the given locales, or all available locales if none is given, and
+	 * prints the report.
+	 *
+	 * @param args the language tags of the locales.
+	 */
+	public static void main(final String[] args) {
+		Locale[] locales = new Locale[args.length];
+		for (int i = 0; i < args.length; i++) {
+			locales[i] = Locale.forLanguageTag(args[i]);
+		}
+
+		System.out.print(locales.length > 0 ? preload(locales) : preloadAll());
+	}
+
+	/**
+	 * A task which preloads a locale and returns the time spent in nanoseconds.
+	 */
+	private static final class PreloadTask extends RecursiveTask<Long> {
+
+		/**
+		 * The serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The locale to be preloaded.
+		 */
+		private final Locale locale;
+
+		/**
+		 * Constructs a task.
+		 *
+		 * @param locale the locale to be preloaded.
+		 */
+		PreloadTask(final Locale locale) {
+			this.locale = locale;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected Long compute() {
+			long start = System.nanoTime();
+			preload(locale);
+
+			return Long.valueOf(System.nanoTime() - start);
+		}
+	}
+}
@@ -5,6 +5,7 @@ import java.util.TimeZone;
 import java.util.spi.TimeZoneNameProvider;
 
 import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.TimeZoneNames;
 
 /**
  * An implementation class for {@link TimeZoneNameProvider} which provides
@@ -23,6 +24,17 @@ public class TimeZoneNameProviderImpl extends TimeZoneNameProvider {
 		return ExtLocalesUtil.getAvailableTimeZoneNameLocales();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isSupportedLocale(final Locale locale) throws NullPointerException {
+		if (locale == null) {
+			throw new NullPointerException("locale:null");
+		}
+
+		return ExtLocalesUtil.isSupportedTimeZoneNameLocale(locale);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -33,29 +45,20 @@ public class TimeZoneNameProviderImpl extends TimeZoneNameProvider {
 			throw new NullPointerException("ID:null");
 		} else if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
+		} else if (!ExtLocalesUtil.isSupportedTimeZoneNameLocale(locale)) {
 			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
-		String displayTimeZone = null;
-		StringBuffer key = new StringBuffer(40);
-		key.append("ZoneStrings." + ID + ".");
-		if (daylight) {
-			key.append("DAYLIGHT.");
-		} else {
-			key.append("STANDARD.");
-		}
+		int index;
 		if (style == TimeZone.SHORT) {
-			key.append("SHORT");
+			index = daylight ? TimeZoneNames.DAYLIGHT_SHORT : TimeZoneNames.STANDARD_SHORT;
 		} else if (style == TimeZone.LONG) {
-			key.append("LONG");
+			index = daylight ? TimeZoneNames.DAYLIGHT_LONG : TimeZoneNames.STANDARD_LONG;
 		} else {
 			throw new IllegalArgumentException("style:" + style);
 		}
 
-		if (ExtLocalesUtil.containsKey(key.toString(), locale, true)) {
-			displayTimeZone = ExtLocalesUtil.getString(key.toString(), locale, true);
-		}
+		String displayTimeZone = ExtLocalesUtil.getTimeZoneNames(locale).getName(ID, index);
 
 		return displayTimeZone;
 	}
@@ -70,24 +73,20 @@ public class TimeZoneNameProviderImpl extends TimeZoneNameProvider {
 			throw new NullPointerException("ID:null");
 		} else if (locale == null) {
 			throw new NullPointerException("locale:null");
-		} else if (!ExtLocalesUtil.isAvailableLocale(locale, getAvailableLocales())) {
+		} else if (!ExtLocalesUtil.isSupportedTimeZoneNameLocale(locale)) {
 			throw new IllegalArgumentException("locale:" + locale.toString());
 		}
 
-		String displayTimeZone = null;
-		StringBuffer key = new StringBuffer(40);
-		key.append("ZoneStrings." + ID + ".GENERIC.");
+		int index;
 		if (style == TimeZone.SHORT) {
-			key.append("SHORT");
+			index = TimeZoneNames.GENERIC_SHORT;
 		} else if (style == TimeZone.LONG) {
-			key.append("LONG");
+			index = TimeZoneNames.GENERIC_LONG;
 		} else {
 			throw new IllegalArgumentException("style:" + style);
 		}
 
-		if (ExtLocalesUtil.containsKey(key.toString(), locale, true)) {
-			displayTimeZone = ExtLocalesUtil.getString(key.toString(), locale, true);
-		}
+		String displayTimeZone = ExtLocalesUtil.getTimeZoneNames(locale).getName(ID, index);
 
 		return displayTimeZone;
 	}
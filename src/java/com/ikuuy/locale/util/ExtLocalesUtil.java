@@ -1,20 +1,27 @@
 package com.ikuuy.locale.util;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Properties;
 import java.util.ResourceBundle;
 import java.util.ResourceBundle.Control;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * An utility class to get a value from the resource bundles.
@@ -29,6 +36,40 @@ public final class ExtLocalesUtil {
 	 */
 	private static final Logger LOG = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
 
+	/**
+	 * The base name of the resource bundles.
+	 */
+	private static final String BUNDLE_BASE_NAME = "ExtLocales";
+
+	/**
+	 * The package of the resource bundle classes generated at build time from the
+	 * properties files, which has a subpackage for each section.
+	 */
+	private static final String GENERATED_BUNDLE_PACKAGE = "com.ikuuy.locale.data";
+
+	/**
+	 * The name of the resource of the locale data store.
+	 */
+	private static final String STORE_RESOURCE_NAME = "ExtLocales.dat";
+
+	/**
+	 * A prefix of the system properties which override the locale config.
+	 */
+	private static final String SYSTEM_PROPERTY_PREFIX = "ExtLocales.";
+
+	/**
+	 * The class loader which the locale config and the locale data are loaded
+	 * through. The data is bundled with this class, so the loader of the thread
+	 * doesn't matter, and all applications sharing this class share a single
+	 * entry in the cache of the resource bundles.
+	 */
+	private static final ClassLoader LOADER = getDefiningClassLoader();
+
+	/**
+	 * A property list from the locale config.
+	 */
+	private static final Properties CONFIG = new Properties();
+
 	/**
 	 * A set of all locales for the resource bundles.
 	 */
@@ -40,22 +81,52 @@ public final class ExtLocalesUtil {
 	private static final Set<Locale> TZ_NAME_LOCALES = new HashSet<Locale>();
 
 	/**
-	 * A compiled representation of a regular expression for substitution.
+	 * An index to resolve a locale to one of the locales for the resource bundles.
 	 */
-	private static final Pattern SUBST_PATTERN = Pattern.compile("\\$\\{([^\\}]+)\\}");
+	private static final LocaleIndex LOCALE_INDEX;
+
+	/**
+	 * An index to resolve a locale to one of the locales for the resource bundles
+	 * which contain time zone names.
+	 */
+	private static final LocaleIndex TZ_NAME_LOCALE_INDEX;
+
+	/**
+	 * The caches of the snapshots of the resource bundles for each locale, one for
+	 * each section.
+	 */
+	private static final Map<LocaleDataSection, ConcurrentMap<Locale, LocaleData>> DATA =
+			new EnumMap<LocaleDataSection, ConcurrentMap<Locale, LocaleData>>(LocaleDataSection.class);
+
+	/**
+	 * A cache of the tables of the time zone names for each locale.
+	 */
+	private static final ConcurrentMap<Locale, TimeZoneNames> TIME_ZONE_NAMES =
+			new ConcurrentHashMap<Locale, TimeZoneNames>();
+
+	/**
+	 * The store of the locale data packed at build time, or <code>null</code> if
+	 * the bundles are used.
+	 */
+	private static final LocaleDataStore STORE;
+
+	/**
+	 * A flag whether the resource bundle classes generated at build time may be
+	 * available. Cleared on the first miss, so that the following lookups go
+	 * straight to the properties files without throwing an exception.
+	 */
+	private static volatile boolean generatedBundlesAvailable = true;
 
 	private ExtLocalesUtil() {
 	}
 
 	static {
 		// Load the locale config.
-		ClassLoader loader = Thread.currentThread().getContextClassLoader();
-		InputStream inStream = loader.getResourceAsStream("ExtLocales.config");
+		InputStream inStream = LOADER.getResourceAsStream("ExtLocales.config");
 
-		Properties props = new Properties();
 		if (inStream != null) {
 			try {
-				props.load(inStream);
+				CONFIG.load(inStream);
 			} catch (IOException e) {
 				LOG.warning(e.getMessage());
 			} finally {
@@ -66,8 +137,73 @@ public final class ExtLocalesUtil {
 				}
 			}
 		}
-		initAvailableLocales(props, "locales", LOCALES);
-		initAvailableLocales(props, "TimeZoneName.locales", TZ_NAME_LOCALES);
+		initAvailableLocales(CONFIG, "locales", LOCALES);
+		initAvailableLocales(CONFIG, "TimeZoneName.locales", TZ_NAME_LOCALES);
+
+		LOCALE_INDEX = new LocaleIndex(LOCALES);
+		TZ_NAME_LOCALE_INDEX = new LocaleIndex(TZ_NAME_LOCALES);
+
+		for (LocaleDataSection section : LocaleDataSection.values()) {
+			DATA.put(section, new ConcurrentHashMap<Locale, LocaleData>());
+		}
+
+		STORE = getConfigBoolean("LocaleDataStore.enabled", false) ? openStore(LOADER) : null;
+	}
+
+	/**
+	 * Returns the class loader which defined this class, or the system class
+	 * loader if this class is loaded by the bootstrap class loader, for example
+	 * from an endorsed directory.
+	 *
+	 * @return the class loader.
+	 */
+	private static ClassLoader getDefiningClassLoader() {
+		ClassLoader loader = ExtLocalesUtil.class.getClassLoader();
+		if (loader == null) {
+			loader = ClassLoader.getSystemClassLoader();
+		}
+
+		return loader;
+	}
+
+	/**
+	 * Opens the store of the locale data. The file given by the config
+	 * <code>LocaleDataStore.path</code> or the resource <code>ExtLocales.dat</code>
+	 * in a directory is mapped into memory, and the resource in an archive is read
+	 * into memory.
+	 *
+	 * @param loader the class loader to find the resource.
+	 * @return the store, or <code>null</code> if the store could not be opened.
+	 */
+	private static LocaleDataStore openStore(final ClassLoader loader) {
+		LocaleDataStore store = null;
+
+		String path = getConfigProperty("LocaleDataStore.path", "");
+		try {
+			if (path.length() > 0) {
+				store = LocaleDataStore.open(new File(path));
+			} else {
+				URL url = loader.getResource(STORE_RESOURCE_NAME);
+				if (url == null) {
+					LOG.warning("Can't find " + STORE_RESOURCE_NAME);
+				} else if ("file".equals(url.getProtocol())) {
+					store = LocaleDataStore.open(new File(url.toURI()));
+				} else {
+					InputStream in = url.openStream();
+					try {
+						store = LocaleDataStore.open(in);
+					} finally {
+						in.close();
+					}
+				}
+			}
+		} catch (IOException e) {
+			LOG.warning(e.getMessage());
+		} catch (URISyntaxException e) {
+			LOG.warning(e.getMessage());
+		}
+
+		return store;
 	}
 
 	/**
@@ -84,13 +220,14 @@ public final class ExtLocalesUtil {
 			String[] locales = value.split(",");
 			for (String localeStr : locales) {
 				Locale locale = null;
-				String beforeSharp;
+				// The locale config is parsed without regular expressions, which take
+				// much of the time of the class initialization.
+				String beforeSharp = localeStr.trim();
 				String afterSharp = null;
-				if (localeStr.contains("_#")) {
-					beforeSharp = localeStr.trim().split("_#", 2)[0];
-					afterSharp = localeStr.trim().split("_#", 2)[1];
-				} else {
-					beforeSharp = localeStr.trim();
+				int sharpIndex = beforeSharp.indexOf("_#");
+				if (sharpIndex >= 0) {
+					afterSharp = beforeSharp.substring(sharpIndex + 2);
+					beforeSharp = beforeSharp.substring(0, sharpIndex);
 				}
 				String[] params = beforeSharp.split("_", 3);
 				switch (params.length) {
@@ -118,11 +255,11 @@ public final class ExtLocalesUtil {
 				} else {
 					String script = null;
 					String extension = null;
-					if (afterSharp.matches("^[A-Z][a-z]{3}..+")) {
+					if (afterSharp.length() >= 6 && isScriptCode(afterSharp)) {
 						// #Ssss_e-eeee
 						script = afterSharp.substring(0, 4);
 						extension = afterSharp.substring(5);
-					} else if (afterSharp.matches("^[A-Z][a-z]{3}$")) {
+					} else if (afterSharp.length() == 4 && isScriptCode(afterSharp)) {
 						// #Ssss
 						script = afterSharp;
 					} else {
@@ -135,7 +272,8 @@ public final class ExtLocalesUtil {
 					if (script != null) {
 						builder.setScript(script);
 					}
-					if (extension != null && extension.matches("^[0-9a-zA-Z]-.+")) {
+					if (extension != null && extension.length() >= 3 && isAsciiAlphanumeric(extension.charAt(0))
+							&& extension.charAt(1) == '-') {
 						builder.setExtension(extension.charAt(0), extension.substring(2));
 					}
 					localeSet.add(builder.build());
@@ -144,13 +282,107 @@ public final class ExtLocalesUtil {
 		}
 	}
 
+	/**
+	 * Determines whether the given string starts with a script code, which is an
+	 * upper-case letter followed by three lower-case letters.
+	 *
+	 * @param str the string to be examined, which has at least four characters.
+	 * @return <code>true</code> if the string starts with a script code;
+	 *     <code>false</code> otherwise.
+	 */
+	public static boolean isScriptCode(final String str) {
+		boolean valid = 'A' <= str.charAt(0) && str.charAt(0) <= 'Z';
+		for (int i = 1; valid && i < 4; i++) {
+			valid = 'a' <= str.charAt(i) && str.charAt(i) <= 'z';
+		}
+
+		return valid;
+	}
+
+	/**
+	 * Determines whether the given string consists of <code>minLength</code> to
+	 * <code>maxLength</code> characters between <code>low</code> and
+	 * <code>high</code> inclusive. Unlike {@link String#matches(String)}, this
+	 * compiles no pattern and allocates nothing, so that the providers can
+	 * validate their arguments on each call.
+	 *
+	 * @param str the string to be examined.
+	 * @param minLength the minimum length.
+	 * @param maxLength the maximum length.
+	 * @param low the lowest character.
+	 * @param high the highest character.
+	 * @return <code>true</code> if the string consists of the characters in the
+	 *     range; <code>false</code> otherwise.
+	 */
+	public static boolean consistsOf(final String str, final int minLength, final int maxLength, final char low,
+			final char high) {
+		int length = str.length();
+		boolean valid = minLength <= length && length <= maxLength;
+		for (int i = 0; valid && i < length; i++) {
+			valid = low <= str.charAt(i) && str.charAt(i) <= high;
+		}
+
+		return valid;
+	}
+
+	/**
+	 * Determines whether the given character is an ASCII letter or digit.
+	 *
+	 * @param c the character to be examined.
+	 * @return <code>true</code> if the character is an ASCII letter or digit;
+	 *     <code>false</code> otherwise.
+	 */
+	private static boolean isAsciiAlphanumeric(final char c) {
+		return ('0' <= c && c <= '9') || ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z');
+	}
+
+	/**
+	 * Returns the value for the given <code>key</code> from the locale config. The
+	 * system property named <code>ExtLocales.&lt;key&gt;</code> takes precedence
+	 * over the locale config.
+	 *
+	 * @param key the key for the desired value.
+	 * @param defaultValue the value to be returned if the key is not configured.
+	 * @return the configured value, or <code>defaultValue</code> if the key is not
+	 *     configured.
+	 */
+	public static String getConfigProperty(final String key, final String defaultValue) {
+		String value = null;
+
+		try {
+			value = System.getProperty(SYSTEM_PROPERTY_PREFIX + key);
+		} catch (SecurityException e) {
+			LOG.warning(e.getMessage());
+		}
+		if (value == null) {
+			value = CONFIG.getProperty(key, defaultValue);
+		}
+
+		return value != null ? value.trim() : null;
+	}
+
+	/**
+	 * Returns the <code>boolean</code> value for the given <code>key</code> from the
+	 * locale config.
+	 *
+	 * @param key the key for the desired value.
+	 * @param defaultValue the value to be returned if the key is not configured.
+	 * @return <code>true</code> if the configured value is "true" ignoring case;
+	 *     <code>defaultValue</code> if the key is not configured;
+	 *     <code>false</code> otherwise.
+	 */
+	public static boolean getConfigBoolean(final String key, final boolean defaultValue) {
+		String value = getConfigProperty(key, null);
+		return value != null ? Boolean.parseBoolean(value) : defaultValue;
+	}
+
 	/**
 	 * Returns an array of all locales for the resource bundles.
 	 *
 	 * @return an array of locales.
 	 */
 	public static Locale[] getAvailableLocales() {
-		return LOCALES.toArray(new Locale[LOCALES.size()]);
+		return LOCALE_INDEX.getLocales();
 	}
 
 	/**
@@ -160,7 +392,55 @@ public final class ExtLocalesUtil {
 	 * @return an array of locales.
 	 */
 	public static Locale[] getAvailableTimeZoneNameLocales() {
-		return TZ_NAME_LOCALES.toArray(new Locale[TZ_NAME_LOCALES.size()]);
+		return TZ_NAME_LOCALE_INDEX.getLocales();
+	}
+
+	/**
+	 * Returns the locale for the resource bundles which the given
+	 * <code>locale</code> is resolved to.
+	 *
+	 * @param locale the desired locale.
+	 * @return the resolved locale, or <code>null</code> if the given
+	 *     <code>locale</code> isn't supported.
+	 */
+	public static Locale resolveLocale(final Locale locale) {
+		return LOCALE_INDEX.resolve(locale);
+	}
+
+	/**
+	 * Returns the locale for the resource bundles which contain time zone names
+	 * which the given <code>locale</code> is resolved to.
+	 *
+	 * @param locale the desired locale.
+	 * @return the resolved locale, or <code>null</code> if the given
+	 *     <code>locale</code> isn't supported.
+	 */
+	public static Locale resolveTimeZoneNameLocale(final Locale locale) {
+		return TZ_NAME_LOCALE_INDEX.resolve(locale);
+	}
+
+	/**
+	 * Determines whether the given <code>locale</code> is supported by the resource
+	 * bundles.
+	 *
+	 * @param locale possible locale.
+	 * @return <code>true</code> if the given <code>locale</code> is supported;
+	 *     <code>false</code> otherwise.
+	 */
+	public static boolean isSupportedLocale(final Locale locale) {
+		return LOCALE_INDEX.resolve(locale) != null;
+	}
+
+	/**
+	 * Determines whether the given <code>locale</code> is supported by the resource
+	 * bundles which contain time zone names.
+	 *
+	 * @param locale possible locale.
+	 * @return <code>true</code> if the given <code>locale</code> is supported;
+	 *     <code>false</code> otherwise.
+	 */
+	public static boolean isSupportedTimeZoneNameLocale(final Locale locale) {
+		return TZ_NAME_LOCALE_INDEX.resolve(locale) != null;
 	}
 
 	/**
@@ -199,9 +479,9 @@ public final class ExtLocalesUtil {
 		String value = null;
 
 		if (key != null) {
-			ResourceBundle bundle = getBundle(locale);
-			if (bundle != null) {
-				value = bundle.getString(key);
+			LocaleData data = getLocaleData(locale, LocaleDataSection.of(key));
+			if (data != null) {
+				value = data.getString(key);
 			}
 		}
 
@@ -226,18 +506,60 @@ public final class ExtLocalesUtil {
 		if (!substitute) {
 			value = getString(key, locale);
 		} else if (key != null) {
-			ResourceBundle bundle = getBundle(locale);
-			if (bundle != null) {
-				StringBuffer buf = new StringBuffer();
-				String srcValue = bundle.getString(key);
-				Matcher matcher = SUBST_PATTERN.matcher(srcValue);
-				while (matcher.find()) {
-					String subKey = matcher.group(1);
-					String replacement = bundle.getString(subKey);
-					matcher.appendReplacement(buf, Matcher.quoteReplacement(replacement));
-				}
-				matcher.appendTail(buf);
-				value = buf.toString();
+			LocaleData data = getLocaleData(locale, LocaleDataSection.of(key));
+			if (data != null) {
+				value = data.getString(key, true);
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns a string for the given <code>key</code> from the resource bundle, or
+	 * <code>null</code> if the key isn't contained. Unlike
+	 * {@link #getString(String, Locale)}, a miss costs a single hash probe and
+	 * throws no exception.
+	 *
+	 * @param key the key for the desired string.
+	 * @param locale the desired locale.
+	 * @return the string for the given <code>key</code> and <code>locale</code>,
+	 *     or <code>null</code> if the key isn't contained.
+	 */
+	public static String findString(final String key, final Locale locale) {
+		String value = null;
+
+		if (key != null) {
+			LocaleData data = getLocaleData(locale, LocaleDataSection.of(key));
+			if (data != null) {
+				value = data.findString(key);
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns a string for the given <code>key</code> from the resource bundle, or
+	 * <code>null</code> if the key isn't contained. Unlike
+	 * {@link #getString(String, Locale, boolean)}, a miss costs a single hash
+	 * probe and throws no exception.
+	 *
+	 * @param key the key for the desired string.
+	 * @param locale the desired locale.
+	 * @param substitute a flag whether substitution for <code>${key}</code> within
+	 *     the string is enabled.
+	 * @return the string for the given <code>key</code> and <code>locale</code>,
+	 *     or <code>null</code> if the key or any key to be substituted isn't
+	 *     contained.
+	 */
+	public static String findString(final String key, final Locale locale, final boolean substitute) {
+		String value = null;
+
+		if (key != null) {
+			LocaleData data = getLocaleData(locale, LocaleDataSection.of(key));
+			if (data != null) {
+				value = data.findString(key, substitute);
 			}
 		}
 
@@ -257,9 +579,11 @@ public final class ExtLocalesUtil {
 	public static char getChar(final String key, final Locale locale) throws MissingResourceException {
 		char value = 0;
 
-		String str = getString(key, locale);
-		if (str != null && !str.isEmpty()) {
-			value = str.charAt(0);
+		if (key != null) {
+			LocaleData data = getLocaleData(locale, LocaleDataSection.of(key));
+			if (data != null) {
+				value = data.getChar(key);
+			}
 		}
 
 		return value;
@@ -278,12 +602,10 @@ public final class ExtLocalesUtil {
 	public static int getInt(final String key, final Locale locale) throws MissingResourceException {
 		int value = 0;
 
-		String str = getString(key, locale);
-		if (str != null && !str.isEmpty()) {
-			try {
-				value = Integer.parseInt(str);
-			} catch (NumberFormatException e) {
-				LOG.warning(e.getMessage());
+		if (key != null) {
+			LocaleData data = getLocaleData(locale, LocaleDataSection.of(key));
+			if (data != null) {
+				value = data.getInt(key);
 			}
 		}
 
@@ -303,9 +625,9 @@ public final class ExtLocalesUtil {
 		boolean contain = false;
 
 		if (key != null) {
-			ResourceBundle bundle = getBundle(locale);
-			if (bundle != null) {
-				contain = bundle.containsKey(key);
+			LocaleData data = getLocaleData(locale, LocaleDataSection.of(key));
+			if (data != null) {
+				contain = data.containsKey(key);
 			}
 		}
 
@@ -330,18 +652,9 @@ public final class ExtLocalesUtil {
 		if (!substitute) {
 			contain = containsKey(key, locale);
 		} else if (key != null) {
-			ResourceBundle bundle = getBundle(locale);
-			if (bundle != null && bundle.containsKey(key)) {
-				contain = true;
-				String srcValue = bundle.getString(key);
-				Matcher matcher = SUBST_PATTERN.matcher(srcValue);
-				while (matcher.find()) {
-					String subKey = matcher.group(1);
-					if (!bundle.containsKey(subKey)) {
-						contain = false;
-						break;
-					}
-				}
+			LocaleData data = getLocaleData(locale, LocaleDataSection.of(key));
+			if (data != null) {
+				contain = data.containsKey(key, true);
 			}
 		}
 
@@ -358,31 +671,138 @@ public final class ExtLocalesUtil {
 	public static Enumeration<String> getKeys(final Locale locale) {
 		Enumeration<String> keys = null;
 
-		ResourceBundle bundle = getBundle(locale);
-		if (bundle != null) {
-			keys = bundle.getKeys();
+		// All sections are loaded.
+		List<String> keyList = null;
+		for (LocaleDataSection section : LocaleDataSection.values()) {
+			LocaleData data = getLocaleData(locale, section);
+			if (data != null) {
+				if (keyList == null) {
+					keyList = new ArrayList<String>();
+				}
+				keyList.addAll(data.keySet());
+			}
+		}
+		if (keyList != null) {
+			keys = Collections.enumeration(keyList);
 		}
 
 		return keys;
 	}
 
 	/**
-	 * Get a resource bundle using the specified locale.
+	 * Returns the snapshot of a section of the resource bundle for the given
+	 * locale. The snapshot is created on the first request for the section and
+	 * shared afterwards, so that the other sections aren't loaded. A locale which
+	 * isn't supported gets the snapshot of the base bundle.
+	 *
+	 * @param locale the desired locale.
+	 * @param section the desired section.
+	 * @return the snapshot for the given locale and section, or <code>null</code>
+	 *     if the resource bundle could not be found.
+	 */
+	public static LocaleData getLocaleData(final Locale locale, final LocaleDataSection section) {
+		LocaleData data = null;
+
+		if (locale != null) {
+			if (section == null) {
+				throw new NullPointerException("section:null");
+			}
+
+			Locale targetLocale = LOCALE_INDEX.resolve(locale);
+			if (targetLocale == null) {
+				targetLocale = Locale.ROOT;
+			}
+
+			ConcurrentMap<Locale, LocaleData> cache = DATA.get(section);
+			data = cache.get(targetLocale);
+			if (data == null) {
+				// A missing bundle is cached as well, so that it is looked up and
+				// reported only once.
+				ResourceBundle bundle = getBundle(targetLocale, section);
+				data = bundle != null ? new LocaleData(bundle, section) : LocaleData.MISSING;
+				LocaleData current = cache.putIfAbsent(targetLocale, data);
+				if (current != null) {
+					data = current;
+				}
+			}
+			if (data == LocaleData.MISSING) {
+				data = null;
+			}
+		}
+
+		return data;
+	}
+
+	/**
+	 * Returns the table of the time zone names for the given locale. The table is
+	 * created on the first request and shared afterwards. A locale which isn't
+	 * supported gets the table of the base bundle.
+	 *
+	 * @param locale the desired locale.
+	 * @return the table for the given locale, or <code>null</code> if the
+	 *     resource bundle could not be found.
+	 */
+	public static TimeZoneNames getTimeZoneNames(final Locale locale) {
+		TimeZoneNames names = null;
+
+		if (locale != null) {
+			Locale targetLocale = LOCALE_INDEX.resolve(locale);
+			if (targetLocale == null) {
+				targetLocale = Locale.ROOT;
+			}
+
+			names = TIME_ZONE_NAMES.get(targetLocale);
+			if (names == null) {
+				LocaleData data = getLocaleData(targetLocale, LocaleDataSection.ZONES);
+				if (data != null) {
+					names = new TimeZoneNames(data);
+					TimeZoneNames current = TIME_ZONE_NAMES.putIfAbsent(targetLocale, names);
+					if (current != null) {
+						names = current;
+					}
+				}
+			}
+		}
+
+		return names;
+	}
+
+	/**
+	 * Get a resource bundle of a section using the specified locale. The locale
+	 * data store is used if it is enabled. Otherwise, the classes generated at
+	 * build time are preferred, and the properties files, which contain all
+	 * sections, are used if they are missing.
 	 *
 	 * @param locale the desired locale.
+	 * @param section the desired section.
 	 * @return the resource bundle for the given locale, or <code>null</code> if the
 	 *     resource bundle could not be found.
 	 */
-	private static ResourceBundle getBundle(final Locale locale) {
+	private static ResourceBundle getBundle(final Locale locale, final LocaleDataSection section) {
 		ResourceBundle bundle = null;
 
 		if (locale != null) {
-			ClassLoader loader = Thread.currentThread().getContextClassLoader();
+			if (STORE != null) {
+				bundle = STORE.getBundle(section.getName() + "." + BUNDLE_BASE_NAME, locale);
+			}
 
-			try {
-				bundle = ResourceBundle.getBundle("ExtLocales", locale, loader);
-			} catch (MissingResourceException e) {
-				LOG.warning(e.getMessage());
+			if (bundle == null && generatedBundlesAvailable) {
+				try {
+					bundle = ResourceBundle.getBundle(GENERATED_BUNDLE_PACKAGE + "." + section.getName() + "."
+							+ BUNDLE_BASE_NAME, locale, LOADER);
+				} catch (MissingResourceException e) {
+					// The classes are generated for all locales, so none of them is
+					// available.
+					generatedBundlesAvailable = false;
+				}
+			}
+
+			if (bundle == null) {
+				try {
+					bundle = ResourceBundle.getBundle(BUNDLE_BASE_NAME, locale, LOADER);
+				} catch (MissingResourceException e) {
+					LOG.warning(e.getMessage());
+				}
 			}
 		}
 
@@ -0,0 +1,183 @@
+package com.ikuuy.locale.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A report of the estimated heap size retained by the locale data of each
+ * locale, which helps to size the containers. For each locale, the report
+ * holds two estimates:
+ * <ul>
+ * <li>the standalone size, as if the locale kept its own copy of every key and
+ * value, which was the case before the values were shared across the
+ * locales.</li>
+ * <li>the incremental size, which counts only the objects not yet counted for
+ * the preceding locales, so that the sum is the size actually retained.</li>
+ * </ul>
+ * The sizes are estimates assuming compressed oops and compact strings.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class FootprintReport {
+
+	/**
+	 * The locales in the order of counting.
+	 */
+	private final Locale[] locales;
+
+	/**
+	 * The standalone sizes of the locales.
+	 */
+	private final long[] standaloneSizes;
+
+	/**
+	 * The incremental sizes of the locales.
+	 */
+	private final long[] incrementalSizes;
+
+	/**
+	 * Constructs a report.
+	 *
+	 * @param locales the locales in the order of counting.
+	 * @param standaloneSizes the standalone sizes of the locales.
+	 * @param incrementalSizes the incremental sizes of the locales.
+	 */
+	private FootprintReport(final Locale[] locales, final long[] standaloneSizes, final long[] incrementalSizes) {
+		this.locales = locales;
+		this.standaloneSizes = standaloneSizes;
+		this.incrementalSizes = incrementalSizes;
+	}
+
+	/**
+	 * Creates a report of all available locales, loading all sections of the
+	 * locale data which haven't been loaded yet.
+	 *
+	 * @return a report.
+	 */
+	public static FootprintReport create() {
+		Locale[] locales = ExtLocalesUtil.getAvailableLocales();
+		Arrays.sort(locales, new Comparator<Locale>() {
+			@Override
+			public int compare(final Locale o1, final Locale o2) {
+				return o1.toString().compareTo(o2.toString());
+			}
+		});
+
+		long[] standaloneSizes = new long[locales.length];
+		long[] incrementalSizes = new long[locales.length];
+		Set<Object> counted = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		Set<LocaleData> countedData = Collections.newSetFromMap(new IdentityHashMap<LocaleData, Boolean>());
+		for (int i = 0; i < locales.length; i++) {
+			for (LocaleDataSection section : LocaleDataSection.values()) {
+				LocaleData data = ExtLocalesUtil.getLocaleData(locales[i], section);
+				if (data != null) {
+					standaloneSizes[i] += data.estimateSize(null);
+					// The locales resolved to the same snapshot retain nothing more.
+					if (countedData.add(data)) {
+						incrementalSizes[i] += data.estimateSize(counted);
+					}
+				}
+			}
+		}
+
+		return new FootprintReport(locales, standaloneSizes, incrementalSizes);
+	}
+
+	/**
+	 * Returns the locales in the order of counting.
+	 *
+	 * @return an array of the locales.
+	 */
+	public Locale[] getLocales() {
+		return locales.clone();
+	}
+
+	/**
+	 * Returns the standalone size of a locale, as if nothing were shared with the
+	 * other locales.
+	 *
+	 * @param locale the locale.
+	 * @return the estimated size in bytes, or <code>-1</code> if the locale isn't
+	 *     in the report.
+	 */
+	public long getStandaloneSize(final Locale locale) {
+		int index = Arrays.asList(locales).indexOf(locale);
+		return index >= 0 ? standaloneSizes[index] : -1;
+	}
+
+	/**
+	 * Returns the incremental size of a locale, which excludes the objects shared
+	 * with the preceding locales.
+	 *
+	 * @param locale the locale.
+	 * @return the estimated size in bytes, or <code>-1</code> if the locale isn't
+	 *     in the report.
+	 */
+	public long getIncrementalSize(final Locale locale) {
+		int index = Arrays.asList(locales).indexOf(locale);
+		return index >= 0 ? incrementalSizes[index] : -1;
+	}
+
+	/**
+	 * Returns the total of the standalone sizes.
+	 *
+	 * @return the estimated size in bytes.
+	 */
+	public long getTotalStandaloneSize() {
+		long total = 0;
+		for (long size : standaloneSizes) {
+			total += size;
+		}
+
+		return total;
+	}
+
+	/**
+	 * Returns the total of the incremental sizes, which is the size retained by
+	 * the locale data of all locales.
+	 *
+	 * @return the estimated size in bytes.
+	 */
+	public long getTotalIncrementalSize() {
+		long total = 0;
+		for (long size : incrementalSizes) {
+			total += size;
+		}
+
+		return total;
+	}
+
+	/**
+	 * Returns a table of the sizes in bytes for each locale.
+	 *
+	 * @return a string representation of this report.
+	 */
+	@Override
+	public String toString() {
+		String separator = System.getProperty("line.separator");
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("%-16s %12s %12s", "locale", "standalone", "incremental")).append(separator);
+		for (int i = 0; i < locales.length; i++) {
+			builder.append(String.format("%-16s %12d %12d", locales[i], Long.valueOf(standaloneSizes[i]),
+					Long.valueOf(incrementalSizes[i]))).append(separator);
+		}
+		builder.append(String.format("%-16s %12d %12d", "total", Long.valueOf(getTotalStandaloneSize()),
+				Long.valueOf(getTotalIncrementalSize()))).append(separator);
+
+		return builder.toString();
+	}
+
+	/**
+	 * Prints the report of all available locales.
+	 *
+	 * @param args not used.
+	 */
+	public static void main(final String[] args) {
+		System.out.print(create());
+	}
+}
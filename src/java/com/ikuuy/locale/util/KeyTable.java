@@ -0,0 +1,82 @@
+package com.ikuuy.locale.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A table from a code, such as a country code or a currency code, to the
+ * property key composed of a prefix, the code and a suffix. A key is composed
+ * on the first request for its code and reused afterwards, so that a provider
+ * looks up the locale data without building the key on each call.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class KeyTable {
+
+	/**
+	 * The maximum number of the keys to be cached, in order not to be exhausted
+	 * by arbitrary codes. The keys beyond it are composed on each request.
+	 */
+	private static final int MAX_CACHED_KEYS = 4096;
+
+	/**
+	 * The prefix of the keys.
+	 */
+	private final String prefix;
+
+	/**
+	 * The suffix of the keys.
+	 */
+	private final String suffix;
+
+	/**
+	 * A map from a code to its key.
+	 */
+	private final ConcurrentMap<String, String> keys = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Constructs a table for the keys with the given prefix and suffix.
+	 *
+	 * @param prefix the prefix of the keys, such as <code>"Country."</code>.
+	 * @param suffix the suffix of the keys, or an empty string.
+	 * @throws NullPointerException if <code>prefix</code> or <code>suffix</code>
+	 *     is <code>null</code>.
+	 */
+	public KeyTable(final String prefix, final String suffix) throws NullPointerException {
+		if (prefix == null) {
+			throw new NullPointerException("prefix:null");
+		} else if (suffix == null) {
+			throw new NullPointerException("suffix:null");
+		}
+
+		this.prefix = prefix;
+		this.suffix = suffix;
+	}
+
+	/**
+	 * Returns the key for the given <code>code</code>.
+	 *
+	 * @param code the code.
+	 * @return the key composed of the prefix, the code and the suffix.
+	 * @throws NullPointerException if <code>code</code> is <code>null</code>.
+	 */
+	public String getKey(final String code) throws NullPointerException {
+		if (code == null) {
+			throw new NullPointerException("code:null");
+		}
+
+		String key = keys.get(code);
+		if (key == null) {
+			key = prefix + code + suffix;
+			if (keys.size() < MAX_CACHED_KEYS) {
+				String current = keys.putIfAbsent(code, key);
+				if (current != null) {
+					key = current;
+				}
+			}
+		}
+
+		return key;
+	}
+}
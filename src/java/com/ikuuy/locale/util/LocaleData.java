@@ -0,0 +1,517 @@
+package com.ikuuy.locale.util;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+/**
+ * An immutable snapshot of a section of the resource bundle for a locale. All
+ * keys of the section inherited from the parent bundles are merged into a
+ * single table, and the values are converted to <code>char</code> and
+ * <code>int</code> in advance, so that a lookup costs a single hash probe. The
+ * substitutions for <code>${key}</code> are also resolved in advance.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class LocaleData {
+
+	/**
+	 * A global logger.
+	 */
+	private static final Logger LOG = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+	/**
+	 * A pool of the keys and the values shared by the snapshots of all locales.
+	 */
+	private static final ConcurrentMap<String, String> STRINGS = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * A pool of the entries shared by the snapshots of all locales.
+	 */
+	private static final ConcurrentMap<Entry, Entry> ENTRIES = new ConcurrentHashMap<Entry, Entry>();
+
+	/**
+	 * A marker for the snapshots whose resource bundle could not be found, which
+	 * contains no entry. Compared only by identity.
+	 */
+	static final LocaleData MISSING = new LocaleData();
+
+	/**
+	 * The estimated size of an object header with compressed class pointers.
+	 */
+	private static final int OBJECT_HEADER_SIZE = 12;
+
+	/**
+	 * The estimated size of an array header.
+	 */
+	private static final int ARRAY_HEADER_SIZE = 16;
+
+	/**
+	 * The estimated size of a reference with compressed oops.
+	 */
+	private static final int REFERENCE_SIZE = 4;
+
+	/**
+	 * The locale of the resource bundle.
+	 */
+	private final Locale locale;
+
+	/**
+	 * The section of the locale data.
+	 */
+	private final LocaleDataSection section;
+
+	/**
+	 * A table of all entries including the inherited ones.
+	 */
+	private final Map<String, Entry> entries;
+
+	/**
+	 * Constructs a snapshot of a section of the given resource bundle. The keys
+	 * of the other sections are ignored, so that the bundle may contain all
+	 * sections.
+	 *
+	 * @param bundle the resource bundle including its parent bundles.
+	 * @param section the section of the locale data.
+	 */
+	LocaleData(final ResourceBundle bundle, final LocaleDataSection section) {
+		this.locale = bundle.getLocale();
+		this.section = section;
+
+		Set<String> keys = bundle.keySet();
+		Map<String, String> values = new HashMap<String, String>(keys.size() * 4 / 3 + 1);
+		for (String key : keys) {
+			Object value = section.contains(key) ? bundle.getObject(key) : null;
+			if (value instanceof String) {
+				values.put(key, (String) value);
+			}
+		}
+
+		// Resolve all templates in advance, and share the equal keys and entries
+		// with the other locales.
+		TemplateResolver resolver = new TemplateResolver(locale, values);
+		Map<String, Entry> map = new HashMap<String, Entry>(values.size() * 4 / 3 + 1);
+		for (Map.Entry<String, String> value : values.entrySet()) {
+			String key = value.getKey();
+			Entry entry = new Entry(share(value.getValue()), share(resolver.resolve(key)));
+			Entry current = ENTRIES.putIfAbsent(entry, entry);
+			map.put(share(key), current != null ? current : entry);
+		}
+		this.entries = map;
+	}
+
+	/**
+	 * Constructs an empty snapshot for {@link #MISSING}.
+	 */
+	private LocaleData() {
+		this.locale = Locale.ROOT;
+		this.section = null;
+		this.entries = Collections.emptyMap();
+	}
+
+	/**
+	 * Returns the string in the pool which is equal to the given string, adding
+	 * the string if absent.
+	 *
+	 * @param str the string, or <code>null</code>.
+	 * @return the pooled string, or <code>null</code> if <code>str</code> is
+	 *     <code>null</code>.
+	 */
+	private static String share(final String str) {
+		String pooled = str;
+		if (str != null) {
+			String current = STRINGS.putIfAbsent(str, str);
+			if (current != null) {
+				pooled = current;
+			}
+		}
+
+		return pooled;
+	}
+
+	/**
+	 * Estimates the heap size retained by this snapshot, assuming compressed oops
+	 * and compact strings. The objects in <code>counted</code> are skipped, and
+	 * the counted objects are added to it, so that a set shared by the snapshots
+	 * counts each shared object once. If <code>counted</code> is
+	 * <code>null</code>, every reference is counted as a separate copy, as if
+	 * nothing were shared.
+	 *
+	 * @param counted the identity set of the objects already counted, or
+	 *     <code>null</code>.
+	 * @return the estimated size in bytes.
+	 */
+	long estimateSize(final Set<Object> counted) {
+		// The snapshot, the map and its table.
+		long size = align(OBJECT_HEADER_SIZE + REFERENCE_SIZE * 3) + align(OBJECT_HEADER_SIZE + REFERENCE_SIZE * 4
+				+ 4 * 4) + align(ARRAY_HEADER_SIZE + (long) REFERENCE_SIZE * tableSize(entries.size()));
+		for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+			// The node of the map.
+			size += align(OBJECT_HEADER_SIZE + 4 + REFERENCE_SIZE * 3);
+			size += estimateSize(mapEntry.getKey(), counted);
+
+			Entry entry = mapEntry.getValue();
+			if (counted == null || counted.add(entry)) {
+				size += align(OBJECT_HEADER_SIZE + REFERENCE_SIZE * 2 + 2 + 4 + 1);
+				size += estimateSize(entry.value, counted);
+				if (entry.resolvedValue != entry.value) {
+					size += estimateSize(entry.resolvedValue, counted);
+				}
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * Estimates the heap size of a string.
+	 *
+	 * @param str the string, or <code>null</code>.
+	 * @param counted the identity set of the objects already counted, or
+	 *     <code>null</code>.
+	 * @return the estimated size in bytes, or <code>0</code> if already counted.
+	 */
+	private static long estimateSize(final String str, final Set<Object> counted) {
+		long size = 0;
+		if (str != null && (counted == null || counted.add(str))) {
+			boolean latin1 = true;
+			for (int i = 0; i < str.length() && latin1; i++) {
+				latin1 = str.charAt(i) <= 0xff;
+			}
+			size = align(OBJECT_HEADER_SIZE + REFERENCE_SIZE + 4 + 1 + 1)
+					+ align(ARRAY_HEADER_SIZE + (long) str.length() * (latin1 ? 1 : 2));
+		}
+
+		return size;
+	}
+
+	/**
+	 * Returns the table size of a <code>HashMap</code> holding the given number of
+	 * entries.
+	 *
+	 * @param size the number of the entries.
+	 * @return the table size.
+	 */
+	private static int tableSize(final int size) {
+		int capacity = Integer.highestOneBit(Math.max(size * 4 / 3 + 1, 1));
+		return capacity < size * 4 / 3 + 1 ? capacity * 2 : capacity;
+	}
+
+	/**
+	 * Aligns a size to 8 bytes.
+	 *
+	 * @param size the size.
+	 * @return the aligned size.
+	 */
+	private static long align(final long size) {
+		return (size + 7) & ~7L;
+	}
+
+	/**
+	 * Returns the locale of the resource bundle.
+	 *
+	 * @return the locale of the resource bundle.
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Returns the section of the locale data.
+	 *
+	 * @return the section of the locale data.
+	 */
+	public LocaleDataSection getSection() {
+		return section;
+	}
+
+	/**
+	 * Returns a string for the given <code>key</code>.
+	 *
+	 * @param key the key for the desired string.
+	 * @return the string for the given <code>key</code>.
+	 * @throws MissingResourceException if no object for the given key can be found.
+	 */
+	public String getString(final String key) throws MissingResourceException {
+		return getEntry(key).value;
+	}
+
+	/**
+	 * Returns a string for the given <code>key</code>.
+	 *
+	 * @param key the key for the desired string.
+	 * @param substitute a flag whether substitution for <code>${key}</code> within
+	 *     the string is enabled.
+	 * @return the string for the given <code>key</code>.
+	 * @throws MissingResourceException if no object for the given <code>key</code> or
+	 *     any key to be substituted can be found.
+	 */
+	public String getString(final String key, final boolean substitute) throws MissingResourceException {
+		Entry entry = getEntry(key);
+
+		String value = entry.value;
+		if (substitute) {
+			value = entry.resolvedValue;
+			if (value == null) {
+				throw new MissingResourceException("Can't resolve resource for bundle "
+						+ ResourceBundle.class.getName() + ", key " + key, ResourceBundle.class.getName(), key);
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns a string for the given <code>key</code>, or <code>null</code> if the
+	 * key isn't contained. Unlike {@link #getString(String)}, a miss costs a
+	 * single hash probe and throws no exception.
+	 *
+	 * @param key the key for the desired string.
+	 * @return the string for the given <code>key</code>, or <code>null</code> if
+	 *     the key is <code>null</code> or isn't contained.
+	 */
+	public String findString(final String key) {
+		Entry entry = key != null ? entries.get(key) : null;
+		return entry != null ? entry.value : null;
+	}
+
+	/**
+	 * Returns a string for the given <code>key</code>, or <code>null</code> if the
+	 * key isn't contained. Unlike {@link #getString(String, boolean)}, a miss
+	 * costs a single hash probe and throws no exception.
+	 *
+	 * @param key the key for the desired string.
+	 * @param substitute a flag whether substitution for <code>${key}</code> within
+	 *     the string is enabled.
+	 * @return the string for the given <code>key</code>, or <code>null</code> if
+	 *     the key is <code>null</code> or isn't contained, or if any key to be
+	 *     substituted can't be found.
+	 */
+	public String findString(final String key, final boolean substitute) {
+		Entry entry = key != null ? entries.get(key) : null;
+
+		String value = null;
+		if (entry != null) {
+			value = substitute ? entry.resolvedValue : entry.value;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns a <code>char</code> value for the given <code>key</code>.
+	 *
+	 * @param key the key for the desired <code>char</code> value.
+	 * @return the <code>char</code> value for the given <code>key</code>.
+	 * @throws MissingResourceException if no object for the given key can be found.
+	 */
+	public char getChar(final String key) throws MissingResourceException {
+		return getEntry(key).charValue;
+	}
+
+	/**
+	 * Returns a <code>int</code> value for the given <code>key</code>.
+	 *
+	 * @param key the key for the desired <code>int</code> value.
+	 * @return the <code>int</code> value for the given <code>key</code>.
+	 * @throws MissingResourceException if no object for the given key can be found.
+	 */
+	public int getInt(final String key) throws MissingResourceException {
+		Entry entry = getEntry(key);
+
+		int value = entry.intValue;
+		if (!entry.isInt && !entry.value.isEmpty()) {
+			// Parse again only in order to report the invalid value.
+			try {
+				value = Integer.parseInt(entry.value);
+			} catch (NumberFormatException e) {
+				LOG.warning(e.getMessage());
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Determines whether the given <code>key</code> is contained in this snapshot.
+	 *
+	 * @param key possible key.
+	 * @return <code>true</code> if the given <code>key</code> is contained;
+	 *     <code>false</code> otherwise.
+	 */
+	public boolean containsKey(final String key) {
+		return key != null && entries.containsKey(key);
+	}
+
+	/**
+	 * Determines whether the given <code>key</code> is contained in this snapshot.
+	 *
+	 * @param key possible key.
+	 * @param substitute a flag whether substitution for <code>${key}</code> within
+	 *     the string is enabled.
+	 * @return <code>true</code> if the given <code>key</code> and the keys to be
+	 *     substituted within the string are contained; <code>false</code> otherwise.
+	 */
+	public boolean containsKey(final String key, final boolean substitute) {
+		boolean contain = false;
+
+		if (key != null) {
+			Entry entry = entries.get(key);
+			contain = entry != null && (!substitute || entry.resolvedValue != null);
+		}
+
+		return contain;
+	}
+
+	/**
+	 * Returns a set of all keys contained in this snapshot.
+	 *
+	 * @return an unmodifiable set of the keys.
+	 */
+	public Set<String> keySet() {
+		return Collections.unmodifiableSet(entries.keySet());
+	}
+
+	/**
+	 * Returns an enumeration of all keys contained in this snapshot.
+	 *
+	 * @return an <code>Enumeration</code> of the keys.
+	 */
+	public Enumeration<String> getKeys() {
+		return Collections.enumeration(entries.keySet());
+	}
+
+	/**
+	 * Returns the entry for the given <code>key</code>.
+	 *
+	 * @param key the key for the desired entry.
+	 * @return the entry for the given <code>key</code>.
+	 * @throws MissingResourceException if no object for the given key can be found.
+	 */
+	private Entry getEntry(final String key) throws MissingResourceException {
+		if (key == null) {
+			throw new NullPointerException("key:null");
+		}
+
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			throw new MissingResourceException("Can't find resource for bundle "
+					+ ResourceBundle.class.getName() + ", key " + key, ResourceBundle.class.getName(), key);
+		}
+
+		return entry;
+	}
+
+	/**
+	 * A value of the resource bundle with its typed representations.
+	 */
+	private static final class Entry {
+
+		/**
+		 * The string value.
+		 */
+		private final String value;
+
+		/**
+		 * The value whose substitutions are resolved, or <code>null</code> if it
+		 * can't be resolved.
+		 */
+		private final String resolvedValue;
+
+		/**
+		 * The first character of the value, or <code>0</code> if the value is empty.
+		 */
+		private final char charValue;
+
+		/**
+		 * The <code>int</code> representation of the value, or <code>0</code> if the
+		 * value isn't a decimal integer.
+		 */
+		private final int intValue;
+
+		/**
+		 * A flag whether the value is a decimal integer.
+		 */
+		private final boolean isInt;
+
+		/**
+		 * Constructs an entry for the given value.
+		 *
+		 * @param value the string value.
+		 * @param resolvedValue the value whose substitutions are resolved.
+		 */
+		Entry(final String value, final String resolvedValue) {
+			this.value = value;
+			this.resolvedValue = resolvedValue;
+			this.charValue = value.isEmpty() ? 0 : value.charAt(0);
+
+			int parsed = 0;
+			boolean valid = isDecimalInteger(value);
+			if (valid) {
+				try {
+					parsed = Integer.parseInt(value);
+				} catch (NumberFormatException e) {
+					// Out of range.
+					valid = false;
+				}
+			}
+			this.intValue = parsed;
+			this.isInt = valid;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(final Object obj) {
+			boolean equal = obj == this;
+			if (!equal && obj instanceof Entry) {
+				Entry other = (Entry) obj;
+				equal = value.equals(other.value) && (resolvedValue == null ? other.resolvedValue == null
+						: resolvedValue.equals(other.resolvedValue));
+			}
+
+			return equal;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			return value.hashCode() * 31 + (resolvedValue == null ? 0 : resolvedValue.hashCode());
+		}
+
+		/**
+		 * Determines whether the given string looks like a decimal integer, in order
+		 * to avoid throwing an exception for each non-numeric value.
+		 *
+		 * @param str the string to be examined.
+		 * @return <code>true</code> if the string consists of an optional sign and
+		 *     decimal digits; <code>false</code> otherwise.
+		 */
+		private static boolean isDecimalInteger(final String str) {
+			int length = str.length();
+			int start = 0;
+			if (length > 0 && (str.charAt(0) == '-' || str.charAt(0) == '+')) {
+				start = 1;
+			}
+
+			boolean valid = start < length;
+			for (int i = start; valid && i < length; i++) {
+				valid = Character.digit(str.charAt(i), 10) >= 0;
+			}
+
+			return valid;
+		}
+	}
+}
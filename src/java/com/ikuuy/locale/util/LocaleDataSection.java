@@ -0,0 +1,124 @@
+package com.ikuuy.locale.util;
+
+/**
+ * A section of the locale data, which groups the keys used by the same kind of
+ * providers. The locale data is split into the sections at build time, and each
+ * section is loaded only when one of its keys is requested first, so that a
+ * provider doesn't load the data of the other providers.
+ * <p>
+ * A key belongs to a section by the part before its first dot, and the keys of
+ * no other section belong to {@link #SYMBOLS}. The substitutions for
+ * <code>${key}</code> are resolved within a section.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public enum LocaleDataSection {
+
+	/**
+	 * The calendar data, the calendar names and the date format patterns.
+	 */
+	CALENDAR("calendar", "AmPmStrings", "Calendar", "DateFormat", "DateTimeFormat", "Eras", "FirstDayOfWeek",
+			"LocalPatternChars", "MinimalDaysInFirstWeek", "Months", "ShortMonths", "ShortWeekdays", "TimeFormat",
+			"Weekdays"),
+
+	/**
+	 * The decimal format symbols and the number format patterns.
+	 */
+	SYMBOLS("symbols"),
+
+	/**
+	 * The names of the languages, the countries, the scripts and the variants.
+	 */
+	LOCALE_NAMES("localenames", "Country", "Language", "Script", "Variant"),
+
+	/**
+	 * The currency symbols and names.
+	 */
+	CURRENCY("currency", "Currency"),
+
+	/**
+	 * The time zone names.
+	 */
+	ZONES("zones", "ZoneStrings"),
+
+	/**
+	 * The tailoring rules of the collator.
+	 */
+	COLLATION("collation", "CollatorRules");
+
+	/**
+	 * All sections, in order not to copy the array on each lookup.
+	 */
+	private static final LocaleDataSection[] SECTIONS = values();
+
+	/**
+	 * The name of this section, which is used for the names of the bundles.
+	 */
+	private final String name;
+
+	/**
+	 * The first parts of the keys which belong to this section.
+	 */
+	private final String[] prefixes;
+
+	/**
+	 * Constructs a section.
+	 *
+	 * @param name the name of the section.
+	 * @param prefixes the first parts of the keys which belong to the section.
+	 */
+	private LocaleDataSection(final String name, final String... prefixes) {
+		this.name = name;
+		this.prefixes = prefixes;
+	}
+
+	/**
+	 * Returns the name of this section, which is a valid package name.
+	 *
+	 * @return the name of this section.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the section which the given <code>key</code> belongs to.
+	 *
+	 * @param key the key.
+	 * @return the section of the key.
+	 */
+	public static LocaleDataSection of(final String key) {
+		if (key == null) {
+			throw new NullPointerException("key:null");
+		}
+
+		int end = key.indexOf('.');
+		if (end < 0) {
+			end = key.length();
+		}
+
+		LocaleDataSection section = SYMBOLS;
+		for (LocaleDataSection candidate : SECTIONS) {
+			for (String prefix : candidate.prefixes) {
+				if (prefix.length() == end && key.startsWith(prefix)) {
+					section = candidate;
+					break;
+				}
+			}
+		}
+
+		return section;
+	}
+
+	/**
+	 * Determines whether the given <code>key</code> belongs to this section.
+	 *
+	 * @param key possible key.
+	 * @return <code>true</code> if the key belongs to this section;
+	 *     <code>false</code> otherwise.
+	 */
+	public boolean contains(final String key) {
+		return of(key) == this;
+	}
+}
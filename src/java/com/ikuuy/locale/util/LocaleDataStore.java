@@ -0,0 +1,464 @@
+package com.ikuuy.locale.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.ResourceBundle.Control;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A read-only store of the locale data, which is packed at build time into a
+ * single binary file of a deduplicated UTF-8 string pool and a sorted table of
+ * the key and value indexes for each bundle. The file is mapped into memory,
+ * so that the processes on a host share the page cache, and the strings are
+ * decoded only on lookup, once for all bundles.
+ * <p>
+ * The store provides the bundles of each {@link LocaleDataSection section}
+ * with the same parent chains as the properties files, so that a
+ * {@link LocaleData} built from them is identical.
+ *
+ * @author Yuki Yamada
+ *
+ */
+final class LocaleDataStore {
+
+	/**
+	 * The magic number of the file.
+	 */
+	private static final int MAGIC = 0x454c4453;
+
+	/**
+	 * The version of the file format.
+	 */
+	private static final int VERSION = 2;
+
+	/**
+	 * The size of the header.
+	 */
+	private static final int HEADER_SIZE = 16;
+
+	/**
+	 * A control to get the candidate locales and the bundle names.
+	 */
+	private static final Control CONTROL = Control.getNoFallbackControl(Control.FORMAT_DEFAULT);
+
+	/**
+	 * The content of the file.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * The number of the strings.
+	 */
+	private final int stringCount;
+
+	/**
+	 * The decoded strings, which are shared by all bundles.
+	 */
+	private final AtomicReferenceArray<String> strings;
+
+	/**
+	 * A map from a bundle name to the index of the bundle.
+	 */
+	private final Map<String, Integer> bundleIndexes;
+
+	/**
+	 * Constructs a store on the content of the file.
+	 *
+	 * @param buffer the content of the file.
+	 * @throws IOException if the content is broken.
+	 */
+	private LocaleDataStore(final ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("Unknown format of the locale data store");
+		}
+		this.stringCount = buffer.getInt(8);
+		this.strings = new AtomicReferenceArray<String>(stringCount);
+		int bundleCount = buffer.getInt(12);
+		this.bundleIndexes = new HashMap<String, Integer>(bundleCount * 2);
+		for (int i = 0; i < bundleCount; i++) {
+			bundleIndexes.put(getString(buffer.getInt(getBundleOffset(i))), Integer.valueOf(i));
+		}
+	}
+
+	/**
+	 * Opens a store by mapping a file into memory.
+	 *
+	 * @param file the file.
+	 * @return the store.
+	 * @throws IOException if an I/O error occurs or the content is broken.
+	 */
+	static LocaleDataStore open(final File file) throws IOException {
+		LocaleDataStore store;
+
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			store = new LocaleDataStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			// The mapping remains valid after the file is closed.
+			raf.close();
+		}
+
+		return store;
+	}
+
+	/**
+	 * Opens a store by reading a stream, which is used if the file is inside an
+	 * archive and can't be mapped.
+	 *
+	 * @param in the stream.
+	 * @return the store.
+	 * @throws IOException if an I/O error occurs or the content is broken.
+	 */
+	static LocaleDataStore open(final InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+		byte[] bytes = new byte[8192];
+		int length;
+		while ((length = in.read(bytes)) >= 0) {
+			out.write(bytes, 0, length);
+		}
+		byte[] content = out.toByteArray();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+		buffer.put(content);
+
+		return new LocaleDataStore(buffer.asReadOnlyBuffer());
+	}
+
+	/**
+	 * Returns the bundle for the given locale, whose parents are the bundles of
+	 * the candidate locales.
+	 *
+	 * @param baseName the base name of the bundles, such as
+	 *     <code>zones.ExtLocales</code>.
+	 * @param locale the desired locale.
+	 * @return the bundle, or <code>null</code> if none of the candidate locales
+	 *     has a bundle.
+	 */
+	ResourceBundle getBundle(final String baseName, final Locale locale) {
+		StoreBundle first = null;
+		StoreBundle last = null;
+
+		List<Locale> candidateLocales = CONTROL.getCandidateLocales(baseName, locale);
+		for (Locale candidateLocale : candidateLocales) {
+			Integer index = bundleIndexes.get(CONTROL.toBundleName(baseName, candidateLocale));
+			if (index != null) {
+				StoreBundle bundle = new StoreBundle(this, index.intValue(), candidateLocale);
+				if (last == null) {
+					first = bundle;
+				} else {
+					last.setParent(bundle);
+				}
+				last = bundle;
+			}
+		}
+
+		return first;
+	}
+
+	/**
+	 * Returns the offset of the record of a bundle.
+	 *
+	 * @param bundleIndex the index of the bundle.
+	 * @return the offset of the record.
+	 */
+	private int getBundleOffset(final int bundleIndex) {
+		return HEADER_SIZE + (stringCount + 1) * 4 + bundleIndex * 12;
+	}
+
+	/**
+	 * Returns the number of the entries of a bundle.
+	 *
+	 * @param bundleIndex the index of the bundle.
+	 * @return the number of the entries.
+	 */
+	int getEntryCount(final int bundleIndex) {
+		return buffer.getInt(getBundleOffset(bundleIndex) + 4);
+	}
+
+	/**
+	 * Returns the index of the key of an entry.
+	 *
+	 * @param bundleIndex the index of the bundle.
+	 * @param entryIndex the index of the entry.
+	 * @return the index of the key string.
+	 */
+	int getKeyIndex(final int bundleIndex, final int entryIndex) {
+		return buffer.getInt(buffer.getInt(getBundleOffset(bundleIndex) + 8) + entryIndex * 8);
+	}
+
+	/**
+	 * Returns the index of the value of an entry.
+	 *
+	 * @param bundleIndex the index of the bundle.
+	 * @param entryIndex the index of the entry.
+	 * @return the index of the value string.
+	 */
+	int getValueIndex(final int bundleIndex, final int entryIndex) {
+		return buffer.getInt(buffer.getInt(getBundleOffset(bundleIndex) + 8) + entryIndex * 8 + 4);
+	}
+
+	/**
+	 * Looks up the value for a key in a bundle by a binary search, comparing the
+	 * key with the pooled bytes unless the key has already been decoded.
+	 *
+	 * @param bundleIndex the index of the bundle.
+	 * @param key the key.
+	 * @return the index of the value string, or <code>-1</code> if not found.
+	 */
+	int find(final int bundleIndex, final String key) {
+		int valueIndex = -1;
+
+		int low = 0;
+		int high = getEntryCount(bundleIndex) - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int keyIndex = getKeyIndex(bundleIndex, middle);
+			String decodedKey = strings.get(keyIndex);
+			int comparison = decodedKey != null ? decodedKey.compareTo(key) : compare(keyIndex, key);
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				valueIndex = getValueIndex(bundleIndex, middle);
+				break;
+			}
+		}
+
+		return valueIndex;
+	}
+
+	/**
+	 * Compares a pooled string with a string in the order of
+	 * {@link String#compareTo(String)}.
+	 *
+	 * @param stringIndex the index of the pooled string.
+	 * @param s the string.
+	 * @return a negative integer, zero, or a positive integer as the pooled string
+	 *     is less than, equal to, or greater than the string.
+	 */
+	private int compare(final int stringIndex, final String s) {
+		int comparison = 0;
+
+		int position = buffer.getInt(HEADER_SIZE + stringIndex * 4);
+		int end = buffer.getInt(HEADER_SIZE + stringIndex * 4 + 4);
+		int i = 0;
+		int pendingLow = -1;
+		while (comparison == 0 && (position < end || pendingLow >= 0) && i < s.length()) {
+			char c;
+			if (pendingLow >= 0) {
+				c = (char) pendingLow;
+				pendingLow = -1;
+			} else {
+				int codePoint = decode(position);
+				position += getSequenceLength(buffer.get(position));
+				if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+					int offset = codePoint - Character.MIN_SUPPLEMENTARY_CODE_POINT;
+					c = (char) (Character.MIN_HIGH_SURROGATE + (offset >>> 10));
+					pendingLow = Character.MIN_LOW_SURROGATE + (offset & 0x3ff);
+				} else {
+					c = (char) codePoint;
+				}
+			}
+			comparison = c - s.charAt(i);
+			i++;
+		}
+		if (comparison == 0) {
+			boolean remaining = position < end || pendingLow >= 0;
+			comparison = remaining ? 1 : (i < s.length() ? -1 : 0);
+		}
+
+		return comparison;
+	}
+
+	/**
+	 * Returns a pooled string. The string is decoded on the first request and
+	 * shared afterwards, so that a value which appears in many bundles exists
+	 * once in the heap.
+	 *
+	 * @param stringIndex the index of the string.
+	 * @return the string.
+	 */
+	String getString(final int stringIndex) {
+		String string = strings.get(stringIndex);
+		if (string == null) {
+			string = decodeString(stringIndex);
+			if (!strings.compareAndSet(stringIndex, null, string)) {
+				string = strings.get(stringIndex);
+			}
+		}
+
+		return string;
+	}
+
+	/**
+	 * Decodes a pooled string.
+	 *
+	 * @param stringIndex the index of the string.
+	 * @return the string.
+	 */
+	private String decodeString(final int stringIndex) {
+		int position = buffer.getInt(HEADER_SIZE + stringIndex * 4);
+		int end = buffer.getInt(HEADER_SIZE + stringIndex * 4 + 4);
+
+		StringBuilder builder = new StringBuilder(end - position);
+		while (position < end) {
+			builder.appendCodePoint(decode(position));
+			position += getSequenceLength(buffer.get(position));
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Decodes a UTF-8 sequence.
+	 *
+	 * @param position the position of the first byte.
+	 * @return the code point.
+	 */
+	private int decode(final int position) {
+		int b = buffer.get(position) & 0xff;
+		int codePoint;
+		if (b < 0x80) {
+			codePoint = b;
+		} else if (b < 0xe0) {
+			codePoint = ((b & 0x1f) << 6) | (buffer.get(position + 1) & 0x3f);
+		} else if (b < 0xf0) {
+			codePoint = ((b & 0x0f) << 12) | ((buffer.get(position + 1) & 0x3f) << 6)
+					| (buffer.get(position + 2) & 0x3f);
+		} else {
+			codePoint = ((b & 0x07) << 18) | ((buffer.get(position + 1) & 0x3f) << 12)
+					| ((buffer.get(position + 2) & 0x3f) << 6) | (buffer.get(position + 3) & 0x3f);
+		}
+
+		return codePoint;
+	}
+
+	/**
+	 * Returns the length of a UTF-8 sequence.
+	 *
+	 * @param first the first byte of the sequence.
+	 * @return the number of the bytes.
+	 */
+	private static int getSequenceLength(final byte first) {
+		int b = first & 0xff;
+		int length;
+		if (b < 0x80) {
+			length = 1;
+		} else if (b < 0xe0) {
+			length = 2;
+		} else if (b < 0xf0) {
+			length = 3;
+		} else {
+			length = 4;
+		}
+
+		return length;
+	}
+
+	/**
+	 * A bundle whose entries are looked up in the store.
+	 */
+	private static final class StoreBundle extends ResourceBundle {
+
+		/**
+		 * The store.
+		 */
+		private final LocaleDataStore store;
+
+		/**
+		 * The index of the bundle in the store.
+		 */
+		private final int bundleIndex;
+
+		/**
+		 * The locale of the bundle.
+		 */
+		private final Locale locale;
+
+		/**
+		 * Constructs a bundle.
+		 *
+		 * @param store the store.
+		 * @param bundleIndex the index of the bundle in the store.
+		 * @param locale the locale of the bundle.
+		 */
+		StoreBundle(final LocaleDataStore store, final int bundleIndex, final Locale locale) {
+			this.store = store;
+			this.bundleIndex = bundleIndex;
+			this.locale = locale;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected void setParent(final ResourceBundle parent) {
+			super.setParent(parent);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Locale getLocale() {
+			return locale;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected Object handleGetObject(final String key) {
+			if (key == null) {
+				throw new NullPointerException("key:null");
+			}
+
+			int valueIndex = store.find(bundleIndex, key);
+			return valueIndex >= 0 ? store.getString(valueIndex) : null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected Set<String> handleKeySet() {
+			int entryCount = store.getEntryCount(bundleIndex);
+			Set<String> keys = new HashSet<String>(entryCount * 4 / 3 + 1);
+			for (int i = 0; i < entryCount; i++) {
+				keys.add(store.getString(store.getKeyIndex(bundleIndex, i)));
+			}
+
+			return keys;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Enumeration<String> getKeys() {
+			Set<String> keys = new HashSet<String>(handleKeySet());
+			if (parent != null) {
+				keys.addAll(Collections.list(parent.getKeys()));
+			}
+
+			return Collections.enumeration(keys);
+		}
+	}
+}
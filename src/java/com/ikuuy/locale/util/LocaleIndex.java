@@ -0,0 +1,110 @@
+package com.ikuuy.locale.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.ResourceBundle.Control;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An index from a locale to the supported locale which it is resolved to. The
+ * supported locales are registered at construction, and the other locales are
+ * resolved through their candidate locales and added on the first request.
+ *
+ * @author Yuki Yamada
+ *
+ */
+final class LocaleIndex {
+
+	/**
+	 * The maximum number of the resolved locales to be cached in addition to the
+	 * supported locales, in order not to be exhausted by arbitrary locales.
+	 */
+	private static final int MAX_CACHED_LOCALES = 1024;
+
+	/**
+	 * A control to get the candidate locales without the fallback locale.
+	 */
+	private static final Control CONTROL = Control.getNoFallbackControl(Control.FORMAT_DEFAULT);
+
+	/**
+	 * A marker for the locales which can't be resolved to any supported locale.
+	 * Compared only by identity.
+	 */
+	private static final Locale UNSUPPORTED = new Locale("", "", "");
+
+	/**
+	 * A set of the supported locales.
+	 */
+	private final Set<Locale> locales;
+
+	/**
+	 * An array of the supported locales.
+	 */
+	private final Locale[] localeArray;
+
+	/**
+	 * A map from a locale to the supported locale which it is resolved to.
+	 */
+	private final ConcurrentMap<Locale, Locale> resolved;
+
+	/**
+	 * Constructs an index for the given supported locales.
+	 *
+	 * @param locales the supported locales.
+	 */
+	LocaleIndex(final Collection<Locale> locales) {
+		this.locales = new HashSet<Locale>(locales);
+		this.localeArray = this.locales.toArray(new Locale[this.locales.size()]);
+		this.resolved = new ConcurrentHashMap<Locale, Locale>();
+		for (Locale locale : this.locales) {
+			resolved.put(locale, locale);
+		}
+	}
+
+	/**
+	 * Returns an array of the supported locales.
+	 *
+	 * @return a copy of the cached array of the supported locales.
+	 */
+	Locale[] getLocales() {
+		return localeArray.clone();
+	}
+
+	/**
+	 * Returns the supported locale which the given <code>locale</code> is resolved
+	 * to. The first candidate locale which is supported is chosen.
+	 *
+	 * @param locale the desired locale.
+	 * @return the supported locale, or <code>null</code> if none of the candidate
+	 *     locales is supported.
+	 */
+	Locale resolve(final Locale locale) {
+		Locale target = null;
+
+		if (locale != null) {
+			target = resolved.get(locale);
+			if (target == null) {
+				target = UNSUPPORTED;
+				List<Locale> candidateLocales = CONTROL.getCandidateLocales("", locale);
+				for (Locale candidateLocale : candidateLocales) {
+					if (locales.contains(candidateLocale)) {
+						target = candidateLocale;
+						break;
+					}
+				}
+				if (resolved.size() < locales.size() + MAX_CACHED_LOCALES) {
+					resolved.putIfAbsent(locale, target);
+				}
+			}
+			if (target == UNSUPPORTED) {
+				target = null;
+			}
+		}
+
+		return target;
+	}
+}
@@ -0,0 +1,143 @@
+package com.ikuuy.locale.util;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * A resolver for the substitution of <code>${key}</code> within the values of a
+ * resource bundle. Each template is resolved only once including the nested
+ * references, and a circular reference makes the template unresolvable.
+ *
+ * @author Yuki Yamada
+ *
+ */
+final class TemplateResolver {
+
+	/**
+	 * A global logger.
+	 */
+	private static final Logger LOG = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+
+	/**
+	 * A marker for the template being resolved. Compared only by identity.
+	 */
+	private static final String RESOLVING = new String("RESOLVING");
+
+	/**
+	 * A marker for the template which can't be resolved. Compared only by identity.
+	 */
+	private static final String UNRESOLVABLE = new String("UNRESOLVABLE");
+
+	/**
+	 * The locale of the values, used for the log messages.
+	 */
+	private final Locale locale;
+
+	/**
+	 * A map from a key to its raw value.
+	 */
+	private final Map<String, String> values;
+
+	/**
+	 * A map from a key to its resolved value or one of the markers.
+	 */
+	private final Map<String, String> resolved;
+
+	/**
+	 * Constructs a resolver for the given values.
+	 *
+	 * @param locale the locale of the values.
+	 * @param values a map from a key to its raw value.
+	 */
+	TemplateResolver(final Locale locale, final Map<String, String> values) {
+		this.locale = locale;
+		this.values = values;
+		this.resolved = new HashMap<String, String>();
+	}
+
+	/**
+	 * Determines whether the given value contains a substitution.
+	 *
+	 * @param value the value to be examined.
+	 * @return <code>true</code> if the value may contain <code>${key}</code>;
+	 *     <code>false</code> otherwise.
+	 */
+	static boolean isTemplate(final String value) {
+		return value.indexOf("${") >= 0;
+	}
+
+	/**
+	 * Returns the resolved value for the given <code>key</code>.
+	 *
+	 * @param key the key for the desired value.
+	 * @return the resolved value, or <code>null</code> if the key or any key to be
+	 *     substituted can't be found, or if the references are circular.
+	 */
+	String resolve(final String key) {
+		String value = resolved.get(key);
+
+		if (value == null) {
+			String rawValue = values.get(key);
+			if (rawValue == null) {
+				value = UNRESOLVABLE;
+			} else if (!isTemplate(rawValue)) {
+				value = rawValue;
+			} else {
+				resolved.put(key, RESOLVING);
+				value = substitute(key, rawValue);
+			}
+			resolved.put(key, value);
+		} else if (value == RESOLVING) {
+			LOG.warning("Circular reference: locale:" + locale + ", key:" + key);
+			value = UNRESOLVABLE;
+		}
+
+		return value == UNRESOLVABLE ? null : value;
+	}
+
+	/**
+	 * Substitutes all <code>${key}</code> within the given template.
+	 *
+	 * @param key the key of the template.
+	 * @param template the template to be substituted.
+	 * @return the substituted value, or {@link #UNRESOLVABLE} if any reference
+	 *     can't be resolved.
+	 */
+	private String substitute(final String key, final String template) {
+		StringBuilder buf = new StringBuilder(template.length() + 16);
+		int length = template.length();
+		int start = 0;
+		boolean valid = true;
+
+		int index = template.indexOf("${");
+		while (valid && index >= 0) {
+			int end = template.indexOf('}', index + 2);
+			if (end < 0) {
+				// No more references.
+				break;
+			} else if (end == index + 2) {
+				// An empty reference is left as it is.
+				index = template.indexOf("${", index + 1);
+			} else {
+				String replacement = resolve(template.substring(index + 2, end));
+				if (replacement == null) {
+					valid = false;
+				} else {
+					buf.append(template, start, index).append(replacement);
+					start = end + 1;
+					index = template.indexOf("${", start);
+				}
+			}
+		}
+
+		String value = UNRESOLVABLE;
+		if (valid) {
+			buf.append(template, start, length);
+			value = buf.toString();
+		}
+
+		return value;
+	}
+}
@@ -0,0 +1,187 @@
+package com.ikuuy.locale.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An immutable table of the localized time zone names for a locale. All names
+ * of a time zone are held in a single record, and the time zones with the same
+ * names such as the aliases share the record, so that a lookup costs a single
+ * hash probe. The records are also shared with the tables of the other locales,
+ * such as a regional locale repeating the names of its parent.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class TimeZoneNames {
+
+	/**
+	 * The index of the long standard name within a record.
+	 */
+	public static final int STANDARD_LONG = 0;
+
+	/**
+	 * The index of the short standard name within a record.
+	 */
+	public static final int STANDARD_SHORT = 1;
+
+	/**
+	 * The index of the long daylight saving name within a record.
+	 */
+	public static final int DAYLIGHT_LONG = 2;
+
+	/**
+	 * The index of the short daylight saving name within a record.
+	 */
+	public static final int DAYLIGHT_SHORT = 3;
+
+	/**
+	 * The index of the long generic name within a record.
+	 */
+	public static final int GENERIC_LONG = 4;
+
+	/**
+	 * The index of the short generic name within a record.
+	 */
+	public static final int GENERIC_SHORT = 5;
+
+	/**
+	 * A pool of the time zone IDs shared by the tables of all locales.
+	 */
+	private static final ConcurrentMap<String, String> IDS = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * A pool of the records shared by the tables of all locales, keyed by their
+	 * names.
+	 */
+	private static final ConcurrentMap<List<String>, String[]> RECORDS =
+			new ConcurrentHashMap<List<String>, String[]>();
+
+	/**
+	 * The prefix for the property keys of the time zone names.
+	 */
+	private static final String PREFIX = "ZoneStrings.";
+
+	/**
+	 * The suffixes for the property keys, in the order of the indexes within a
+	 * record.
+	 */
+	private static final String[] SUFFIXES = { ".STANDARD.LONG", ".STANDARD.SHORT", ".DAYLIGHT.LONG",
+			".DAYLIGHT.SHORT", ".GENERIC.LONG", ".GENERIC.SHORT" };
+
+	/**
+	 * The locale of the names.
+	 */
+	private final Locale locale;
+
+	/**
+	 * A map from a time zone ID to its record.
+	 */
+	private final Map<String, String[]> records;
+
+	/**
+	 * Constructs a table from the given locale data.
+	 *
+	 * @param data the locale data.
+	 */
+	TimeZoneNames(final LocaleData data) {
+		this.locale = data.getLocale();
+
+		Map<String, String[]> map = new HashMap<String, String[]>();
+		for (String key : data.keySet()) {
+			if (key.startsWith(PREFIX)) {
+				for (int i = 0; i < SUFFIXES.length; i++) {
+					if (key.endsWith(SUFFIXES[i]) && key.length() > PREFIX.length() + SUFFIXES[i].length()) {
+						String value = data.findString(key, true);
+						if (value != null) {
+							String id = key.substring(PREFIX.length(), key.length() - SUFFIXES[i].length());
+							String[] record = map.get(id);
+							if (record == null) {
+								record = new String[SUFFIXES.length];
+								map.put(id, record);
+							}
+							record[i] = value;
+						}
+						break;
+					}
+				}
+			}
+		}
+
+		// Share the IDs and the records with the same names across the locales.
+		Map<String, String[]> sharedMap = new HashMap<String, String[]>(map.size() * 4 / 3 + 1);
+		for (Map.Entry<String, String[]> entry : map.entrySet()) {
+			String id = entry.getKey();
+			String currentId = IDS.putIfAbsent(id, id);
+			String[] record = entry.getValue();
+			String[] currentRecord = RECORDS.putIfAbsent(Arrays.asList(record), record);
+			sharedMap.put(currentId != null ? currentId : id, currentRecord != null ? currentRecord : record);
+		}
+		this.records = sharedMap;
+	}
+
+	/**
+	 * Returns the locale of the names.
+	 *
+	 * @return the locale of the names.
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Returns the localized name of the given time zone.
+	 *
+	 * @param id the time zone ID.
+	 * @param index the index of the name within a record, such as
+	 *     {@link #STANDARD_LONG}.
+	 * @return the localized name, or <code>null</code> if the name isn't
+	 *     available.
+	 * @throws IllegalArgumentException if <code>index</code> is invalid.
+	 * @throws NullPointerException if <code>id</code> is <code>null</code>.
+	 */
+	public String getName(final String id, final int index) throws IllegalArgumentException, NullPointerException {
+		if (id == null) {
+			throw new NullPointerException("id:null");
+		} else if (index < 0 || index >= SUFFIXES.length) {
+			throw new IllegalArgumentException("index:" + index);
+		}
+
+		String[] record = records.get(id);
+		return record != null ? record[index] : null;
+	}
+
+	/**
+	 * Returns the localized names of the given time zone.
+	 *
+	 * @param id the time zone ID.
+	 * @return a copy of the record of the names, whose elements are
+	 *     <code>null</code> if the names aren't available, or <code>null</code> if
+	 *     no name of the time zone is available.
+	 * @throws NullPointerException if <code>id</code> is <code>null</code>.
+	 */
+	public String[] getNames(final String id) throws NullPointerException {
+		if (id == null) {
+			throw new NullPointerException("id:null");
+		}
+
+		String[] record = records.get(id);
+		return record != null ? record.clone() : null;
+	}
+
+	/**
+	 * Returns a set of the time zone IDs which have any localized name.
+	 *
+	 * @return an unmodifiable set of the time zone IDs.
+	 */
+	public Set<String> getIDs() {
+		return Collections.unmodifiableSet(records.keySet());
+	}
+}
@@ -0,0 +1,219 @@
+package com.ikuuy.locale.format;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.time.format.FormatStyle;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link BulkFormatter} writes the chunks formatted in parallel in
+ * the original order, with the same output as formatting the values one by one.
+ * The tests need the providers of this library through the SPI, with
+ * <code>-Djava.locale.providers=SPI,CLDR,COMPAT</code>.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public class BulkFormatterTest {
+
+	/**
+	 * The locale with the Extended Arabic-Indic digits.
+	 */
+	private static final Locale FA = new Locale("fa", "IR");
+
+	/**
+	 * The parallelism of the pool.
+	 */
+	private static final int PARALLELISM = 4;
+
+	/**
+	 * The number of the values in a chunk.
+	 */
+	private static final int CHUNK_SIZE = 7;
+
+	/**
+	 * The number of the values, which spans several windows of the chunks in
+	 * flight and ends with a partial chunk.
+	 */
+	private static final int LENGTH = CHUNK_SIZE * PARALLELISM * 2 * 5 + 3;
+
+	/**
+	 * The text which follows each value.
+	 */
+	private static final String SEPARATOR = "\n";
+
+	/**
+	 * The scale of the fixed-point values.
+	 */
+	private static final int SCALE = 2;
+
+	/**
+	 * The pool which formats the chunks.
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * The bulk formatter which splits the input into chunks.
+	 */
+	private BulkFormatter parallel;
+
+	/**
+	 * The bulk formatter which formats the input by the calling thread.
+	 */
+	private BulkFormatter sequential;
+
+	/**
+	 * The <code>long</code> values.
+	 */
+	private long[] values;
+
+	/**
+	 * The <code>double</code> values.
+	 */
+	private double[] doubleValues;
+
+	/**
+	 * Creates the pool and the values.
+	 */
+	@Before
+	public void setUp() {
+		pool = new ForkJoinPool(PARALLELISM);
+		parallel = new BulkFormatter(pool, CHUNK_SIZE);
+		sequential = new BulkFormatter(pool, LENGTH);
+
+		Random random = new Random(LENGTH);
+		values = new long[LENGTH];
+		doubleValues = new double[LENGTH];
+		for (int i = 0; i < LENGTH; i++) {
+			// The first values are in ascending order, so that a swapped chunk is
+			// obvious in the message.
+			values[i] = i < CHUNK_SIZE * PARALLELISM * 2 ? i : random.nextLong() >> random.nextInt(64);
+			doubleValues[i] = values[i] / 8.0;
+		}
+	}
+
+	/**
+	 * Shuts down the pool.
+	 */
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Tests the <code>long</code> values.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void testFormatLongs() throws IOException {
+		LocalizedNumberFormatter formatter = LocalizedNumberFormatter.getNumberInstance(FA);
+		StringBuilder expected = new StringBuilder();
+		for (long value : values) {
+			expected.append(formatter.format(value)).append(SEPARATOR);
+		}
+
+		StringBuilder out = new StringBuilder();
+		sequential.formatLongs(formatter, values, SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+
+		out = new StringBuilder();
+		parallel.formatLongs(formatter, values, SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+
+		out = new StringBuilder();
+		parallel.formatLongs(formatter, Arrays.stream(values), SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+	}
+
+	/**
+	 * Tests the fixed-point values.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void testFormatDecimals() throws IOException {
+		LocalizedNumberFormatter formatter = LocalizedNumberFormatter.getNumberInstance(FA);
+		StringBuilder expected = new StringBuilder();
+		for (long value : values) {
+			expected.append(formatter.format(value, SCALE)).append(SEPARATOR);
+		}
+
+		StringBuilder out = new StringBuilder();
+		sequential.formatDecimals(formatter, values, SCALE, SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+
+		out = new StringBuilder();
+		parallel.formatDecimals(formatter, values, SCALE, SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+
+		out = new StringBuilder();
+		parallel.formatDecimals(formatter, Arrays.stream(values), SCALE, SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+	}
+
+	/**
+	 * Tests the <code>double</code> values.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void testFormatDoubles() throws IOException {
+		LocalizedNumberFormatter formatter = LocalizedNumberFormatter.getNumberInstance(FA);
+		StringBuilder expected = new StringBuilder();
+		for (double value : doubleValues) {
+			expected.append(formatter.format(value)).append(SEPARATOR);
+		}
+
+		StringBuilder out = new StringBuilder();
+		sequential.formatDoubles(formatter, doubleValues, SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+
+		out = new StringBuilder();
+		parallel.formatDoubles(formatter, doubleValues, SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+
+		out = new StringBuilder();
+		parallel.formatDoubles(formatter, Arrays.stream(doubleValues), SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+	}
+
+	/**
+	 * Tests the instants.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void testFormatEpochMillis() throws IOException {
+		LocalizedDateFormatter formatter = LocalizedDateFormatter.ofLocalizedDateTime(FormatStyle.FULL,
+				FormatStyle.FULL, FA);
+		TimeZone zone = TimeZone.getTimeZone("Asia/Tehran");
+		long[] epochMillis = new long[LENGTH];
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < LENGTH; i++) {
+			epochMillis[i] = 1700000000000L + values[i] % 100000000000L;
+			expected.append(formatter.format(epochMillis[i], zone)).append(SEPARATOR);
+		}
+
+		StringBuilder out = new StringBuilder();
+		sequential.formatEpochMillis(formatter, zone, epochMillis, SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+
+		out = new StringBuilder();
+		parallel.formatEpochMillis(formatter, zone, epochMillis, SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+
+		out = new StringBuilder();
+		parallel.formatEpochMillis(formatter, zone, Arrays.stream(epochMillis), SEPARATOR, out);
+		assertEquals(expected.toString(), out.toString());
+	}
+}
@@ -0,0 +1,221 @@
+package com.ikuuy.locale.format;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ikuuy.locale.util.ExtLocalesUtil;
+
+/**
+ * Tests that the formatters of {@link DateTimeFormatters} format the same
+ * strings as {@link DateFormat}, and parse the time zone names into the same
+ * instants as {@link SimpleDateFormat}. The tests need the providers of this
+ * library through the SPI, with
+ * <code>-Djava.locale.providers=SPI,CLDR,COMPAT</code>.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public class DateTimeFormattersTest {
+
+	/**
+	 * The time zones, including the ones without a name in some locales.
+	 */
+	private static final String[] ZONE_IDS = { "Asia/Tehran", "Australia/Lord_Howe", "America/Sao_Paulo",
+			"America/New_York", "Europe/Moscow", "UTC", "GMT" };
+
+	/**
+	 * The instants, in and out of the daylight saving time of the zones.
+	 */
+	private static final long[] EPOCH_MILLIS = { 0L, 951782400000L, 1300000000000L, 1341100000000L,
+			1609459199000L, 1700000000000L, 1720000000000L, -2000000000000L };
+
+	/**
+	 * The styles in the same order as <code>DateFormat</code>, following
+	 * <code>null</code> for no date or no time.
+	 */
+	private static final FormatStyle[] STYLES = { null, FormatStyle.FULL, FormatStyle.LONG, FormatStyle.MEDIUM,
+			FormatStyle.SHORT };
+
+	/**
+	 * The locale whose time zone names are the names of the root locale.
+	 */
+	private static final Locale MI = new Locale("mi");
+
+	/**
+	 * An instant in the daylight saving time of New York.
+	 */
+	private static final long SUMMER = 1720000000000L;
+
+	/**
+	 * The default time zone before the test.
+	 */
+	private TimeZone defaultZone;
+
+	/**
+	 * Sets the default time zone, which <code>SimpleDateFormat</code> prefers for
+	 * a name shared by multiple time zones, to the one sharing no name with the
+	 * tested zones.
+	 */
+	@Before
+	public void setUp() {
+		defaultZone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+	}
+
+	/**
+	 * Restores the default time zone.
+	 */
+	@After
+	public void tearDown() {
+		TimeZone.setDefault(defaultZone);
+	}
+
+	/**
+	 * Tests the formatting for every available locale and every style pair.
+	 */
+	@Test
+	public void testFormat() {
+		for (Locale locale : ExtLocalesUtil.getAvailableLocales()) {
+			for (int dateStyle = 0; dateStyle < STYLES.length; dateStyle++) {
+				for (int timeStyle = 0; timeStyle < STYLES.length; timeStyle++) {
+					DateFormat format;
+					if (dateStyle == 0 && timeStyle == 0) {
+						continue;
+					} else if (dateStyle == 0) {
+						format = DateFormat.getTimeInstance(timeStyle - 1, locale);
+					} else if (timeStyle == 0) {
+						format = DateFormat.getDateInstance(dateStyle - 1, locale);
+					} else {
+						format = DateFormat.getDateTimeInstance(dateStyle - 1, timeStyle - 1, locale);
+					}
+					DateTimeFormatter formatter = DateTimeFormatters.ofLocalizedDateTime(STYLES[dateStyle],
+							STYLES[timeStyle], locale);
+
+					for (String id : ZONE_IDS) {
+						TimeZone zone = TimeZone.getTimeZone(id);
+						format.setTimeZone(zone);
+						for (long epochMilli : EPOCH_MILLIS) {
+							assertEquals(locale + " " + STYLES[dateStyle] + " " + STYLES[timeStyle] + " " + id + " "
+									+ epochMilli, format.format(new Date(epochMilli)), formatter.format(
+											ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), zone.toZoneId())));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Formats an instant with the FULL date/time format of {@link #MI}.
+	 *
+	 * @param id the time zone ID.
+	 * @param epochMilli the instant.
+	 * @return the formatted string.
+	 */
+	private static String formatFull(final String id, final long epochMilli) {
+		DateFormat format = DateFormat.getDateTimeInstance(DateFormat.FULL, DateFormat.FULL, MI);
+		format.setTimeZone(TimeZone.getTimeZone(id));
+
+		return format.format(new Date(epochMilli));
+	}
+
+	/**
+	 * Parses a string with the FULL date/time format of {@link #MI}.
+	 *
+	 * @param id the time zone ID of the format.
+	 * @param text the string.
+	 * @return the instant.
+	 * @throws ParseException if the string isn't parsed.
+	 */
+	private static long parseFull(final String id, final String text) throws ParseException {
+		DateFormat format = DateFormat.getDateTimeInstance(DateFormat.FULL, DateFormat.FULL, MI);
+		format.setTimeZone(TimeZone.getTimeZone(id));
+
+		return format.parse(text).getTime();
+	}
+
+	/**
+	 * Tests parsing a daylight saving name into the daylight saving offset.
+	 *
+	 * @throws ParseException if <code>SimpleDateFormat</code> fails.
+	 */
+	@Test
+	public void testParseDaylightName() throws ParseException {
+		DateTimeFormatter formatter = DateTimeFormatters.ofLocalizedDateTime(FormatStyle.FULL, FormatStyle.FULL, MI);
+		String text = formatFull("America/New_York", SUMMER);
+		assertEquals(text, SUMMER, parseFull("America/New_York", text));
+
+		ZonedDateTime parsed = ZonedDateTime.parse(text, formatter.withZone(ZoneId.of("America/New_York")));
+		assertEquals(text, SUMMER, parsed.toInstant().toEpochMilli());
+		assertEquals(text, ZoneId.of("America/New_York"), parsed.getZone());
+		assertEquals(text, -4 * 3600, parsed.getOffset().getTotalSeconds());
+
+		TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+		parsed = ZonedDateTime.parse(text, formatter);
+		assertEquals(text, SUMMER, parsed.toInstant().toEpochMilli());
+		assertEquals(text, ZoneId.of("America/New_York"), parsed.getZone());
+	}
+
+	/**
+	 * Tests parsing a name shared by multiple time zones, which is resolved in the
+	 * preferred time zone. America/Atikokan has no daylight saving time, so its
+	 * daylight saving name is resolved into its standard offset, as
+	 * <code>SimpleDateFormat</code> does.
+	 *
+	 * @throws ParseException if <code>SimpleDateFormat</code> fails.
+	 */
+	@Test
+	public void testParseSharedName() throws ParseException {
+		DateTimeFormatter formatter = DateTimeFormatters.ofLocalizedDateTime(FormatStyle.FULL, FormatStyle.FULL, MI);
+		String text = formatFull("America/New_York", SUMMER);
+		long expected = parseFull("America/Atikokan", text);
+		assertEquals(text, SUMMER + 3600000L, expected);
+
+		ZonedDateTime parsed = ZonedDateTime.parse(text, formatter.withZone(ZoneId.of("America/Atikokan")));
+		assertEquals(text, expected, parsed.toInstant().toEpochMilli());
+		assertEquals(text, ZoneId.of("America/Atikokan"), parsed.getZone());
+
+		TimeZone.setDefault(TimeZone.getTimeZone("America/Atikokan"));
+		parsed = ZonedDateTime.parse(text, formatter);
+		assertEquals(text, expected, parsed.toInstant().toEpochMilli());
+	}
+
+	/**
+	 * Tests parsing a name whose offset isn't valid at the date, which is the
+	 * fixed offset of the name, as <code>SimpleDateFormat</code> does.
+	 *
+	 * @throws ParseException if <code>SimpleDateFormat</code> fails.
+	 */
+	@Test
+	public void testParseNameOutOfSeason() throws ParseException {
+		DateTimeFormatter formatter = DateTimeFormatters.ofLocalizedDateTime(FormatStyle.FULL, FormatStyle.FULL, MI);
+		// The standard name of America/New_York in summer.
+		String text = formatFull("America/Atikokan", SUMMER);
+		long expected = parseFull("America/New_York", text);
+		assertEquals(text, SUMMER, expected);
+
+		ZonedDateTime parsed = ZonedDateTime.parse(text, formatter.withZone(ZoneId.of("America/New_York")));
+		assertEquals(text, expected, parsed.toInstant().toEpochMilli());
+		assertEquals(text, ZoneId.of("America/New_York"), parsed.getZone());
+
+		TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+		parsed = ZonedDateTime.parse(text, formatter);
+		assertEquals(text, expected, parsed.toInstant().toEpochMilli());
+		assertEquals(text, -5 * 3600, parsed.getOffset().getTotalSeconds());
+	}
+}
@@ -0,0 +1,140 @@
+package com.ikuuy.locale.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.FormatStyle;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import com.ikuuy.locale.util.ExtLocalesUtil;
+
+/**
+ * Tests that {@link LocalizedDateFormatter} formats the same strings as
+ * {@link SimpleDateFormat} for every available locale. The tests need the
+ * providers of this library through the SPI, with
+ * <code>-Djava.locale.providers=SPI,CLDR,COMPAT</code>.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public class LocalizedDateFormatterTest {
+
+	/**
+	 * The time zones, with a half-hour daylight saving time and with the daylight
+	 * saving time in the southern hemisphere.
+	 */
+	private static final String[] ZONE_IDS = { "Asia/Tehran", "Australia/Lord_Howe", "America/Sao_Paulo" };
+
+	/**
+	 * The instants after the Gregorian cutover, in and out of the daylight saving
+	 * time of the zones.
+	 */
+	private static final long[] EPOCH_MILLIS = { 0L, 951782400000L, 1300000000000L, 1341100000000L,
+			1609459199999L, 1700000000000L, 1720000000000L, -2000000000000L };
+
+	/**
+	 * The patterns with every pattern letter which <code>SimpleDateFormat</code>
+	 * supports.
+	 */
+	private static final String[] PATTERNS = {
+			"G yyyy YY ww W D F u k K h a S SSS EEEE E MMM LLL LLLL Z X XX XXX zzzz z",
+			"yy-M-d H:m:s 'o''clock' MMMMM EEEEE" };
+
+	/**
+	 * The styles in the same order as <code>DateFormat</code>, following
+	 * <code>null</code> for no date or no time.
+	 */
+	private static final FormatStyle[] STYLES = { null, FormatStyle.FULL, FormatStyle.LONG, FormatStyle.MEDIUM,
+			FormatStyle.SHORT };
+
+	/**
+	 * Asserts that the formatter formats the same strings as the date format.
+	 *
+	 * @param formatter the formatter.
+	 * @param format the date format.
+	 * @param message the message on failure.
+	 */
+	private static void assertSameOutput(final LocalizedDateFormatter formatter, final DateFormat format,
+			final String message) {
+		for (String id : ZONE_IDS) {
+			TimeZone zone = TimeZone.getTimeZone(id);
+			format.setTimeZone(zone);
+			for (long epochMilli : EPOCH_MILLIS) {
+				String expected = format.format(new Date(epochMilli));
+				String context = message + " " + id + " " + epochMilli;
+				assertEquals(context, expected, formatter.format(epochMilli, zone));
+				assertEquals(context, expected, formatter.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(
+						epochMilli), zone.toZoneId())));
+			}
+		}
+	}
+
+	/**
+	 * Tests the localized date/time formatters for every style pair.
+	 */
+	@Test
+	public void testLocalizedDateTime() {
+		for (Locale locale : ExtLocalesUtil.getAvailableLocales()) {
+			for (int dateStyle = 0; dateStyle < STYLES.length; dateStyle++) {
+				for (int timeStyle = 0; timeStyle < STYLES.length; timeStyle++) {
+					DateFormat format;
+					if (dateStyle == 0 && timeStyle == 0) {
+						continue;
+					} else if (dateStyle == 0) {
+						format = DateFormat.getTimeInstance(timeStyle - 1, locale);
+					} else if (timeStyle == 0) {
+						format = DateFormat.getDateInstance(dateStyle - 1, locale);
+					} else {
+						format = DateFormat.getDateTimeInstance(dateStyle - 1, timeStyle - 1, locale);
+					}
+					assertSameOutput(LocalizedDateFormatter.ofLocalizedDateTime(STYLES[dateStyle],
+							STYLES[timeStyle], locale), format, locale + " " + STYLES[dateStyle] + " "
+							+ STYLES[timeStyle]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests the formatters of the patterns.
+	 */
+	@Test
+	public void testPattern() {
+		for (Locale locale : ExtLocalesUtil.getAvailableLocales()) {
+			for (String pattern : PATTERNS) {
+				assertSameOutput(LocalizedDateFormatter.ofPattern(pattern, locale), new SimpleDateFormat(pattern,
+						locale), locale + " " + pattern);
+			}
+		}
+	}
+
+	/**
+	 * Tests that the dates before the Gregorian cutover are in the proleptic
+	 * Gregorian calendar, unlike <code>SimpleDateFormat</code> which switches to
+	 * the Julian calendar.
+	 */
+	@Test
+	public void testBeforeGregorianCutover() {
+		Locale locale = new Locale("ky");
+		String pattern = "yyyy-MM-dd";
+		TimeZone zone = TimeZone.getTimeZone("UTC");
+		long epochMilli = ZonedDateTime.of(1500, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+
+		SimpleDateFormat format = new SimpleDateFormat(pattern, locale);
+		format.setTimeZone(zone);
+		String formatted = LocalizedDateFormatter.ofPattern(pattern, locale).format(epochMilli, zone);
+
+		assertEquals("1500-03-01", formatted);
+		assertEquals("1500-02-20", format.format(new Date(epochMilli)));
+		assertFalse(formatted.equals(format.format(new Date(epochMilli))));
+	}
+}
@@ -0,0 +1,173 @@
+package com.ikuuy.locale.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.text.DateFormatSymbols;
+import java.text.ParsePosition;
+import java.util.Calendar;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.ikuuy.locale.util.ExtLocalesUtil;
+import com.ikuuy.locale.util.TimeZoneNames;
+
+/**
+ * Tests {@link LocalizedNameParser}. The tests need the providers of this
+ * library through the SPI, with
+ * <code>-Djava.locale.providers=SPI,CLDR,COMPAT</code>.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public class LocalizedNameParserTest {
+
+	/**
+	 * The locale with the Latin names.
+	 */
+	private static final Locale MI = new Locale("mi");
+
+	/**
+	 * The locale with the time zone names.
+	 */
+	private static final Locale FA = new Locale("fa");
+
+	/**
+	 * Asserts that each name is parsed into its index, followed by a text which
+	 * isn't a part of the name.
+	 *
+	 * @param parser the parser.
+	 * @param field the calendar field.
+	 * @param names the names indexed by the values.
+	 * @param message the message on failure.
+	 */
+	private static void assertRoundTrip(final LocalizedNameParser parser, final int field, final String[] names,
+			final String message) {
+		for (int value = 0; value < names.length; value++) {
+			String name = names[value];
+			if (name == null || name.isEmpty()) {
+				continue;
+			}
+
+			String text = "<" + name + " 1";
+			ParsePosition position = new ParsePosition(1);
+			int parsed = parser.parse(field, text, position);
+			// A name shared by multiple values is parsed into one of them.
+			assertTrue(message + " " + name + " " + parsed, parsed == value || (parsed >= 0
+					&& parsed < names.length && name.equalsIgnoreCase(names[parsed])));
+			assertEquals(message + " " + name, 1 + name.length(), position.getIndex());
+			assertEquals(message + " " + name, -1, position.getErrorIndex());
+		}
+	}
+
+	/**
+	 * Tests that every name of the symbols is parsed for every available locale.
+	 */
+	@Test
+	public void testRoundTrip() {
+		for (Locale locale : ExtLocalesUtil.getAvailableLocales()) {
+			LocalizedNameParser parser = LocalizedNameParser.getInstance(locale);
+			DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+			String message = locale.toString();
+			assertRoundTrip(parser, Calendar.ERA, symbols.getEras(), message);
+			assertRoundTrip(parser, Calendar.MONTH, symbols.getMonths(), message);
+			assertRoundTrip(parser, Calendar.MONTH, symbols.getShortMonths(), message);
+			assertRoundTrip(parser, Calendar.DAY_OF_WEEK, symbols.getWeekdays(), message);
+			assertRoundTrip(parser, Calendar.DAY_OF_WEEK, symbols.getShortWeekdays(), message);
+			assertRoundTrip(parser, Calendar.AM_PM, symbols.getAmPmStrings(), message);
+		}
+	}
+
+	/**
+	 * Tests that the longest name wins over its prefix, and that a text matching
+	 * no name is an error.
+	 */
+	@Test
+	public void testLongestMatch() {
+		LocalizedNameParser parser = LocalizedNameParser.getInstance(MI);
+
+		ParsePosition position = new ParsePosition(0);
+		assertEquals(Calendar.JANUARY, parser.parse(Calendar.MONTH, "Kohit\u0101tea 2024", position));
+		assertEquals(9, position.getIndex());
+
+		position = new ParsePosition(0);
+		assertEquals(Calendar.JANUARY, parser.parse(Calendar.MONTH, "Kohi 2024", position));
+		assertEquals(4, position.getIndex());
+
+		position = new ParsePosition(0);
+		assertEquals(Calendar.NOVEMBER, parser.parse(Calendar.MONTH, "Whiringa \u0101-rangi", position));
+		assertEquals(16, position.getIndex());
+
+		position = new ParsePosition(3);
+		assertEquals(-1, parser.parse(Calendar.MONTH, "12 Xyz", position));
+		assertEquals(3, position.getIndex());
+		assertEquals(3, position.getErrorIndex());
+	}
+
+	/**
+	 * Tests that the names are matched ignoring case.
+	 */
+	@Test
+	public void testIgnoreCase() {
+		LocalizedNameParser parser = LocalizedNameParser.getInstance(MI);
+
+		ParsePosition position = new ParsePosition(0);
+		assertEquals(Calendar.PM, parser.parse(Calendar.AM_PM, "P.M.", position));
+		assertEquals(4, position.getIndex());
+
+		position = new ParsePosition(0);
+		assertEquals(Calendar.JANUARY, parser.parse(Calendar.MONTH, "KOHIT\u0100TEA", position));
+		assertEquals(9, position.getIndex());
+
+		position = new ParsePosition(0);
+		assertEquals(1, parser.parse(Calendar.ERA, "ad", position));
+	}
+
+	/**
+	 * Tests that the standard, the daylight saving and the generic names of a
+	 * time zone are told apart.
+	 */
+	@Test
+	public void testParseTimeZoneName() {
+		LocalizedNameParser parser = LocalizedNameParser.getInstance(FA);
+		String[] names = ExtLocalesUtil.getTimeZoneNames(FA).getNames("Asia/Tehran");
+		ZoneNameParseResult result = new ZoneNameParseResult();
+
+		ParsePosition position = new ParsePosition(0);
+		String text = names[TimeZoneNames.STANDARD_LONG];
+		assertTrue(parser.parseTimeZoneName(text, position, result));
+		assertEquals("Asia/Tehran", result.getID());
+		assertEquals(TimeZoneNames.STANDARD_LONG, result.getType());
+		assertFalse(result.isDaylight());
+		assertFalse(result.isGeneric());
+		assertEquals(text.length(), position.getIndex());
+
+		position = new ParsePosition(0);
+		text = names[TimeZoneNames.DAYLIGHT_LONG];
+		assertTrue(parser.parseTimeZoneName(text, position, result));
+		assertEquals("Asia/Tehran", result.getID());
+		assertEquals(TimeZoneNames.DAYLIGHT_LONG, result.getType());
+		assertTrue(result.isDaylight());
+		assertEquals(text.length(), position.getIndex());
+
+		position = new ParsePosition(0);
+		text = names[TimeZoneNames.GENERIC_LONG];
+		assertTrue(parser.parseTimeZoneName(text, position, result));
+		assertEquals(TimeZoneNames.GENERIC_LONG, result.getType());
+		assertTrue(result.isGeneric());
+		assertFalse(result.isDaylight());
+
+		position = new ParsePosition(0);
+		assertEquals("Asia/Tehran", parser.parseTimeZoneID(names[TimeZoneNames.DAYLIGHT_LONG], position));
+
+		position = new ParsePosition(0);
+		assertFalse(parser.parseTimeZoneName("xyz", position, result));
+		assertTrue(result.isError());
+		assertNull(result.getID());
+		assertEquals(-1, result.getType());
+		assertEquals(0, position.getErrorIndex());
+	}
+}
@@ -0,0 +1,128 @@
+package com.ikuuy.locale.format;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.util.Locale;
+
+import com.ikuuy.locale.provider.NumberFormatProviderImpl;
+
+/**
+ * A benchmark of {@link LocalizedNumberFormatter}, which compares formatting a
+ * <code>long</code> and a fixed-point value with {@link DecimalFormat} of
+ * {@link NumberFormatProviderImpl}. Run it after <code>mvn test-compile</code>:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes com.ikuuy.locale.format.LocalizedNumberFormatterBenchmark [languageTag...]
+ * </pre>
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class LocalizedNumberFormatterBenchmark {
+
+	/**
+	 * The locales measured if none is given, with the Extended Arabic-Indic and
+	 * the ASCII digits.
+	 */
+	private static final String[] DEFAULT_LANGUAGE_TAGS = { "fa-IR", "ky" };
+
+	/**
+	 * The number of the warm-up rounds.
+	 */
+	private static final int WARM_UP_ROUNDS = 3;
+
+	/**
+	 * The minimum time of a measurement in nanoseconds.
+	 */
+	private static final long MIN_TIME = 500000000L;
+
+	/**
+	 * The values formatted in turn.
+	 */
+	private static final long[] VALUES = { 0L, 7L, -42L, 1234L, 98765L, -1234567L, 123456789L, 9876543210123L };
+
+	/**
+	 * The scale of the fixed-point values.
+	 */
+	private static final int SCALE = 2;
+
+	/**
+	 * The names of the measured operations.
+	 */
+	private static final String[] OPERATIONS = { "DecimalFormat.format(long)", "format(long)",
+			"format(long, char[], int)", "DecimalFormat.format(BigDecimal)", "formatTo(long, 2, StringBuilder)" };
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private LocalizedNumberFormatterBenchmark() {
+	}
+
+	/**
+	 * Measures the average time of an operation.
+	 *
+	 * @param formatter the formatter.
+	 * @param format the number format.
+	 * @param operation the index of the operation in {@link #OPERATIONS}.
+	 * @return the average time in nanoseconds.
+	 * @throws IOException never.
+	 */
+	private static double measure(final LocalizedNumberFormatter formatter, final DecimalFormat format,
+			final int operation) throws IOException {
+		char[] buffer = new char[64];
+		StringBuilder builder = new StringBuilder(64);
+		int sink = 0;
+		long count = 0;
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			long value = VALUES[(int) (count % VALUES.length)];
+			if (operation == 0) {
+				sink += format.format(value).length();
+			} else if (operation == 1) {
+				sink += formatter.format(value).length();
+			} else if (operation == 2) {
+				sink += formatter.format(value, buffer, 0);
+			} else if (operation == 3) {
+				sink += format.format(BigDecimal.valueOf(value, SCALE)).length();
+			} else {
+				builder.setLength(0);
+				formatter.formatTo(value, SCALE, builder);
+				sink += builder.length();
+			}
+			count++;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < MIN_TIME);
+		if (sink == 0) {
+			throw new IllegalStateException();
+		}
+
+		return (double) elapsed / count;
+	}
+
+	/**
+	 * Runs the benchmark and prints the average times.
+	 *
+	 * @param args the language tags of the locales.
+	 * @throws IOException never.
+	 */
+	public static void main(final String[] args) throws IOException {
+		String[] languageTags = args.length > 0 ? args : DEFAULT_LANGUAGE_TAGS;
+		NumberFormatProviderImpl provider = new NumberFormatProviderImpl();
+
+		System.out.println(String.format("%-16s %-34s %10s", "locale", "operation", "ns/op"));
+		for (String languageTag : languageTags) {
+			Locale locale = Locale.forLanguageTag(languageTag);
+			LocalizedNumberFormatter formatter = LocalizedNumberFormatter.getNumberInstance(locale);
+			DecimalFormat format = (DecimalFormat) provider.getNumberInstance(locale);
+			for (int i = 0; i < OPERATIONS.length; i++) {
+				for (int j = 0; j < WARM_UP_ROUNDS; j++) {
+					measure(formatter, format, i);
+				}
+				System.out.println(String.format("%-16s %-34s %10.1f", locale, OPERATIONS[i],
+						Double.valueOf(measure(formatter, format, i))));
+			}
+		}
+	}
+}
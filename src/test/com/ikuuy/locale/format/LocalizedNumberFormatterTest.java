@@ -0,0 +1,149 @@
+package com.ikuuy.locale.format;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ikuuy.locale.provider.NumberFormatProviderImpl;
+import com.ikuuy.locale.util.ExtLocalesUtil;
+
+/**
+ * Tests that {@link LocalizedNumberFormatter} formats the same strings as the
+ * {@link DecimalFormat} of {@link NumberFormatProviderImpl} for every available
+ * locale and every kind of the formatters.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public class LocalizedNumberFormatterTest {
+
+	/**
+	 * The values formatted, including the bounds of <code>long</code>.
+	 */
+	private static final long[] VALUES = { 0L, 1L, -1L, 5L, -5L, 9L, 10L, 15L, -15L, 25L, -25L, 99L, 100L, 999L,
+			1000L, -1000L, 1005L, 9999L, 12345L, 123456L, 1234567L, -1234567L, 1000000000L, 1234567890123L,
+			999999999999999999L, 1000000000000000000L, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 1,
+			Long.MIN_VALUE + 1 };
+
+	/**
+	 * The minimum scale of the fixed-point values.
+	 */
+	private static final int MIN_SCALE = -3;
+
+	/**
+	 * The maximum scale of the fixed-point values.
+	 */
+	private static final int MAX_SCALE = 20;
+
+	/**
+	 * The number of the random values for each formatter.
+	 */
+	private static final int RANDOM_VALUES = 200;
+
+	/**
+	 * The number format provider.
+	 */
+	private final NumberFormatProviderImpl provider = new NumberFormatProviderImpl();
+
+	/**
+	 * Asserts that the formatter formats the same strings as the number format.
+	 *
+	 * @param formatter the formatter.
+	 * @param format the number format.
+	 * @param message the message on failure.
+	 */
+	private static void assertSameOutput(final LocalizedNumberFormatter formatter, final DecimalFormat format,
+			final String message) {
+		char[] buffer = new char[128];
+		Random random = new Random(message.hashCode());
+		long[] values = new long[VALUES.length + RANDOM_VALUES];
+		System.arraycopy(VALUES, 0, values, 0, VALUES.length);
+		for (int i = VALUES.length; i < values.length; i++) {
+			values[i] = random.nextLong() >> random.nextInt(64);
+		}
+
+		for (long value : values) {
+			String expected = format.format(value);
+			assertEquals(message + " " + value, expected, formatter.format(value));
+			int end = formatter.format(value, buffer, 0);
+			assertEquals(message + " " + value, expected, new String(buffer, 0, end));
+
+			for (int scale = MIN_SCALE; scale <= MAX_SCALE; scale++) {
+				expected = format.format(BigDecimal.valueOf(value, scale));
+				assertEquals(message + " " + value + "E-" + scale, expected, formatter.format(value, scale));
+			}
+		}
+	}
+
+	/**
+	 * Tests the general-purpose number formatters.
+	 */
+	@Test
+	public void testNumberInstance() {
+		for (Locale locale : ExtLocalesUtil.getAvailableLocales()) {
+			assertSameOutput(LocalizedNumberFormatter.getNumberInstance(locale),
+					(DecimalFormat) provider.getNumberInstance(locale), "number " + locale);
+		}
+	}
+
+	/**
+	 * Tests the integer number formatters.
+	 */
+	@Test
+	public void testIntegerInstance() {
+		for (Locale locale : ExtLocalesUtil.getAvailableLocales()) {
+			assertSameOutput(LocalizedNumberFormatter.getIntegerInstance(locale),
+					(DecimalFormat) provider.getIntegerInstance(locale), "integer " + locale);
+		}
+	}
+
+	/**
+	 * Tests the percentage formatters.
+	 */
+	@Test
+	public void testPercentInstance() {
+		for (Locale locale : ExtLocalesUtil.getAvailableLocales()) {
+			assertSameOutput(LocalizedNumberFormatter.getPercentInstance(locale),
+					(DecimalFormat) provider.getPercentInstance(locale), "percent " + locale);
+		}
+	}
+
+	/**
+	 * Tests the currency formatters.
+	 */
+	@Test
+	public void testCurrencyInstance() {
+		for (Locale locale : ExtLocalesUtil.getAvailableLocales()) {
+			assertSameOutput(LocalizedNumberFormatter.getCurrencyInstance(locale),
+					(DecimalFormat) provider.getCurrencyInstance(locale), "currency " + locale);
+		}
+	}
+
+	/**
+	 * Tests the ties, which are rounded half to even, and the negative values
+	 * rounded to zero, which keep the minus sign.
+	 */
+	@Test
+	public void testRounding() {
+		Locale locale = new Locale("fa", "IR");
+		LocalizedNumberFormatter formatter = LocalizedNumberFormatter.getNumberInstance(locale);
+		DecimalFormat format = (DecimalFormat) provider.getNumberInstance(locale);
+		int maximumDigits = format.getMaximumFractionDigits();
+
+		for (long tie = -95L; tie <= 95L; tie += 10L) {
+			BigDecimal value = BigDecimal.valueOf(tie, maximumDigits + 1);
+			assertEquals(value.toString(), format.format(value), formatter.format(tie, maximumDigits + 1));
+		}
+		assertEquals(format.format(BigDecimal.valueOf(-1L, maximumDigits + 1)), formatter.format(-1L,
+				maximumDigits + 1));
+		assertEquals(format.format(BigDecimal.valueOf(-4L, maximumDigits + 1)), formatter.format(-4L,
+				maximumDigits + 1));
+		assertEquals(format.format(BigDecimal.valueOf(-5L, maximumDigits + 1)), formatter.format(-5L,
+				maximumDigits + 1));
+	}
+}
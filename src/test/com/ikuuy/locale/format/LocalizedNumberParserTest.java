@@ -0,0 +1,179 @@
+package com.ikuuy.locale.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ikuuy.locale.provider.NumberFormatProviderImpl;
+import com.ikuuy.locale.util.ExtLocalesUtil;
+
+/**
+ * Tests {@link LocalizedNumberParser}.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public class LocalizedNumberParserTest {
+
+	/**
+	 * The locale with the Extended Arabic-Indic digits.
+	 */
+	private static final Locale FA = new Locale("fa", "IR");
+
+	/**
+	 * The number of the random values for each locale.
+	 */
+	private static final int RANDOM_VALUES = 500;
+
+	/**
+	 * The parser of {@link #FA}.
+	 */
+	private final LocalizedNumberParser parser = LocalizedNumberParser.getInstance(FA);
+
+	/**
+	 * The holder of the result.
+	 */
+	private final NumberParseResult result = new NumberParseResult();
+
+	/**
+	 * Asserts that the text is parsed into the value.
+	 *
+	 * @param unscaledValue the expected unscaled value.
+	 * @param scale the expected scale.
+	 * @param text the text.
+	 */
+	private void assertParsed(final long unscaledValue, final int scale, final String text) {
+		assertTrue(text + " " + result, parser.parse(text, result));
+		assertEquals(text, unscaledValue, result.getUnscaledValue());
+		assertEquals(text, scale, result.getScale());
+		assertEquals(text, text.length(), result.getIndex());
+		assertEquals(text, -1, result.getErrorIndex());
+	}
+
+	/**
+	 * Asserts that the text isn't parsed.
+	 *
+	 * @param errorIndex the expected index of the error.
+	 * @param text the text.
+	 */
+	private void assertError(final int errorIndex, final String text) {
+		assertFalse(text + " " + result, parser.parse(text, result));
+		assertTrue(text, result.isError());
+		assertEquals(text, errorIndex, result.getErrorIndex());
+		assertEquals(text, 0, result.getUnscaledValue());
+	}
+
+	/**
+	 * Tests the Extended Arabic-Indic, the Arabic-Indic and the ASCII digits mixed.
+	 */
+	@Test
+	public void testMixedDigits() {
+		assertParsed(1234L, 0, "\u06f1\u06f23\u0664");
+		assertParsed(1234567L, 0, "\u06f1\u066c\u06f2\u06f3\u06f4\u066c\u06f5\u06f6\u06f7");
+		assertParsed(1205L, 2, "\u06f1\u06f2\u066b\u0660\u06f5");
+		assertParsed(1205L, 2, "12.05");
+		assertParsed(1234L, 0, "1,234");
+	}
+
+	/**
+	 * Tests that the grouping separators are accepted only between the digits.
+	 */
+	@Test
+	public void testGroupingSeparators() {
+		assertError(1, "1,,2");
+		assertError(0, ",1");
+		assertError(1, "1,");
+		assertError(1, "1\u066c");
+		assertError(3, "1.2,3");
+	}
+
+	/**
+	 * Tests the signs before and after the digits.
+	 */
+	@Test
+	public void testSigns() {
+		assertParsed(-12L, 0, "-12");
+		assertParsed(-12L, 0, "12-");
+		assertParsed(-12L, 0, "\u200e\u2212\u06f1\u06f2");
+		assertParsed(12L, 0, "+12");
+		assertParsed(-12L, 0, " - 12 ");
+		assertError(3, "-12-");
+		assertError(2, "12+");
+		assertError(1, "-");
+	}
+
+	/**
+	 * Tests the bounds of <code>long</code>.
+	 */
+	@Test
+	public void testOverflow() {
+		assertParsed(Long.MIN_VALUE, 0, "-9223372036854775808");
+		assertParsed(Long.MAX_VALUE, 0, "9223372036854775807");
+		assertParsed(Long.MIN_VALUE, 1, "-922337203685477580.8");
+		assertError(18, "9223372036854775808");
+		assertError(20, "-92233720368547758080");
+		assertError(20, "922337203685477580.80");
+	}
+
+	/**
+	 * Tests that {@link LocalizedNumberParser#parseLong(CharSequence, NumberParseResult)}
+	 * rejects a non-zero fraction.
+	 */
+	@Test
+	public void testParseLong() {
+		assertTrue(parser.parseLong("12.00", result));
+		assertEquals(12L, result.getUnscaledValue());
+		assertEquals(0, result.getScale());
+
+		assertTrue(parser.parseLong("\u06f1\u06f2\u066b\u06f0", result));
+		assertEquals(12L, result.getUnscaledValue());
+
+		assertFalse(parser.parseLong("12.50", result));
+		assertEquals(3, result.getErrorIndex());
+		assertFalse(parser.parseLong("12.001", result));
+		assertEquals(5, result.getErrorIndex());
+	}
+
+	/**
+	 * Tests that the numbers formatted by {@link LocalizedNumberFormatter} and by
+	 * <code>DecimalFormat</code> are parsed back for every available locale.
+	 */
+	@Test
+	public void testRoundTrip() {
+		NumberFormatProviderImpl provider = new NumberFormatProviderImpl();
+		NumberParseResult roundTrip = new NumberParseResult();
+		for (Locale locale : ExtLocalesUtil.getAvailableLocales()) {
+			LocalizedNumberParser localeParser = LocalizedNumberParser.getInstance(locale);
+			LocalizedNumberFormatter formatter = LocalizedNumberFormatter.getNumberInstance(locale);
+			DecimalFormat format = (DecimalFormat) provider.getNumberInstance(locale);
+			int maximumDigits = format.getMaximumFractionDigits();
+			Random random = new Random(locale.hashCode());
+			for (int i = 0; i < RANDOM_VALUES; i++) {
+				long unscaledValue = random.nextLong() >> random.nextInt(64);
+				int scale = random.nextInt(maximumDigits + 1);
+				BigDecimal expected = BigDecimal.valueOf(unscaledValue, scale);
+
+				String text = formatter.format(unscaledValue, scale);
+				assertTrue(locale + " " + text, localeParser.parse(text, roundTrip));
+				assertEquals(locale + " " + text, 0, expected.compareTo(BigDecimal.valueOf(
+						roundTrip.getUnscaledValue(), roundTrip.getScale())));
+
+				text = format.format(expected);
+				assertTrue(locale + " " + text, localeParser.parse(text, roundTrip));
+				assertEquals(locale + " " + text, 0, expected.compareTo(BigDecimal.valueOf(
+						roundTrip.getUnscaledValue(), roundTrip.getScale())));
+			}
+
+			String text = format.format(Long.MIN_VALUE);
+			assertTrue(locale + " " + text, localeParser.parseLong(text, roundTrip));
+			assertEquals(locale + " " + text, Long.MIN_VALUE, roundTrip.getUnscaledValue());
+		}
+	}
+}
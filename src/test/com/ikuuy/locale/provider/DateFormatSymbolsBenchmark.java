@@ -0,0 +1,109 @@
+package com.ikuuy.locale.provider;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+
+import com.ikuuy.locale.util.ExtLocalesUtil;
+
+/**
+ * A benchmark of {@link DateFormatSymbolsProviderImpl#getInstance(Locale)},
+ * which compares building the symbols from the locale data, including the zone
+ * strings, with cloning the cached prototype. Run it after
+ * <code>mvn test-compile</code>:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes com.ikuuy.locale.provider.DateFormatSymbolsBenchmark [languageTag...]
+ * </pre>
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class DateFormatSymbolsBenchmark {
+
+	/**
+	 * The locales measured if none is given, with and without time zone names.
+	 */
+	private static final String[] DEFAULT_LANGUAGE_TAGS = { "fa", "mi" };
+
+	/**
+	 * The number of the warm-up rounds.
+	 */
+	private static final int WARM_UP_ROUNDS = 3;
+
+	/**
+	 * The minimum time of a measurement in nanoseconds.
+	 */
+	private static final long MIN_TIME = 500000000L;
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private DateFormatSymbolsBenchmark() {
+	}
+
+	/**
+	 * Builds the symbols from the locale data without the caches, in the same way
+	 * as each call did before the prototypes were cached.
+	 *
+	 * @param locale the supported locale.
+	 * @return the symbols.
+	 */
+	private static DateFormatSymbols build(final Locale locale) {
+		DateFormatSymbols symbols = DateFormatSymbolsProviderImpl.createInstance(ExtLocalesUtil.resolveLocale(locale));
+		Locale zoneLocale = ExtLocalesUtil.resolveTimeZoneNameLocale(locale);
+		if (zoneLocale != null) {
+			symbols.setZoneStrings(DateFormatSymbolsProviderImpl.createZoneStrings(zoneLocale));
+		}
+
+		return symbols;
+	}
+
+	/**
+	 * Measures the average time of building or getting the symbols.
+	 *
+	 * @param provider the provider.
+	 * @param locale the supported locale.
+	 * @param cached <code>true</code> to get the clones of the cached prototype;
+	 *     <code>false</code> to build the symbols on each call.
+	 * @return the average time in microseconds.
+	 */
+	private static double measure(final DateFormatSymbolsProviderImpl provider, final Locale locale,
+			final boolean cached) {
+		int sink = 0;
+		long count = 0;
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			DateFormatSymbols symbols = cached ? provider.getInstance(locale) : build(locale);
+			sink += symbols.getMonths().length;
+			count++;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < MIN_TIME);
+		if (sink == 0) {
+			throw new IllegalStateException();
+		}
+
+		return elapsed / 1e3 / count;
+	}
+
+	/**
+	 * Runs the benchmark and prints the average times.
+	 *
+	 * @param args the language tags of the locales.
+	 */
+	public static void main(final String[] args) {
+		String[] languageTags = args.length > 0 ? args : DEFAULT_LANGUAGE_TAGS;
+		DateFormatSymbolsProviderImpl provider = new DateFormatSymbolsProviderImpl();
+
+		System.out.println(String.format("%-16s %14s %14s", "locale", "build us/op", "clone us/op"));
+		for (String languageTag : languageTags) {
+			Locale locale = Locale.forLanguageTag(languageTag);
+			for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+				measure(provider, locale, false);
+				measure(provider, locale, true);
+			}
+			System.out.println(String.format("%-16s %14.1f %14.1f", locale, Double.valueOf(measure(provider, locale,
+					false)), Double.valueOf(measure(provider, locale, true))));
+		}
+	}
+}
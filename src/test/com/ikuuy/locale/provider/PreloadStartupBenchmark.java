@@ -0,0 +1,194 @@
+package com.ikuuy.locale.provider;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.text.Collator;
+import java.text.DateFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A benchmark of {@link Preloader}, which measures the time to the first
+ * formatting of a <code>NumberFormat</code> and a FULL <code>DateFormat</code>,
+ * and to the first comparison of a <code>Collator</code>, in a fresh JVM with
+ * and without preloading the locale. Each measurement forks a new JVM with the
+ * same class path and <code>java.locale.providers</code>. Run it after
+ * <code>mvn test-compile</code>:
+ *
+ * <pre>
+ * java -Djava.locale.providers=SPI,CLDR,COMPAT -cp target/classes:target/test-classes com.ikuuy.locale.provider.PreloadStartupBenchmark [languageTag...]
+ * </pre>
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class PreloadStartupBenchmark {
+
+	/**
+	 * The locales measured if none is given, with and without time zone names.
+	 */
+	private static final String[] DEFAULT_LANGUAGE_TAGS = { "fa", "mi" };
+
+	/**
+	 * The number of the JVMs forked for each measurement.
+	 */
+	private static final int FORKS = 5;
+
+	/**
+	 * The argument which runs the benchmark as a forked JVM.
+	 */
+	private static final String CHILD = "--child";
+
+	/**
+	 * The number of the times printed by a forked JVM.
+	 */
+	private static final int TIME_COUNT = 4;
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private PreloadStartupBenchmark() {
+	}
+
+	/**
+	 * Measures the first requests in this JVM and prints the times in
+	 * milliseconds, which are of the preload, the number format, the date format
+	 * and the collator.
+	 *
+	 * @param locale the locale.
+	 * @param preload <code>true</code> to preload the locale first.
+	 */
+	private static void runChild(final Locale locale, final boolean preload) {
+		long start = System.nanoTime();
+		if (preload) {
+			Preloader.preload(locale);
+		}
+		long preloaded = System.nanoTime();
+		String number = NumberFormat.getInstance(locale).format(1234567.891);
+		long numberFormatted = System.nanoTime();
+		String date = DateFormat.getDateTimeInstance(DateFormat.FULL, DateFormat.FULL, locale).format(new Date(0));
+		long dateFormatted = System.nanoTime();
+		int comparison = Collator.getInstance(locale).compare("abc", "ABD");
+		long compared = System.nanoTime();
+
+		if (number.isEmpty() || date.isEmpty() || comparison == 0) {
+			throw new IllegalStateException();
+		}
+		System.out.println(String.format(Locale.ROOT, "%.3f %.3f %.3f %.3f", Double.valueOf((preloaded - start)
+				/ 1e6), Double.valueOf((numberFormatted - preloaded) / 1e6), Double.valueOf((dateFormatted
+				- numberFormatted) / 1e6), Double.valueOf((compared - dateFormatted) / 1e6)));
+	}
+
+	/**
+	 * Forks a JVM which measures the first requests, and returns its times.
+	 *
+	 * @param languageTag the language tag of the locale.
+	 * @param preload <code>true</code> to preload the locale first.
+	 * @return the times in milliseconds.
+	 * @throws IOException if the forked JVM fails.
+	 * @throws InterruptedException if interrupted while waiting for the forked
+	 *     JVM.
+	 */
+	private static double[] fork(final String languageTag, final boolean preload) throws IOException,
+			InterruptedException {
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		String providers = System.getProperty("java.locale.providers");
+		if (providers != null) {
+			command.add("-Djava.locale.providers=" + providers);
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(PreloadStartupBenchmark.class.getName());
+		command.add(CHILD);
+		command.add(languageTag);
+		command.add(Boolean.toString(preload));
+
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		String lastLine = null;
+		BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lastLine = line;
+			}
+		} finally {
+			reader.close();
+		}
+		if (process.waitFor() != 0 || lastLine == null) {
+			throw new IOException("The forked JVM failed: " + lastLine);
+		}
+
+		String[] values = lastLine.split(" ");
+		if (values.length != TIME_COUNT) {
+			throw new IOException("Unexpected output: " + lastLine);
+		}
+		double[] times = new double[TIME_COUNT];
+		for (int i = 0; i < TIME_COUNT; i++) {
+			times[i] = Double.parseDouble(values[i]);
+		}
+
+		return times;
+	}
+
+	/**
+	 * Forks the JVMs for a measurement and returns the median times.
+	 *
+	 * @param languageTag the language tag of the locale.
+	 * @param preload <code>true</code> to preload the locale first.
+	 * @return the median times in milliseconds.
+	 * @throws IOException if a forked JVM fails.
+	 * @throws InterruptedException if interrupted while waiting for a forked JVM.
+	 */
+	private static double[] measure(final String languageTag, final boolean preload) throws IOException,
+			InterruptedException {
+		double[][] samples = new double[TIME_COUNT][FORKS];
+		for (int i = 0; i < FORKS; i++) {
+			double[] times = fork(languageTag, preload);
+			for (int j = 0; j < TIME_COUNT; j++) {
+				samples[j][i] = times[j];
+			}
+		}
+
+		double[] medians = new double[TIME_COUNT];
+		for (int j = 0; j < TIME_COUNT; j++) {
+			Arrays.sort(samples[j]);
+			medians[j] = samples[j][FORKS / 2];
+		}
+
+		return medians;
+	}
+
+	/**
+	 * Runs the benchmark and prints the median times, or measures the first
+	 * requests as a forked JVM.
+	 *
+	 * @param args the language tags of the locales.
+	 * @throws IOException if a forked JVM fails.
+	 * @throws InterruptedException if interrupted while waiting for a forked JVM.
+	 */
+	public static void main(final String[] args) throws IOException, InterruptedException {
+		if (args.length == 3 && CHILD.equals(args[0])) {
+			runChild(Locale.forLanguageTag(args[1]), Boolean.parseBoolean(args[2]));
+		} else {
+			String[] languageTags = args.length > 0 ? args : DEFAULT_LANGUAGE_TAGS;
+			System.out.println(String.format("%-8s %-8s %12s %12s %12s %12s %12s", "locale", "preload", "preload ms",
+					"number ms", "date ms", "collator ms", "total ms"));
+			for (String languageTag : languageTags) {
+				for (boolean preload : new boolean[] { false, true }) {
+					double[] times = measure(languageTag, preload);
+					System.out.println(String.format("%-8s %-8s %12.1f %12.1f %12.1f %12.1f %12.1f", languageTag,
+							Boolean.valueOf(preload), Double.valueOf(times[0]), Double.valueOf(times[1]),
+							Double.valueOf(times[2]), Double.valueOf(times[3]), Double.valueOf(times[1] + times[2]
+									+ times[3])));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package com.ikuuy.locale.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the name lookups of the locale name, currency name and time zone
+ * name providers allocate no object once the caches are warmed up, for both the
+ * names found and the names not found. The allocated bytes are measured by
+ * <code>com.sun.management.ThreadMXBean</code>, and the tests are skipped if the
+ * JVM doesn't support it.
+ *
+ * @author Yuki Yamada
+ *
+ */
+public class ProviderAllocationTest {
+
+	/**
+	 * The locale with the names.
+	 */
+	private static final Locale LOCALE = new Locale("fa");
+
+	/**
+	 * The number of the warm-up iterations, which are enough for the JIT
+	 * compiler to compile the lookups.
+	 */
+	private static final int WARM_UP_ITERATIONS = 50000;
+
+	/**
+	 * The number of the measured iterations.
+	 */
+	private static final int ITERATIONS = 10000;
+
+	/**
+	 * The bytes allowed for the measurement itself, which are far less than a
+	 * byte per iteration.
+	 */
+	private static final long SLACK_BYTES = 1024L;
+
+	/**
+	 * The thread management interface of the JVM.
+	 */
+	private com.sun.management.ThreadMXBean threadBean;
+
+	/**
+	 * The locale name provider.
+	 */
+	private final LocaleNameProviderImpl localeNameProvider = new LocaleNameProviderImpl();
+
+	/**
+	 * The currency name provider.
+	 */
+	private final CurrencyNameProviderImpl currencyNameProvider = new CurrencyNameProviderImpl();
+
+	/**
+	 * The time zone name provider.
+	 */
+	private final TimeZoneNameProviderImpl timeZoneNameProvider = new TimeZoneNameProviderImpl();
+
+	/**
+	 * A lookup measured by {@link #assertNoAllocation(Lookup)}.
+	 */
+	private interface Lookup {
+
+		/**
+		 * Looks up the names.
+		 *
+		 * @return the number of the names found.
+		 */
+		int run();
+	}
+
+	/**
+	 * Skips the tests if the allocated bytes can't be measured.
+	 */
+	@Before
+	public void setUp() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		threadBean = (com.sun.management.ThreadMXBean) bean;
+		assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	/**
+	 * Warms up and runs the lookup, and asserts that the measured iterations
+	 * allocate no object.
+	 *
+	 * @param lookup the lookup.
+	 */
+	private void assertNoAllocation(final Lookup lookup) {
+		int expected = lookup.run();
+		for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+			assertEquals(expected, lookup.run());
+		}
+
+		long threadId = Thread.currentThread().getId();
+		int found = 0;
+		long start = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < ITERATIONS; i++) {
+			found += lookup.run();
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - start;
+
+		assertEquals(expected * ITERATIONS, found);
+		assertTrue("allocated " + allocated + " bytes in " + ITERATIONS + " iterations", allocated <= SLACK_BYTES);
+	}
+
+	/**
+	 * Returns <code>1</code> if the name is found.
+	 *
+	 * @param name the name, or <code>null</code> if not found.
+	 * @return <code>1</code> if the name is found; <code>0</code> otherwise.
+	 */
+	private static int count(final String name) {
+		return name != null ? 1 : 0;
+	}
+
+	/**
+	 * Tests the locale names found.
+	 */
+	@Test
+	public void testLocaleNameHits() {
+		assertNotNull(localeNameProvider.getDisplayCountry("IR", LOCALE));
+		assertNotNull(localeNameProvider.getDisplayLanguage("fa", LOCALE));
+		assertNotNull(localeNameProvider.getDisplayScript("Arab", LOCALE));
+		assertNotNull(localeNameProvider.getDisplayVariant("POSIX", LOCALE));
+
+		assertNoAllocation(new Lookup() {
+			@Override
+			public int run() {
+				return count(localeNameProvider.getDisplayCountry("IR", LOCALE))
+						+ count(localeNameProvider.getDisplayLanguage("fa", LOCALE))
+						+ count(localeNameProvider.getDisplayScript("Arab", LOCALE))
+						+ count(localeNameProvider.getDisplayVariant("POSIX", LOCALE));
+			}
+		});
+	}
+
+	/**
+	 * Tests the locale names not found.
+	 */
+	@Test
+	public void testLocaleNameMisses() {
+		assertNull(localeNameProvider.getDisplayCountry("QQ", LOCALE));
+		assertNull(localeNameProvider.getDisplayLanguage("qqq", LOCALE));
+		assertNull(localeNameProvider.getDisplayScript("Qaaa", LOCALE));
+		assertNull(localeNameProvider.getDisplayVariant("QQQQQ", LOCALE));
+
+		assertNoAllocation(new Lookup() {
+			@Override
+			public int run() {
+				return count(localeNameProvider.getDisplayCountry("QQ", LOCALE))
+						+ count(localeNameProvider.getDisplayLanguage("qqq", LOCALE))
+						+ count(localeNameProvider.getDisplayScript("Qaaa", LOCALE))
+						+ count(localeNameProvider.getDisplayVariant("QQQQQ", LOCALE));
+			}
+		});
+	}
+
+	/**
+	 * Tests the currency names and symbols found.
+	 */
+	@Test
+	public void testCurrencyNameHits() {
+		assertNotNull(currencyNameProvider.getDisplayName("IRR", LOCALE));
+		assertNotNull(currencyNameProvider.getSymbol("IRR", LOCALE));
+
+		assertNoAllocation(new Lookup() {
+			@Override
+			public int run() {
+				return count(currencyNameProvider.getDisplayName("IRR", LOCALE))
+						+ count(currencyNameProvider.getSymbol("IRR", LOCALE));
+			}
+		});
+	}
+
+	/**
+	 * Tests the currency names and symbols not found.
+	 */
+	@Test
+	public void testCurrencyNameMisses() {
+		assertNull(currencyNameProvider.getDisplayName("XYZ", LOCALE));
+		assertNull(currencyNameProvider.getSymbol("XYZ", LOCALE));
+
+		assertNoAllocation(new Lookup() {
+			@Override
+			public int run() {
+				return count(currencyNameProvider.getDisplayName("XYZ", LOCALE))
+						+ count(currencyNameProvider.getSymbol("XYZ", LOCALE));
+			}
+		});
+	}
+
+	/**
+	 * Tests the time zone names found.
+	 */
+	@Test
+	public void testTimeZoneNameHits() {
+		assertNotNull(timeZoneNameProvider.getDisplayName("Asia/Tehran", false, TimeZone.LONG, LOCALE));
+		assertNotNull(timeZoneNameProvider.getDisplayName("Asia/Tehran", true, TimeZone.LONG, LOCALE));
+
+		assertNoAllocation(new Lookup() {
+			@Override
+			public int run() {
+				return count(timeZoneNameProvider.getDisplayName("Asia/Tehran", false, TimeZone.LONG, LOCALE))
+						+ count(timeZoneNameProvider.getDisplayName("Asia/Tehran", true, TimeZone.LONG, LOCALE));
+			}
+		});
+	}
+
+	/**
+	 * Tests the time zone names not found.
+	 */
+	@Test
+	public void testTimeZoneNameMisses() {
+		assertNull(timeZoneNameProvider.getDisplayName("XYZ/QQQ", false, TimeZone.LONG, LOCALE));
+		assertNull(timeZoneNameProvider.getGenericDisplayName("XYZ/QQQ", TimeZone.SHORT, LOCALE));
+
+		assertNoAllocation(new Lookup() {
+			@Override
+			public int run() {
+				return count(timeZoneNameProvider.getDisplayName("XYZ/QQQ", false, TimeZone.LONG, LOCALE))
+						+ count(timeZoneNameProvider.getGenericDisplayName("XYZ/QQQ", TimeZone.SHORT, LOCALE));
+			}
+		});
+	}
+}
@@ -0,0 +1,130 @@
+package com.ikuuy.locale.provider;
+
+import java.text.DateFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import com.ikuuy.locale.util.ExtLocalesUtil;
+
+/**
+ * A benchmark of the zone strings of {@link DateFormatSymbolsProviderImpl},
+ * which compares the symbols with the zone strings filled in eagerly with the
+ * ones filled in lazily by {@link LazyZoneStringsDateFormatSymbols}. It measures
+ * cloning a <code>SimpleDateFormat</code> without formatting, cloning it and
+ * formatting a time zone name once, and formatting a time zone name with the
+ * same instance. Run it after <code>mvn test-compile</code>:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes com.ikuuy.locale.provider.ZoneStringsBenchmark [languageTag...]
+ * </pre>
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class ZoneStringsBenchmark {
+
+	/**
+	 * The locales measured if none is given.
+	 */
+	private static final String[] DEFAULT_LANGUAGE_TAGS = { "fa-IR", "ky" };
+
+	/**
+	 * The number of the warm-up rounds.
+	 */
+	private static final int WARM_UP_ROUNDS = 3;
+
+	/**
+	 * The minimum time of a measurement in nanoseconds.
+	 */
+	private static final long MIN_TIME = 500000000L;
+
+	/**
+	 * The pattern formatted.
+	 */
+	private static final String PATTERN = "zzzz";
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private ZoneStringsBenchmark() {
+	}
+
+	/**
+	 * Measures the average time of an operation on a date format.
+	 *
+	 * @param prototype the date format.
+	 * @param mode <code>0</code> to clone the date format; <code>1</code> to clone
+	 *     and format; <code>2</code> to format with the same date format.
+	 * @return the average time in microseconds.
+	 */
+	private static double measure(final SimpleDateFormat prototype, final int mode) {
+		Date date = new Date(0);
+		SimpleDateFormat reused = (SimpleDateFormat) prototype.clone();
+		int sink = 0;
+		long count = 0;
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			if (mode == 0) {
+				sink += prototype.clone().hashCode() & 1;
+			} else if (mode == 1) {
+				sink += ((SimpleDateFormat) prototype.clone()).format(date).length();
+			} else {
+				sink += reused.format(date).length();
+			}
+			count++;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < MIN_TIME);
+		if (sink < 0) {
+			throw new IllegalStateException();
+		}
+
+		return elapsed / 1e3 / count;
+	}
+
+	/**
+	 * Returns a date format of {@link #PATTERN} with the symbols.
+	 *
+	 * @param symbols the symbols.
+	 * @return the date format.
+	 */
+	private static SimpleDateFormat createFormat(final DateFormatSymbols symbols) {
+		SimpleDateFormat format = new SimpleDateFormat(PATTERN, symbols);
+		format.setTimeZone(TimeZone.getTimeZone("Asia/Tehran"));
+
+		return format;
+	}
+
+	/**
+	 * Runs the benchmark and prints the average times.
+	 *
+	 * @param args the language tags of the locales.
+	 */
+	public static void main(final String[] args) {
+		String[] languageTags = args.length > 0 ? args : DEFAULT_LANGUAGE_TAGS;
+
+		System.out.println(String.format("%-16s %-6s %14s %14s %14s", "locale", "mode", "clone us/op",
+				"clone+z us/op", "z us/op"));
+		for (String languageTag : languageTags) {
+			Locale locale = ExtLocalesUtil.resolveLocale(Locale.forLanguageTag(languageTag));
+			DateFormatSymbols eager = DateFormatSymbolsProviderImpl.createInstance(locale);
+			eager.setZoneStrings(DateFormatSymbolsProviderImpl.getZoneStrings(locale));
+			SimpleDateFormat[] formats = {
+					createFormat(eager),
+					createFormat(new LazyZoneStringsDateFormatSymbols(locale)) };
+			String[] modes = { "eager", "lazy" };
+			for (int i = 0; i < formats.length; i++) {
+				for (int j = 0; j < WARM_UP_ROUNDS; j++) {
+					measure(formats[i], 0);
+					measure(formats[i], 1);
+					measure(formats[i], 2);
+				}
+				System.out.println(String.format("%-16s %-6s %14.2f %14.2f %14.2f", locale, modes[i],
+						Double.valueOf(measure(formats[i], 0)), Double.valueOf(measure(formats[i], 1)),
+						Double.valueOf(measure(formats[i], 2))));
+			}
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package com.ikuuy.locale.tools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import com.ikuuy.locale.util.LocaleDataSection;
+
+/**
+ * A build tool which generates the {@link java.util.ListResourceBundle}
+ * classes of the package <code>com.ikuuy.locale.data</code> from the
+ * <code>ExtLocales*.properties</code> files, so that the runtime loads
+ * compiled tables instead of parsing the properties files.
+ * <p>
+ * The entries of each properties file are split into the
+ * {@link LocaleDataSection sections}, and the class of a section is generated
+ * into the subpackage named after the section, such as
+ * <code>com.ikuuy.locale.data.zones.ExtLocales_fa</code>. Every properties
+ * file gets a class for every section even if the section is empty, so that
+ * the bundles of all sections have the same parent chains.
+ * <p>
+ * The entries are sorted by key and split into methods of a limited size, in
+ * order to keep each method within the limit of the class file format.
+ * <p>
+ * Usage: <code>BundleGenerator &lt;resource directory&gt; &lt;output
+ * directory&gt;</code>
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class BundleGenerator {
+
+	/**
+	 * The package of the generated classes.
+	 */
+	private static final String PACKAGE_NAME = "com.ikuuy.locale.data";
+
+	/**
+	 * The base name of the resource bundles.
+	 */
+	private static final String BASE_NAME = "ExtLocales";
+
+	/**
+	 * The number of the entries in a generated method.
+	 */
+	private static final int ENTRIES_PER_METHOD = 400;
+
+	/**
+	 * The line separator of the generated sources.
+	 */
+	private static final String NL = "\n";
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private BundleGenerator() {
+	}
+
+	/**
+	 * Generates the classes.
+	 *
+	 * @param args the resource directory and the output directory.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 2) {
+			throw new IllegalArgumentException("usage: BundleGenerator <resource directory> <output directory>");
+		}
+
+		File sourceDir = new File(args[0]);
+		File outputDir = new File(args[1], PACKAGE_NAME.replace('.', File.separatorChar));
+		for (LocaleDataSection section : LocaleDataSection.values()) {
+			File sectionDir = new File(outputDir, section.getName());
+			if (!sectionDir.isDirectory() && !sectionDir.mkdirs()) {
+				throw new IOException("Can't create " + sectionDir);
+			}
+		}
+
+		File[] files = sourceDir.listFiles();
+		if (files == null) {
+			throw new IOException("Can't list " + sourceDir);
+		}
+		Arrays.sort(files);
+
+		int count = 0;
+		for (File file : files) {
+			String name = file.getName();
+			if (name.startsWith(BASE_NAME) && name.endsWith(".properties")) {
+				String className = name.substring(0, name.length() - ".properties".length());
+				Properties props = load(file);
+				for (LocaleDataSection section : LocaleDataSection.values()) {
+					write(section, className, props,
+							new File(new File(outputDir, section.getName()), className + ".java"));
+				}
+				count++;
+			}
+		}
+		System.out.println("BundleGenerator: " + count + " bundles of " + LocaleDataSection.values().length
+				+ " sections in " + outputDir);
+	}
+
+	/**
+	 * Loads a properties file.
+	 *
+	 * @param file the properties file.
+	 * @return the properties.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	static Properties load(final File file) throws IOException {
+		Properties props = new Properties();
+		InputStream in = new FileInputStream(file);
+		try {
+			props.load(in);
+		} finally {
+			in.close();
+		}
+
+		return props;
+	}
+
+	/**
+	 * Returns the sorted keys of the properties which belong to a section.
+	 *
+	 * @param props the properties.
+	 * @param section the section.
+	 * @return the sorted keys.
+	 */
+	static List<String> getKeys(final Properties props, final LocaleDataSection section) {
+		List<String> keys = new ArrayList<String>();
+		for (String key : new TreeSet<String>(props.stringPropertyNames())) {
+			if (section.contains(key)) {
+				keys.add(key);
+			}
+		}
+
+		return keys;
+	}
+
+	/**
+	 * Writes the source of a resource bundle class of a section.
+	 *
+	 * @param section the section.
+	 * @param className the simple name of the class.
+	 * @param props the entries of the bundle.
+	 * @param file the output file.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static void write(final LocaleDataSection section, final String className, final Properties props,
+			final File file) throws IOException {
+		List<String> keys = getKeys(props, section);
+		int methodCount = (keys.size() + ENTRIES_PER_METHOD - 1) / ENTRIES_PER_METHOD;
+
+		StringBuilder out = new StringBuilder(keys.size() * 64);
+		out.append("package ").append(PACKAGE_NAME).append('.').append(section.getName()).append(';').append(NL);
+		out.append(NL);
+		out.append("import java.util.ListResourceBundle;").append(NL);
+		out.append(NL);
+		out.append("/**").append(NL);
+		out.append(" * Generated by ").append(BundleGenerator.class.getName()).append(" from the section ")
+				.append(section.getName()).append(" of ").append(className).append(".properties.").append(NL);
+		out.append(" * Don't edit this file.").append(NL);
+		out.append(" */").append(NL);
+		out.append("public final class ").append(className).append(" extends ListResourceBundle {").append(NL);
+		out.append(NL);
+		out.append("\t@Override").append(NL);
+		out.append("\tprotected Object[][] getContents() {").append(NL);
+		out.append("\t\tObject[][] contents = new Object[").append(keys.size()).append("][];").append(NL);
+		for (int i = 0; i < methodCount; i++) {
+			out.append("\t\tfill").append(i).append("(contents);").append(NL);
+		}
+		out.append("\t\treturn contents;").append(NL);
+		out.append("\t}").append(NL);
+		for (int i = 0; i < methodCount; i++) {
+			out.append(NL);
+			out.append("\tprivate static void fill").append(i).append("(final Object[][] contents) {").append(NL);
+			int end = Math.min((i + 1) * ENTRIES_PER_METHOD, keys.size());
+			for (int j = i * ENTRIES_PER_METHOD; j < end; j++) {
+				String key = keys.get(j);
+				out.append("\t\tcontents[").append(j).append("] = new Object[] { ");
+				appendLiteral(out, key);
+				out.append(", ");
+				appendLiteral(out, props.getProperty(key));
+				out.append(" };").append(NL);
+			}
+			out.append("\t}").append(NL);
+		}
+		out.append("}").append(NL);
+
+		// Keep the unchanged file, so that it isn't compiled again.
+		String source = out.toString();
+		if (!source.equals(read(file))) {
+			Writer writer = new OutputStreamWriter(new FileOutputStream(file), "US-ASCII");
+			try {
+				writer.write(source);
+			} finally {
+				writer.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads a generated source file.
+	 *
+	 * @param file the source file.
+	 * @return the content, or <code>null</code> if the file doesn't exist.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static String read(final File file) throws IOException {
+		String content = null;
+
+		if (file.isFile()) {
+			Reader reader = new InputStreamReader(new FileInputStream(file), "US-ASCII");
+			try {
+				StringBuilder builder = new StringBuilder((int) file.length());
+				char[] buffer = new char[8192];
+				int length;
+				while ((length = reader.read(buffer)) >= 0) {
+					builder.append(buffer, 0, length);
+				}
+				content = builder.toString();
+			} finally {
+				reader.close();
+			}
+		}
+
+		return content;
+	}
+
+	/**
+	 * Appends a Java string literal. The characters other than the printable
+	 * ASCII are escaped, where the quote, the backslash and the line terminators
+	 * use the escape sequences because the Unicode escapes are translated before
+	 * the literal is parsed.
+	 *
+	 * @param out the builder to be appended to.
+	 * @param value the string.
+	 */
+	private static void appendLiteral(final StringBuilder out, final String value) {
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				out.append('\\').append(c);
+			} else if (c == '\n') {
+				out.append("\\n");
+			} else if (c == '\r') {
+				out.append("\\r");
+			} else if (c < 0x20) {
+				out.append('\\').append(Integer.toOctalString(c + 01000).substring(1));
+			} else if (c < 0x7f) {
+				out.append(c);
+			} else {
+				out.append(String.format("\\u%04x", Integer.valueOf(c)));
+			}
+		}
+		out.append('"');
+	}
+}
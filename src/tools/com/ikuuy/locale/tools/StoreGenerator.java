@@ -0,0 +1,181 @@
+package com.ikuuy.locale.tools;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import com.ikuuy.locale.util.LocaleDataSection;
+
+/**
+ * A build tool which packs the entries of all <code>ExtLocales*.properties</code>
+ * files into a single binary file, which the runtime maps into memory.
+ * <p>
+ * The file consists of the following sections, where all integers are 32-bit
+ * big-endian:
+ * <ol>
+ * <li>the header: the magic number <code>ELDS</code>, the version, the number
+ * of the strings and the number of the bundles.</li>
+ * <li>the offsets of the strings, which have an extra element for the end of
+ * the last string.</li>
+ * <li>the bundles: the index of the bundle name such as
+ * <code>zones.ExtLocales_fa_IR</code>, which is prefixed with the name of the
+ * {@link LocaleDataSection section}, the number of the entries and the offset
+ * of the entries.</li>
+ * <li>the entries of each bundle: the index of the key and the index of the
+ * value, sorted by key.</li>
+ * <li>the string pool: the UTF-8 bytes of all distinct strings.</li>
+ * </ol>
+ * <p>
+ * Usage: <code>StoreGenerator &lt;resource directory&gt; &lt;output
+ * file&gt;</code>
+ *
+ * @author Yuki Yamada
+ *
+ */
+public final class StoreGenerator {
+
+	/**
+	 * The magic number of the file.
+	 */
+	static final int MAGIC = 0x454c4453;
+
+	/**
+	 * The version of the file format.
+	 */
+	static final int VERSION = 2;
+
+	/**
+	 * The base name of the resource bundles.
+	 */
+	private static final String BASE_NAME = "ExtLocales";
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private StoreGenerator() {
+	}
+
+	/**
+	 * Generates the file.
+	 *
+	 * @param args the resource directory and the output file.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 2) {
+			throw new IllegalArgumentException("usage: StoreGenerator <resource directory> <output file>");
+		}
+
+		File sourceDir = new File(args[0]);
+		File outputFile = new File(args[1]);
+		File outputDir = outputFile.getAbsoluteFile().getParentFile();
+		if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+			throw new IOException("Can't create " + outputDir);
+		}
+
+		File[] files = sourceDir.listFiles();
+		if (files == null) {
+			throw new IOException("Can't list " + sourceDir);
+		}
+		Arrays.sort(files);
+
+		List<String> strings = new ArrayList<String>();
+		Map<String, Integer> stringIndexes = new HashMap<String, Integer>();
+		List<int[]> bundles = new ArrayList<int[]>();
+		int entryCount = 0;
+		for (File file : files) {
+			String name = file.getName();
+			if (name.startsWith(BASE_NAME) && name.endsWith(".properties")) {
+				String bundleName = name.substring(0, name.length() - ".properties".length());
+				Properties props = BundleGenerator.load(file);
+				for (LocaleDataSection section : LocaleDataSection.values()) {
+					List<String> keys = BundleGenerator.getKeys(props, section);
+					int[] bundle = new int[2 + keys.size() * 2];
+					bundle[0] = intern(section.getName() + "." + bundleName, strings, stringIndexes);
+					bundle[1] = keys.size();
+					for (int i = 0; i < keys.size(); i++) {
+						String key = keys.get(i);
+						bundle[2 + i * 2] = intern(key, strings, stringIndexes);
+						bundle[3 + i * 2] = intern(props.getProperty(key), strings, stringIndexes);
+					}
+					bundles.add(bundle);
+					entryCount += keys.size();
+				}
+			}
+		}
+
+		List<byte[]> encoded = new ArrayList<byte[]>(strings.size());
+		for (String string : strings) {
+			encoded.add(string.getBytes("UTF-8"));
+		}
+
+		int stringOffsetsOffset = 16;
+		int bundlesOffset = stringOffsetsOffset + (strings.size() + 1) * 4;
+		int entriesOffset = bundlesOffset + bundles.size() * 12;
+		int poolOffset = entriesOffset + entryCount * 8;
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(strings.size());
+			out.writeInt(bundles.size());
+
+			int offset = poolOffset;
+			for (byte[] bytes : encoded) {
+				out.writeInt(offset);
+				offset += bytes.length;
+			}
+			out.writeInt(offset);
+
+			offset = entriesOffset;
+			for (int[] bundle : bundles) {
+				out.writeInt(bundle[0]);
+				out.writeInt(bundle[1]);
+				out.writeInt(offset);
+				offset += bundle[1] * 8;
+			}
+
+			for (int[] bundle : bundles) {
+				for (int i = 2; i < bundle.length; i++) {
+					out.writeInt(bundle[i]);
+				}
+			}
+
+			for (byte[] bytes : encoded) {
+				out.write(bytes);
+			}
+		} finally {
+			out.close();
+		}
+		System.out.println("StoreGenerator: " + bundles.size() + " bundles, " + entryCount + " entries, "
+				+ strings.size() + " strings in " + outputFile.length() + " bytes");
+	}
+
+	/**
+	 * Returns the index of a string in the pool, adding it if absent.
+	 *
+	 * @param string the string.
+	 * @param strings the pool.
+	 * @param stringIndexes the indexes of the strings in the pool.
+	 * @return the index of the string.
+	 */
+	private static int intern(final String string, final List<String> strings, final Map<String, Integer> stringIndexes) {
+		Integer index = stringIndexes.get(string);
+		if (index == null) {
+			index = Integer.valueOf(strings.size());
+			strings.add(string);
+			stringIndexes.put(string, index);
+		}
+
+		return index.intValue();
+	}
+}